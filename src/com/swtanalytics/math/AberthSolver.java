@@ -0,0 +1,249 @@
+package com.swtanalytics.math;
+
+import java.util.stream.IntStream;
+
+/**
+ * Finds every complex root of a polynomial at once by the Aberth-Ehrlich iteration:
+ *   z_k <- z_k - N_k / (1 - N_k * sum_{j != k} 1 / (z_k - z_j)),   N_k = p(z_k) / p'(z_k)
+ * which converges cubically to simple roots.  Each step depends only on the previous
+ * approximations, so the per-root updates run in parallel for large degrees.
+ *
+ * Everything works on primitive double arrays of real and imaginary parts.  The initial guesses
+ * are spread around a circle whose radius is Cauchy's bound on the roots' magnitudes.  For |z| > 1,
+ * the Newton ratio is computed from the reversed polynomial at 1 / z, so high degrees don't
+ * overflow.
+ */
+final class AberthSolver {
+    // Degrees from which the updates are computed in parallel
+    static final int PARALLEL_DEGREE = 64;
+
+    private static final int MAX_ITERATIONS = 500;
+    private static final double EPSILON = Math.ulp(1.0);
+
+    // Offsets the initial guesses from the real axis, so that no two start symmetrically.
+    private static final double INITIAL_ANGLE = 0.4;
+
+    // Approximations that coincide are pushed apart by this much, relative to their magnitude.
+    private static final double NUDGE = 1.0E-8;
+
+    // coefficients[i] is the coefficient of x^i; the first and last are non-zero.
+    private final double[] coefficients;
+    private final int degree;
+    private final int maxIterations;
+
+    private final double[] re;
+    private final double[] im;
+    private final double[] stepRe;
+    private final double[] stepIm;
+    private final boolean[] converged;
+
+    private AberthSolver(double[] coefficients, int maxIterations) {
+        this.coefficients = coefficients;
+        this.degree = coefficients.length - 1;
+        this.maxIterations = maxIterations;
+        re = new double[degree];
+        im = new double[degree];
+        stepRe = new double[degree];
+        stepIm = new double[degree];
+        converged = new boolean[degree];
+    }
+
+    /**
+     * @return The roots of the polynomial whose coefficient of x^i is coefficients[i], with
+     * repeated roots repeated.  The first and last coefficients must be non-zero.
+     * @throws ArithmeticException If some approximations haven't converged within the iteration limit.
+     */
+    static Complex[] roots(double[] coefficients) {
+        return roots(coefficients, MAX_ITERATIONS);
+    }
+
+    static Complex[] roots(double[] coefficients, int maxIterations) {
+        AberthSolver solver = new AberthSolver(coefficients, maxIterations);
+        solver.solve();
+
+        Complex[] roots = new Complex[solver.degree];
+        for (int k = 0; k < roots.length; ++k) {
+            roots[k] = new Complex(solver.re[k], solver.im[k]);
+        }
+        return roots;
+    }
+
+    private void solve() {
+        if (degree == 0) {
+            return;
+        }
+
+        double radius = cauchyRadius(coefficients);
+        for (int k = 0; k < degree; ++k) {
+            double angle = 2 * Math.PI * k / degree + INITIAL_ANGLE;
+            re[k] = radius * Math.cos(angle);
+            im[k] = radius * Math.sin(angle);
+        }
+
+        for (int iteration = 0; iteration < maxIterations; ++iteration) {
+            if (degree >= PARALLEL_DEGREE) {
+                IntStream.range(0, degree).parallel().forEach(this::computeStep);
+            } else {
+                for (int k = 0; k < degree; ++k) {
+                    computeStep(k);
+                }
+            }
+
+            boolean done = true;
+            for (int k = 0; k < degree; ++k) {
+                if (!converged[k]) {
+                    re[k] -= stepRe[k];
+                    im[k] -= stepIm[k];
+                    done = false;
+                }
+            }
+            if (done) {
+                return;
+            }
+        }
+
+        int unconverged = 0;
+        for (boolean c : converged) {
+            if (!c) {
+                ++unconverged;
+            }
+        }
+        throw new ArithmeticException(unconverged + " of " + degree + " roots didn't converge in " + maxIterations + " iterations.");
+    }
+
+    /**
+     * Computes the Aberth correction for root k from the current approximations, or marks it as converged.
+     */
+    private void computeStep(int k) {
+        if (converged[k]) {
+            return;
+        }
+
+        double zr = re[k];
+        double zi = im[k];
+        double[] c = coefficients;
+
+        // Horner's scheme for p and p' (on the reversed polynomial at w = 1/z if |z| > 1), with a
+        // running bound on the rounding error in p.
+        boolean reversed = (zr * zr + zi * zi) > 1;
+        double xr = zr;
+        double xi = zi;
+        if (reversed) {
+            double d = zr * zr + zi * zi;
+            xr = zr / d;
+            xi = -zi / d;
+        }
+        double xAbs = Math.hypot(xr, xi);
+
+        double pr = c[reversed ? 0 : degree];
+        double pi = 0;
+        double dr = 0;
+        double di = 0;
+        double errorBound = Math.abs(pr);
+        for (int i = degree - 1; i >= 0; --i) {
+            double t = dr * xr - di * xi + pr;
+            di = dr * xi + di * xr + pi;
+            dr = t;
+            double ci = c[reversed ? degree - i : i];
+            t = pr * xr - pi * xi + ci;
+            pi = pr * xi + pi * xr;
+            pr = t;
+            errorBound = errorBound * xAbs + Math.abs(ci);
+        }
+
+        if (Math.hypot(pr, pi) <= 2 * degree * EPSILON * errorBound) {
+            // p(z) is indistinguishable from rounding error
+            converged[k] = true;
+            return;
+        }
+
+        // The Newton ratio N = p / p'
+        double nr;
+        double ni;
+        if (!reversed) {
+            double d = dr * dr + di * di;
+            nr = (pr * dr + pi * di) / d;
+            ni = (pi * dr - pr * di) / d;
+        } else {
+            // With r(w) = w^n p(1/w):  p'(z) / p(z) = (n - w r'(w) / r(w)) / z, so N = z / (n - w r' / r).
+            double d = pr * pr + pi * pi;
+            double qr = (dr * pr + di * pi) / d; // r' / r
+            double qi = (di * pr - dr * pi) / d;
+            double sr = degree - (xr * qr - xi * qi);
+            double si = -(xr * qi + xi * qr);
+            d = sr * sr + si * si;
+            nr = (zr * sr + zi * si) / d;
+            ni = (zi * sr - zr * si) / d;
+        }
+
+        // The Aberth sum S = sum_{j != k} 1 / (z_k - z_j)
+        double sumR = 0;
+        double sumI = 0;
+        for (int j = 0; j < degree; ++j) {
+            if (j != k) {
+                double ar = zr - re[j];
+                double ai = zi - im[j];
+                double d = ar * ar + ai * ai;
+                sumR += ar / d;
+                sumI -= ai / d;
+            }
+        }
+
+        // step = N / (1 - N S)
+        double br = 1 - (nr * sumR - ni * sumI);
+        double bi = -(nr * sumI + ni * sumR);
+        double d = br * br + bi * bi;
+        double wr = (nr * br + ni * bi) / d;
+        double wi = (ni * br - nr * bi) / d;
+
+        if (Double.isNaN(wr) || Double.isNaN(wi)) {
+            // Two approximations coincided, and p(z) isn't small enough for this to be a root of
+            // theirs, so push this one off in a direction of its own and carry on.
+            double nudge = NUDGE * Math.max(1, Math.hypot(zr, zi));
+            double angle = 2 * Math.PI * k / degree + INITIAL_ANGLE;
+            stepRe[k] = nudge * Math.cos(angle);
+            stepIm[k] = nudge * Math.sin(angle);
+            return;
+        }
+        stepRe[k] = wr;
+        stepIm[k] = wi;
+        if (Math.hypot(wr, wi) <= EPSILON * Math.hypot(zr, zi)) {
+            converged[k] = true;
+        }
+    }
+
+    /**
+     * @return Cauchy's bound on the roots' magnitudes: the positive root of
+     * |a_n| x^n - sum_{i < n} |a_i| x^i.
+     */
+    static double cauchyRadius(double[] coefficients) {
+        int n = coefficients.length - 1;
+        double lead = Math.abs(coefficients[n]);
+        double upper = 0;
+        for (int i = 0; i < n; ++i) {
+            upper = Math.max(upper, Math.abs(coefficients[i]) / lead);
+        }
+        upper += 1;
+        double lower = 0;
+
+        // Dividing by x^n, that's where |a_n| - sum_{i < n} |a_i| y^(n - i), with y = 1/x, reaches
+        // zero; that form is monotonic and can't overflow.  Bisect for it.
+        for (int iteration = 0; iteration < 64 && lower < upper; ++iteration) {
+            double x = lower + (upper - lower) / 2;
+            if (x == lower || x == upper) {
+                break;
+            }
+            double y = 1 / x;
+            double sum = 0;
+            for (int i = 0; i < n; ++i) {
+                sum = (sum + Math.abs(coefficients[i])) * y;
+            }
+            if (lead - sum < 0) {
+                lower = x;
+            } else {
+                upper = x;
+            }
+        }
+        return upper;
+    }
+}
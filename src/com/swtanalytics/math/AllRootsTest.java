@@ -0,0 +1,142 @@
+package com.swtanalytics.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class AllRootsTest {
+    private static MathFunction functionOf(Term... terms) {
+        MathFunction function = new MathFunction();
+        for (Term t : terms) {
+            function.addTerm(t);
+        }
+        return function;
+    }
+
+    private static List<Double> realParts(List<Complex> roots) {
+        List<Double> result = new ArrayList<Double>();
+        for (Complex root : roots) {
+            if (root.isReal(1.0E-8)) {
+                result.add(root.real());
+            }
+        }
+        return result;
+    }
+
+    private static void assertRoot(double re, double im, Complex actual, double epsilon) {
+        Assert.assertEquals(actual.toString(), re, actual.real(), epsilon);
+        Assert.assertEquals(actual.toString(), im, actual.imaginary(), epsilon);
+    }
+
+    @Test
+    public void constantFunctionsHaveNoRoots() {
+        Assert.assertTrue(new MathFunction().allRoots().isEmpty());
+        Assert.assertTrue(functionOf(new Term(5, 0)).allRoots().isEmpty());
+    }
+
+    @Test
+    public void complexConjugatePair() {
+        // x^2 + 2x + 5 has roots -1 +/- 2i
+        List<Complex> roots = functionOf(new Term(1, 2), new Term(2, 1), new Term(5, 0)).allRoots();
+
+        Assert.assertEquals(2, roots.size());
+        assertRoot(-1, -2, roots.get(0), 1.0E-14);
+        assertRoot(-1, 2, roots.get(1), 1.0E-14);
+    }
+
+    @Test
+    public void zeroRootsAreExact() {
+        // x^5 - x^3 = x^3 (x - 1)(x + 1)
+        List<Complex> roots = functionOf(new Term(1, 5), new Term(-1, 3)).allRoots();
+
+        Assert.assertEquals(5, roots.size());
+        assertRoot(-1, 0, roots.get(0), 1.0E-15);
+        for (int i = 1; i < 4; ++i) {
+            Assert.assertEquals(new Complex(0, 0), roots.get(i));
+        }
+        assertRoot(1, 0, roots.get(4), 1.0E-15);
+    }
+
+    @Test
+    public void negativeExponents() {
+        // x - 4/x -> x^2 - 4
+        List<Complex> roots = functionOf(new Term(1, 1), new Term(-4, -1)).allRoots();
+
+        Assert.assertEquals(2, roots.size());
+        assertRoot(-2, 0, roots.get(0), 1.0E-15);
+        assertRoot(2, 0, roots.get(1), 1.0E-15);
+    }
+
+    @Test
+    public void rootsOfUnityAtHighDegree() {
+        // x^90 - 1, which takes the parallel path
+        int n = 90;
+        Assert.assertTrue(n >= AberthSolver.PARALLEL_DEGREE);
+        List<Complex> roots = functionOf(new Term(1, n), new Term(-1, 0)).allRoots();
+
+        Assert.assertEquals(n, roots.size());
+        for (Complex root : roots) {
+            Assert.assertEquals(root.toString(), 1, root.abs(), 1.0E-13);
+            double angle = Math.atan2(root.imaginary(), root.real()) * n / (2 * Math.PI);
+            Assert.assertEquals(root.toString(), Math.rint(angle), angle, 1.0E-10);
+        }
+        Assert.assertEquals(2, realParts(roots).size());
+    }
+
+    @Test
+    public void realRootsMatchSturm() {
+        RandomGenerator randomGenerator = new SeededRandomGenerator(31337);
+        MathFunctionFactory factory = new MathFunctionFactory(
+                new RandomTermFactory(new RandomFractionFactory(randomGenerator)), randomGenerator);
+        RootSolver sturm = new SturmRootSolver();
+
+        for (int i = 0; i < 100; ++i) {
+            MathFunction function = factory.create(false, randomGenerator.generateInt(1, 6), 70, false);
+            List<Complex> roots = function.allRoots();
+            Assert.assertEquals(function.toString(), function.degree().intValue(), roots.size());
+
+            List<Double> expected = function.solve(sturm, MathContext.DECIMAL128);
+            List<Double> actual = new ArrayList<Double>();
+            for (double x : realParts(roots)) {
+                // Repeated roots (here, only ever at zero) come back repeated
+                if (actual.isEmpty() || Math.abs(actual.get(actual.size() - 1) - x) > 1.0E-6) {
+                    actual.add(x);
+                }
+            }
+            Assert.assertEquals(function + " " + roots, expected.size(), actual.size());
+            for (int j = 0; j < expected.size(); ++j) {
+                Assert.assertEquals(function.toString(), expected.get(j), actual.get(j), 1.0E-9 * Math.max(1, Math.abs(expected.get(j))));
+            }
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void fractionalExponentsAreUnsupported() {
+        functionOf(new Term(1, new Fraction(1, 2))).allRoots();
+    }
+
+    @Test
+    public void repeatedRootsConvergeWithoutFreezingWrongApproximations() {
+        // (x - 1)^5 (x + 2), whose approximations crowd together around 1
+        List<Complex> roots = functionOf(new Term(1, 6), new Term(-3, 5), new Term(10, 3), new Term(-15, 2),
+                new Term(9, 1), new Term(-2, 0)).allRoots();
+
+        Assert.assertEquals(6, roots.size());
+        assertRoot(-2, 0, roots.get(0), 1.0E-12);
+        for (Complex root : roots.subList(1, 6)) {
+            Assert.assertEquals(root.toString(), 0, Math.hypot(root.real() - 1, root.imaginary()), 1.0E-2);
+        }
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void unconvergedRootsAreReported() {
+        // x^2 + 1 takes more than one iteration
+        AberthSolver.roots(new double[] { 1, 0, 1 }, 1);
+    }
+}
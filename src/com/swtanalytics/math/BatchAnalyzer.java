@@ -0,0 +1,282 @@
+package com.swtanalytics.math;
+
+import java.math.MathContext;
+import java.util.List;
+
+/**
+ * Finds the roots and extrema of many functions, writing them to primitive arrays or to a columnar
+ * BatchResult instead of building Lists, Extrema and derivative MathFunctions for each one.
+ *
+ * For functions whose exponents are all whole and non-negative, the work is done in a
+ * SolverWorkspace: the derivatives' coefficients are written into its arrays, and each derivative
+ * is solved from the top down, bracketing one root in each span between the roots of the next
+ * derivative and refining it with SpanSolver, as MathFunction.solve(...) does.  Once the workspace and the result have grown to fit, analyzing a
+ * function allocates nothing, as long as its coefficients' doubleValue()s are cached or fit in
+ * longs.
+ *
+ * Unlike MathFunction.solve(...), there's no exact stage: no rational roots, square-free factors or
+ * closed forms.  So a root of even multiplicity, where the function touches zero without changing
+ * sign, has no span to be bracketed in; it's found directly only where the function is exactly zero
+ * in floating point, as it is at x = 0 and at roots its derivatives share exactly.  When the value
+ * at any other critical point is within the rounding error of zero, the function may have such a
+ * root, and it's passed on to MathFunction.solve(...) and findExtrema(...), as are functions with
+ * fractional or negative exponents, and functions for which SpanSolver overflows or runs out of
+ * steps.  Those allocate as usual.
+ */
+public final class BatchAnalyzer {
+    private BatchAnalyzer() {
+    }
+
+    /**
+     * Finds the roots of each of @c functions, and its extrema over [domainMin, domainMax], and
+     * stores them in @c result, replacing whatever it held.  A function with an exponent whose
+     * denominator is too large to solve for (see MathFunction.solve(...)) gets no roots and NaN
+     * extrema.
+     */
+    public static void analyze(List<? extends MathFunction> functions, double domainMin, double domainMax,
+                               SolverWorkspace workspace, BatchResult result) {
+        int size = functions.size();
+        result.reset(size);
+        for (int i = 0; i < size; ++i) {
+            MathFunction function = functions.get(i);
+            int degree = function.wholeDegree();
+            if (degree < 0) {
+                analyzeGeneral(function, domainMin, domainMax, result, i);
+                continue;
+            }
+
+            load(function, degree, workspace);
+            if (!solveDerivatives(workspace, degree) || mayTouchZero(workspace, degree)) {
+                analyzeGeneral(function, domainMin, domainMax, result, i);
+                continue;
+            }
+            int count = workspace.rootCounts[0];
+            System.arraycopy(workspace.roots[0], 0, result.reserveRoots(i, count), result.rootOffset(i), count);
+            double[] c = workspace.coefficients[0];
+            double[] criticalPoints = workspace.roots[Math.min(1, degree)];
+            int criticalPointCount = (degree < 2) ? 0 : workspace.rootCounts[1];
+
+            // The same scan as MonotoneIndex.extrema(...): ties go to the smallest x.
+            double xMin = domainMin;
+            double xMax = domainMin;
+            double yMin = SpanSolver.valueAt(c, degree, domainMin);
+            double yMax = yMin;
+            for (int j = 0; j < criticalPointCount; ++j) {
+                double x = criticalPoints[j];
+                if (x <= domainMin) continue;
+                if (domainMax <= x) break;
+                double y = SpanSolver.valueAt(c, degree, x);
+                if (y < yMin) {
+                    xMin = x;
+                    yMin = y;
+                }
+                if (yMax < y) {
+                    xMax = x;
+                    yMax = y;
+                }
+            }
+            double y = SpanSolver.valueAt(c, degree, domainMax);
+            if (y < yMin) {
+                xMin = domainMax;
+                yMin = y;
+            }
+            if (yMax < y) {
+                xMax = domainMax;
+                yMax = y;
+            }
+            result.set(i, count, xMin, yMin, xMax, yMax);
+        }
+    }
+
+    /**
+     * Finds the distinct real roots of @c function and writes them to @c roots in ascending order,
+     * starting at @c offset.
+     * @return The number of roots written.
+     * @throws IllegalArgumentException If @c roots hasn't got room for as many roots as the degree.
+     * @throws UnsupportedOperationException As MathFunction.solve(...) does.
+     */
+    public static int solve(MathFunction function, SolverWorkspace workspace, double[] roots, int offset) {
+        int degree = function.wholeDegree();
+        if (degree >= 0) {
+            checkRoom(roots, offset, degree);
+            load(function, degree, workspace);
+            if (solveDerivatives(workspace, degree) && !mayTouchZero(workspace, degree)) {
+                int count = workspace.rootCounts[0];
+                System.arraycopy(workspace.roots[0], 0, roots, offset, count);
+                return count;
+            }
+        }
+
+        List<Double> solutions = function.solve(MathContext.DECIMAL128);
+        checkRoom(roots, offset, solutions.size());
+        for (int j = 0; j < solutions.size(); ++j) {
+            roots[offset + j] = solutions.get(j);
+        }
+        return solutions.size();
+    }
+
+    private static void checkRoom(double[] roots, int offset, int count) {
+        if (offset < 0 || roots.length - offset < count) {
+            throw new IllegalArgumentException("Not enough room for " + count + " roots.");
+        }
+    }
+
+    private static void analyzeGeneral(MathFunction function, double domainMin, double domainMax, BatchResult result, int i) {
+        List<Double> solutions;
+        Extrema extrema;
+        try {
+            solutions = function.solve(MathContext.DECIMAL128);
+            extrema = function.findExtrema(domainMin, domainMax);
+        } catch (UnsupportedOperationException e) {
+            result.set(i, 0, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+            return;
+        }
+
+        int offset = result.rootOffset(i);
+        double[] roots = result.reserveRoots(i, solutions.size());
+        for (int j = 0; j < solutions.size(); ++j) {
+            roots[offset + j] = solutions.get(j);
+        }
+        result.set(i, solutions.size(), extrema.argMin(), extrema.min(), extrema.argMax(), extrema.max());
+    }
+
+    /**
+     * @return True if the solved function's value at one of its critical points is non-zero but
+     * within the rounding error of evaluating it, so that it may touch zero there.
+     */
+    private static boolean mayTouchZero(SolverWorkspace workspace, int degree) {
+        return (degree >= 2) && mayTouchZero(workspace.coefficients[0], degree, workspace.roots[1], workspace.rootCounts[1]);
+    }
+
+    /**
+     * @return True if the value of @c p, of degree @c d, at one of @c criticalPoints is non-zero but
+     * within the rounding error of evaluating it.
+     */
+    static boolean mayTouchZero(double[] p, int d, double[] criticalPoints, int criticalPointCount) {
+        for (int j = 0; j < criticalPointCount; ++j) {
+            double x = criticalPoints[j];
+            double y = SpanSolver.horner(p, d, x);
+            if (y != 0 && Math.abs(y) <= hornerError(p, d, x)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes @c function's coefficients to level 0 of the workspace, and each derivative's to the
+     * level below, scaled to keep the same leading coefficient.
+     */
+    private static void load(MathFunction function, int degree, SolverWorkspace workspace) {
+        workspace.ensureCapacity(degree);
+        double[][] coefficients = workspace.coefficients;
+        function.wholeCoefficients(coefficients[0]);
+        for (int k = 1; k < degree; ++k) {
+            double[] previous = coefficients[k - 1];
+            double[] current = coefficients[k];
+            int previousDegree = degree - k + 1;
+            for (int i = 0; i < previousDegree; ++i) {
+                current[i] = previous[i + 1] * (i + 1) / previousDegree;
+            }
+        }
+    }
+
+    /**
+     * Solves the loaded polynomial and its derivatives, from the linear one up.
+     * @return False if SpanSolver ran out of steps or overflowed in some span, so that a root may be
+     * missing or short of the tolerance.
+     */
+    private static boolean solveDerivatives(SolverWorkspace workspace, int degree) {
+        if (degree == 0) {
+            workspace.rootCounts[0] = 0;
+            return true;
+        }
+        workspace.context.reset();
+
+        double[] linear = workspace.coefficients[degree - 1];
+        // Adding zero turns -0.0 into 0.0.
+        workspace.roots[degree - 1][0] = -linear[0] / linear[1] + 0.0;
+        workspace.rootCounts[degree - 1] = 1;
+        for (int k = degree - 2; k >= 0; --k) {
+            solveLevel(workspace, k, degree - k);
+        }
+        return workspace.context.isComplete();
+    }
+
+    /**
+     * Solves level @c k, of degree @c d >= 2, given the roots of level k + 1.
+     */
+    private static void solveLevel(SolverWorkspace workspace, int k, int d) {
+        workspace.rootCounts[k] = solveSpans(workspace.coefficients[k], d, workspace.roots[k + 1], workspace.rootCounts[k + 1],
+                workspace.bounds, workspace.roots[k], workspace.roots[k], 0, workspace.context);
+    }
+
+    /**
+     * Finds the distinct real roots of @c p, of degree @c d >= 2, one in each span between its
+     * critical points, and writes them to @c roots in ascending order.
+     *
+     * @param bounds Scratch space for at least criticalPointCount + 3 span ends.
+     * @param seeds Starting points for Newton's method, in ascending order, such as the roots of a
+     * nearby polynomial: a span starts from the first of them that it contains, if any, rather than
+     * from its midpoint.
+     * @param context Counts SpanSolver's steps, and is marked incomplete if a span runs out of them
+     * or overflows.
+     * @return The number of roots.
+     */
+    static int solveSpans(double[] p, int d, double[] criticalPoints, int criticalPointCount, double[] bounds,
+                          double[] roots, double[] seeds, int seedCount, SolveContext context) {
+        // The spans between critical points are monotone, so each has at most one root.  Zero is
+        // added as a bound when it's a root: it's found exactly then, rather than as a tiny
+        // number that the level above can't use to find a root of even multiplicity there.
+        int boundCount = 0;
+        bounds[boundCount++] = Double.NEGATIVE_INFINITY;
+        boolean zeroIsRoot = (p[0] == 0);
+        for (int j = 0; j < criticalPointCount; ++j) {
+            double x = criticalPoints[j];
+            if (zeroIsRoot && 0 <= x) {
+                if (0 < x) {
+                    bounds[boundCount++] = 0.0;
+                }
+                zeroIsRoot = false;
+            }
+            bounds[boundCount++] = x;
+        }
+        if (zeroIsRoot) {
+            bounds[boundCount++] = 0.0;
+        }
+        bounds[boundCount++] = Double.POSITIVE_INFINITY;
+
+        double rootBound = SpanSolver.cauchyBound(p, d);
+        int count = 0;
+        int seed = 0;
+        for (int j = 0; j < boundCount; ++j) {
+            if (!Double.isInfinite(bounds[j]) && SpanSolver.horner(p, d, bounds[j]) == 0) {
+                roots[count++] = bounds[j];
+            }
+            if (j + 1 < boundCount) {
+                while (seed < seedCount && seeds[seed] <= bounds[j]) {
+                    ++seed;
+                }
+                double start = (seed < seedCount && seeds[seed] < bounds[j + 1]) ? seeds[seed] : Double.NaN;
+                double x = SpanSolver.interiorSolution(p, d, bounds[j], bounds[j + 1], rootBound, start, context);
+                if (!Double.isNaN(x)) {
+                    roots[count++] = x;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return A bound on the rounding error of SpanSolver.horner(p, d, x): about 2d units in the last place of
+     * the sum of |p[i]| |x|^i, with room to spare for the error in x itself.
+     */
+    private static double hornerError(double[] p, int d, double x) {
+        double magnitude = Math.abs(x);
+        double sum = Math.abs(p[d]);
+        for (int i = d - 1; i >= 0; --i) {
+            sum = sum * magnitude + Math.abs(p[i]);
+        }
+        return 4 * d * Math.ulp(sum);
+    }
+}
@@ -0,0 +1,185 @@
+package com.swtanalytics.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.lang.management.ManagementFactory;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class BatchAnalyzerTest {
+    private static final double EPSILON = 1.0E-9;
+
+    private static List<MathFunction> generate(long seed, int count, int maxDegree) {
+        RandomGenerator randomGenerator = new SeededRandomGenerator(seed);
+        TermFactory termFactory = new RandomTermFactory(new RandomFractionFactory(randomGenerator));
+        MathFunctionFactory factory = new MathFunctionFactory(termFactory, randomGenerator);
+        List<MathFunction> functions = new ArrayList<MathFunction>();
+        for (int i = 0; i < count; ++i) {
+            functions.add(factory.create(true, randomGenerator.generateInt(1, 5), maxDegree, false));
+        }
+        return functions;
+    }
+
+    private static void assertClose(String message, double expected, double actual) {
+        Assert.assertEquals(message, expected, actual, EPSILON * Math.max(1, Math.abs(expected)));
+    }
+
+    @Test
+    public void matchesSolveAndFindExtrema() {
+        // Arrange
+        List<MathFunction> functions = generate(24, 300, 12);
+        functions.addAll(generate(26, 100, 40));
+        BatchResult result = new BatchResult();
+
+        for (double[] domain : new double[][] { { -2, 3 }, { Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY } }) {
+            // Act
+            BatchAnalyzer.analyze(functions, domain[0], domain[1], new SolverWorkspace(), result);
+
+            // Assert
+            Assert.assertEquals(functions.size(), result.size());
+            for (int i = 0; i < functions.size(); ++i) {
+                MathFunction function = functions.get(i);
+                List<Double> expected = function.solve(MathContext.DECIMAL128);
+                Assert.assertEquals(function.toString(), expected.size(), result.rootCount(i));
+                for (int j = 0; j < expected.size(); ++j) {
+                    assertClose(function.toString(), expected.get(j), result.root(i, j));
+                }
+
+                Extrema extrema = function.findExtrema(domain[0], domain[1]);
+                assertClose(function.toString(), extrema.argMin(), result.argMin(i));
+                assertClose(function.toString(), extrema.min(), result.min(i));
+                assertClose(function.toString(), extrema.argMax(), result.argMax(i));
+                assertClose(function.toString(), extrema.max(), result.max(i));
+            }
+        }
+    }
+
+    @Test
+    public void findsRootsOfEvenMultiplicityAtZeroAndAtExactCriticalPoints() {
+        // Arrange: x^4 - x^2 = x^2 (x - 1)(x + 1), and x^2 - 2x + 1 = (x - 1)^2
+        MathFunction quartic = new MathFunction.Builder().addTerm(new Term(1, 4)).addTerm(new Term(-1, 2)).build();
+        MathFunction square = new MathFunction.Builder().addTerm(new Term(1, 2)).addTerm(new Term(-2, 1)).addTerm(new Term(1, 0)).build();
+        double[] roots = new double[6];
+
+        // Act
+        int quarticCount = BatchAnalyzer.solve(quartic, new SolverWorkspace(), roots, 0);
+        int squareCount = BatchAnalyzer.solve(square, new SolverWorkspace(), roots, quarticCount);
+
+        // Assert
+        Assert.assertEquals(3, quarticCount);
+        Assert.assertEquals(1, squareCount);
+        Assert.assertEquals(-1, roots[0], EPSILON);
+        Assert.assertEquals(0, roots[1], 0);
+        Assert.assertEquals(1, roots[2], EPSILON);
+        Assert.assertEquals(1, roots[3], 0);
+    }
+
+    @Test
+    public void findsRootsOfEvenMultiplicityAtInexactCriticalPoints() {
+        // Arrange: 25x^3 - 35x^2 - 369x - 405 = (x + 1.8)^2 (25x - 125), and
+        // 9x^16 - 6x^15 + x^14 - 27x^2 + 18x - 3 = (3x - 1)^2 (x^14 - 3)
+        MathFunction cubic = new MathFunction.Builder()
+                .addTerm(new Term(25, 3)).addTerm(new Term(-35, 2)).addTerm(new Term(-369, 1)).addTerm(new Term(-405, 0))
+                .build();
+        MathFunction sixteenth = new MathFunction.Builder()
+                .addTerm(new Term(9, 16)).addTerm(new Term(-6, 15)).addTerm(new Term(1, 14))
+                .addTerm(new Term(-27, 2)).addTerm(new Term(18, 1)).addTerm(new Term(-3, 0))
+                .build();
+        BatchResult result = new BatchResult();
+
+        // Act
+        BatchAnalyzer.analyze(Arrays.asList(cubic, sixteenth), Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                new SolverWorkspace(), result);
+
+        // Assert
+        Assert.assertEquals(2, result.rootCount(0));
+        Assert.assertEquals(-1.8, result.root(0, 0), EPSILON);
+        Assert.assertEquals(5, result.root(0, 1), EPSILON);
+        double r = Math.pow(3, 1.0 / 14);
+        Assert.assertEquals(3, result.rootCount(1));
+        Assert.assertEquals(-r, result.root(1, 0), EPSILON);
+        Assert.assertEquals(1.0 / 3, result.root(1, 1), EPSILON);
+        Assert.assertEquals(r, result.root(1, 2), EPSILON);
+        double[] roots = new double[16];
+        Assert.assertEquals(3, BatchAnalyzer.solve(sixteenth, new SolverWorkspace(), roots, 0));
+        Assert.assertEquals(1.0 / 3, roots[1], EPSILON);
+    }
+
+    @Test
+    public void fractionalExponentsFallBackToSolve() {
+        // Arrange: x^(1/2) - 2, zero at x = 4
+        MathFunction function = new MathFunction.Builder()
+                .addTerm(new Term(Fraction.ONE, new Fraction(1, 2))).addTerm(new Term(-2, 0))
+                .build();
+        BatchResult result = new BatchResult();
+
+        // Act
+        BatchAnalyzer.analyze(Arrays.asList(function), 1, 9, new SolverWorkspace(), result);
+
+        // Assert
+        Assert.assertEquals(1, result.rootCount(0));
+        Assert.assertEquals(4, result.root(0, 0), EPSILON);
+        Assert.assertEquals(1, result.argMin(0), 0);
+        Assert.assertEquals(9, result.argMax(0), 0);
+        Assert.assertEquals(1, result.max(0), EPSILON);
+    }
+
+    @Test
+    public void workspaceGrowsToFit() {
+        // Arrange
+        SolverWorkspace workspace = new SolverWorkspace(0);
+        MathFunction function = new MathFunction.Builder().addTerm(new Term(1, 3)).addTerm(new Term(-1, 1)).build();
+        double[] roots = new double[3];
+
+        // Act
+        int count = BatchAnalyzer.solve(function, workspace, roots, 0);
+
+        // Assert
+        Assert.assertTrue(workspace.capacity() >= 3);
+        Assert.assertEquals(3, count);
+        Assert.assertEquals(-1, roots[0], EPSILON);
+        Assert.assertEquals(0, roots[1], 0);
+        Assert.assertEquals(1, roots[2], EPSILON);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooSmallAnOutputArrayIsRejected() {
+        MathFunction function = new MathFunction.Builder().addTerm(new Term(1, 3)).addTerm(new Term(-1, 1)).build();
+        BatchAnalyzer.solve(function, new SolverWorkspace(), new double[3], 1);
+    }
+
+    @Test
+    public void steadyStateAnalysisAllocatesNothing() {
+        // Arrange
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        List<MathFunction> functions = generate(25, 1000, 40);
+        SolverWorkspace workspace = new SolverWorkspace();
+        BatchResult result = new BatchResult();
+        double[] roots = new double[64];
+        // The first passes grow the workspace and the result, and cache the coefficients' doubles.
+        for (int pass = 0; pass < 3; ++pass) {
+            BatchAnalyzer.analyze(functions, -5, 5, workspace, result);
+            for (MathFunction function : functions) {
+                BatchAnalyzer.solve(function, workspace, roots, 0);
+            }
+        }
+
+        // Act
+        long before = threads.getThreadAllocatedBytes(thread);
+        BatchAnalyzer.analyze(functions, -5, 5, workspace, result);
+        for (int i = 0; i < functions.size(); ++i) {
+            BatchAnalyzer.solve(functions.get(i), workspace, roots, 0);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        // Assert: less than a byte per function, which leaves room only for the measurement itself
+        Assert.assertTrue("Allocated " + allocated + " bytes", allocated < functions.size());
+    }
+}
@@ -0,0 +1,134 @@
+package com.swtanalytics.math;
+
+import java.util.Arrays;
+
+/**
+ * The roots and extrema of a batch of functions, as found by BatchAnalyzer.analyze(...), stored by
+ * column in primitive arrays.  The arrays are kept and reused by the next batch, growing only when
+ * it has more functions or more roots than any before it.
+ *
+ * Not thread-safe.
+ */
+public final class BatchResult {
+    private int size;
+
+    // The roots of function i are roots[rootOffsets[i] .. rootOffsets[i + 1] - 1], ascending.
+    private double[] roots = new double[16];
+    private int[] rootOffsets = new int[1];
+
+    private double[] argMins = new double[0];
+    private double[] mins = new double[0];
+    private double[] argMaxes = new double[0];
+    private double[] maxes = new double[0];
+
+    /**
+     * @return The number of functions in the last batch.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of distinct real roots of function @c i.
+     */
+    public int rootCount(int i) {
+        checkIndex(i);
+        return rootOffsets[i + 1] - rootOffsets[i];
+    }
+
+    /**
+     * @return The @c j-th smallest root of function @c i.
+     */
+    public double root(int i, int j) {
+        if (j < 0 || rootCount(i) <= j) {
+            throw new IndexOutOfBoundsException("Root: " + j + ", Count: " + rootCount(i));
+        }
+        return roots[rootOffsets[i] + j];
+    }
+
+    /**
+     * Copies the roots of function @c i to @c out, starting at @c offset.
+     * @return The number of roots copied.
+     */
+    public int roots(int i, double[] out, int offset) {
+        int count = rootCount(i);
+        System.arraycopy(roots, rootOffsets[i], out, offset, count);
+        return count;
+    }
+
+    /**
+     * @return The first x in the domain at which function @c i takes its minimum, as in
+     * Extrema.argMin(), or NaN if it couldn't be found.
+     */
+    public double argMin(int i) {
+        checkIndex(i);
+        return argMins[i];
+    }
+
+    public double min(int i) {
+        checkIndex(i);
+        return mins[i];
+    }
+
+    /**
+     * @return The first x in the domain at which function @c i takes its maximum, as in
+     * Extrema.argMax(), or NaN if it couldn't be found.
+     */
+    public double argMax(int i) {
+        checkIndex(i);
+        return argMaxes[i];
+    }
+
+    public double max(int i) {
+        checkIndex(i);
+        return maxes[i];
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || size <= i) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Empties the result and makes room for @c size functions.
+     */
+    void reset(int size) {
+        if (argMins.length < size) {
+            argMins = new double[size];
+            mins = new double[size];
+            argMaxes = new double[size];
+            maxes = new double[size];
+            rootOffsets = new int[size + 1];
+        }
+        this.size = size;
+        rootOffsets[0] = 0;
+    }
+
+    /**
+     * @return The array to write function @c i's roots to, from rootOffset(i) on, with room for at
+     * least @c count of them.  Functions must be filled in order.
+     */
+    double[] reserveRoots(int i, int count) {
+        int needed = rootOffsets[i] + count;
+        if (roots.length < needed) {
+            roots = Arrays.copyOf(roots, Math.max(needed, 2 * roots.length));
+        }
+        return roots;
+    }
+
+    int rootOffset(int i) {
+        return rootOffsets[i];
+    }
+
+    /**
+     * Records function @c i's results, once its @c rootCount roots are in place.
+     */
+    void set(int i, int rootCount, double argMin, double min, double argMax, double max) {
+        rootOffsets[i + 1] = rootOffsets[i] + rootCount;
+        argMins[i] = argMin;
+        mins[i] = min;
+        argMaxes[i] = argMax;
+        maxes[i] = max;
+    }
+}
@@ -0,0 +1,313 @@
+package com.swtanalytics.math;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Closed-form real roots of quadratics, cubics and quartics.
+ *
+ * The number of distinct real roots is decided exactly, from the signs of discriminants computed
+ * over the Fraction coefficients.  The coefficients of the depressed forms are computed exactly
+ * too, and only then rounded to doubles, so the usual cancellations (b^2 - 4ac, for one) never
+ * happen in floating point.  The roots are then found by formulas chosen for stability, and
+ * polished with Newton's method on the original function.  Square roots of exact values, and the
+ * depressed cubic, are scaled by powers of two so that large coefficients don't overflow; when a
+ * root still isn't a finite double, solve(...) leaves the function to the general solver.
+ */
+final class ClosedFormSolver {
+    private static final int POLISHING_STEPS = 3;
+
+    private ClosedFormSolver() {
+    }
+
+    /**
+     * @return The distinct real roots of @c function in ascending order, or null if it isn't a
+     * polynomial of degree 2, 3 or 4 with a non-zero constant term, is a quartic with a repeated
+     * root (which the general solver handles better), or has a root that came out infinite or NaN.
+     */
+    static List<Double> solve(MathFunction function) {
+        if (function.hasNegativeExponent() || function.hasFractionalExponent()) {
+            return null;
+        }
+        int degree = function.degree().intValue();
+        if (degree < 2 || degree > 4) {
+            return null;
+        }
+
+        Fraction[] c = new Fraction[degree + 1]; // Ascending
+        Arrays.fill(c, Fraction.ZERO);
+        for (Term t : function.getTerms()) {
+            c[t.exponent.intValue()] = t.coefficient;
+        }
+        if (c[0].sign() == 0) {
+            return null;
+        }
+
+        double[] roots;
+        if (degree == 2) {
+            roots = quadratic(c[2], c[1], c[0]);
+        } else if (degree == 3) {
+            roots = cubic(c[3], c[2], c[1], c[0]);
+        } else {
+            roots = quartic(c[4], c[3], c[2], c[1], c[0]);
+            if (roots == null) {
+                return null;
+            }
+        }
+        for (double root : roots) {
+            if (Double.isNaN(root) || Double.isInfinite(root)) {
+                return null;
+            }
+        }
+
+        polish(function.compile(), roots);
+        Arrays.sort(roots);
+        List<Double> result = new ArrayList<Double>(roots.length);
+        for (double root : roots) {
+            result.add(root);
+        }
+        return result;
+    }
+
+    /**
+     * @return The distinct real roots of ax^2 + bx + c.
+     */
+    static double[] quadratic(Fraction a, Fraction b, Fraction c) {
+        Fraction discriminant = b.multiply(b).subtract(Fraction.valueOf(4, 1).multiply(a).multiply(c));
+        int sign = discriminant.sign();
+        if (sign < 0) {
+            return new double[0];
+        }
+        if (sign == 0) {
+            return new double[] { b.negate().divide(a.multiply(Fraction.valueOf(2, 1))).doubleValue() };
+        }
+        if (b.sign() == 0) {
+            // x = +/- sqrt(-c/a)
+            double root = sqrt(c.negate().divide(a));
+            return new double[] { -root, root };
+        }
+
+        // Citardauq: q = -(b + sign(b) sqrt(D)) / 2 never cancels, and the roots are q/a and c/q.
+        double q = -0.5 * (b.doubleValue() + Math.copySign(sqrt(discriminant), b.doubleValue()));
+        return new double[] { q / a.doubleValue(), c.doubleValue() / q };
+    }
+
+    /**
+     * @return The distinct real roots of ax^3 + bx^2 + cx + d.
+     */
+    static double[] cubic(Fraction a, Fraction b, Fraction c, Fraction d) {
+        // Substituting x = t - b/(3a) gives t^3 + pt + q.
+        Fraction three = Fraction.valueOf(3, 1);
+        Fraction shift = b.divide(three.multiply(a));
+        Fraction p = three.multiply(a).multiply(c).subtract(b.multiply(b)).divide(three.multiply(a).multiply(a));
+        Fraction q = Fraction.valueOf(2, 1).multiply(b).multiply(b).multiply(b)
+                .subtract(Fraction.valueOf(9, 1).multiply(a).multiply(b).multiply(c))
+                .add(Fraction.valueOf(27, 1).multiply(a).multiply(a).multiply(d))
+                .divide(Fraction.valueOf(27, 1).multiply(a).multiply(a).multiply(a));
+
+        // The discriminant of t^3 + pt + q is -(4p^3 + 27q^2).
+        Fraction discriminant = Fraction.valueOf(4, 1).multiply(p).multiply(p).multiply(p)
+                .add(Fraction.valueOf(27, 1).multiply(q).multiply(q)).negate();
+        int sign = discriminant.sign();
+
+        if (sign == 0) {
+            if (p.sign() == 0) {
+                // A triple root
+                return new double[] { shift.negate().doubleValue() };
+            }
+            // A simple root at 3q/p and a double root at -3q/(2p), both rational
+            Fraction simple = three.multiply(q).divide(p);
+            Fraction repeated = simple.divide(Fraction.valueOf(-2, 1));
+            return new double[] { simple.subtract(shift).doubleValue(), repeated.subtract(shift).doubleValue() };
+        }
+
+        // With t = 2^k s, this is s^3 + (p / 4^k) s + q / 8^k, whose coefficients are moderate
+        // whatever the size of p and q, so nothing below overflows.
+        int k = Math.max(binaryExponent(p) / 2, binaryExponent(q) / 3);
+        double pd = scalb(p, -2 * k).doubleValue();
+        double qd = scalb(q, -3 * k).doubleValue();
+        double shiftD = shift.doubleValue();
+        if (sign > 0) {
+            // Three real roots (so p < 0): the trigonometric form
+            double m = 2 * Math.sqrt(-pd / 3);
+            double argument = Math.max(-1, Math.min(1, (3 * qd / (2 * pd)) * Math.sqrt(-3 / pd)));
+            double theta = Math.acos(argument) / 3;
+            double[] roots = new double[3];
+            for (int i = 0; i < 3; ++i) {
+                roots[i] = Math.scalb(m * Math.cos(theta - 2 * Math.PI * i / 3), k) - shiftD;
+            }
+            return roots;
+        }
+
+        // One real root: Cardano, arranged so that the two cube roots never cancel.  The radicand
+        // q^2/4 + p^3/27 is -discriminant/108, taken from the exact value, and scaled by 64^-k.
+        double radicand = sqrt(scalb(discriminant.negate().divide(Fraction.valueOf(108, 1)), -6 * k));
+        double u = -Math.copySign(Math.cbrt(Math.abs(qd) / 2 + radicand), qd);
+        double t = (u == 0) ? 0 : u - pd / (3 * u);
+        return new double[] { Math.scalb(t, k) - shiftD };
+    }
+
+    /**
+     * @return The distinct real roots of ax^4 + bx^3 + cx^2 + dx + e, or null if there is a
+     * repeated root.
+     */
+    static double[] quartic(Fraction a, Fraction b, Fraction c, Fraction d, Fraction e) {
+        // Substituting x = y - b/(4a) gives y^4 + py^2 + qy + r.
+        Fraction aa = a.multiply(a);
+        Fraction bb = b.multiply(b);
+        Fraction shift = b.divide(Fraction.valueOf(4, 1).multiply(a));
+        Fraction p = Fraction.valueOf(8, 1).multiply(a).multiply(c).subtract(Fraction.valueOf(3, 1).multiply(bb))
+                .divide(Fraction.valueOf(8, 1).multiply(aa));
+        Fraction q = bb.multiply(b)
+                .subtract(Fraction.valueOf(4, 1).multiply(a).multiply(b).multiply(c))
+                .add(Fraction.valueOf(8, 1).multiply(aa).multiply(d))
+                .divide(Fraction.valueOf(8, 1).multiply(aa).multiply(a));
+        Fraction r = Fraction.valueOf(-3, 1).multiply(bb).multiply(bb)
+                .add(Fraction.valueOf(256, 1).multiply(aa).multiply(a).multiply(e))
+                .subtract(Fraction.valueOf(64, 1).multiply(aa).multiply(b).multiply(d))
+                .add(Fraction.valueOf(16, 1).multiply(a).multiply(bb).multiply(c))
+                .divide(Fraction.valueOf(256, 1).multiply(aa).multiply(aa));
+
+        // The discriminant of the monic depressed quartic, and the signs that then decide
+        // between four real roots and none.
+        Fraction pp = p.multiply(p);
+        Fraction qq = q.multiply(q);
+        Fraction rr = r.multiply(r);
+        Fraction discriminant = Fraction.valueOf(256, 1).multiply(rr).multiply(r)
+                .subtract(Fraction.valueOf(128, 1).multiply(pp).multiply(rr))
+                .add(Fraction.valueOf(144, 1).multiply(p).multiply(qq).multiply(r))
+                .subtract(Fraction.valueOf(27, 1).multiply(qq).multiply(qq))
+                .add(Fraction.valueOf(16, 1).multiply(pp).multiply(pp).multiply(r))
+                .subtract(Fraction.valueOf(4, 1).multiply(pp).multiply(p).multiply(qq));
+        int sign = discriminant.sign();
+        if (sign == 0) {
+            return null;
+        }
+        int realCount;
+        if (sign < 0) {
+            realCount = 2;
+        } else {
+            Fraction dd = Fraction.valueOf(4, 1).multiply(r).subtract(pp); // 64 * D / (256 a^4), same sign
+            realCount = (p.sign() < 0 && dd.sign() < 0) ? 4 : 0;
+        }
+        if (realCount == 0) {
+            return new double[0];
+        }
+
+        double shiftD = shift.doubleValue();
+        double[] roots;
+        if (q.sign() == 0) {
+            // Biquadratic: y^2 = z for the roots z of z^2 + pz + r
+            List<Double> ys = new ArrayList<Double>();
+            for (double z : quadratic(Fraction.ONE, p, r)) {
+                if (z >= 0) {
+                    ys.add(-Math.sqrt(z));
+                    ys.add(Math.sqrt(z));
+                }
+            }
+            roots = new double[ys.size()];
+            for (int i = 0; i < roots.length; ++i) {
+                roots[i] = ys.get(i) - shiftD;
+            }
+        } else {
+            // Ferrari: for a root m > 0 of the resolvent 8m^3 + 8pm^2 + (2p^2 - 8r)m - q^2, the
+            // quartic factors as (y^2 + sy + p/2 + m - q/(2s)) (y^2 - sy + p/2 + m + q/(2s)), s = sqrt(2m).
+            double[] resolventRoots = cubic(Fraction.valueOf(8, 1), Fraction.valueOf(8, 1).multiply(p),
+                    Fraction.valueOf(2, 1).multiply(pp).subtract(Fraction.valueOf(8, 1).multiply(r)), qq.negate());
+            double m = resolventRoots[0];
+            for (double root : resolventRoots) {
+                m = Math.max(m, root);
+            }
+            double s = Math.sqrt(2 * m);
+            double half = p.doubleValue() / 2 + m;
+            double qOver2s = q.doubleValue() / (2 * s);
+
+            // Take the realCount candidates with the least imaginary part, since rounding may push
+            // a real pair's discriminant slightly negative.
+            double[][] candidates = new double[4][];
+            quadraticCandidates(s, half - qOver2s, candidates, 0);
+            quadraticCandidates(-s, half + qOver2s, candidates, 2);
+            Arrays.sort(candidates, new Comparator<double[]>() {
+                @Override
+                public int compare(double[] x, double[] y) {
+                    return Double.compare(x[1], y[1]);
+                }
+            });
+            roots = new double[realCount];
+            for (int i = 0; i < realCount; ++i) {
+                roots[i] = candidates[i][0] - shiftD;
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * @return sqrt(x), for x >= 0, even where x itself is beyond the range of a double.  x is scaled
+     * by an even power of two into range, and the root scaled back by half that power.
+     */
+    private static double sqrt(Fraction x) {
+        int e = binaryExponent(x) & ~1;
+        return Math.scalb(Math.sqrt(scalb(x, -e).doubleValue()), e / 2);
+    }
+
+    /**
+     * @return An approximation, within one, of log2 |x|, or 0 if x is 0.
+     */
+    private static int binaryExponent(Fraction x) {
+        return (x.sign() == 0) ? 0 : x.numerator().bitLength() - x.denominator().bitLength();
+    }
+
+    /**
+     * @return x * 2^e, exactly.
+     */
+    private static Fraction scalb(Fraction x, int e) {
+        BigInteger n = x.numerator();
+        BigInteger d = x.denominator();
+        return (e >= 0) ? Fraction.valueOf(n.shiftLeft(e), d) : Fraction.valueOf(n, d.shiftLeft(-e));
+    }
+
+    /**
+     * Stores the two roots of y^2 + by + c in candidates[offset] and candidates[offset + 1], each as
+     * {real part, |imaginary part|}.
+     */
+    private static void quadraticCandidates(double b, double c, double[][] candidates, int offset) {
+        double discriminant = b * b - 4 * c;
+        if (discriminant < 0) {
+            double imaginary = Math.sqrt(-discriminant) / 2;
+            candidates[offset] = new double[] { -b / 2, imaginary };
+            candidates[offset + 1] = new double[] { -b / 2, imaginary };
+            return;
+        }
+        double q = -0.5 * (b + Math.copySign(Math.sqrt(discriminant), b));
+        candidates[offset] = new double[] { q, 0 };
+        candidates[offset + 1] = new double[] { (q == 0) ? 0 : c / q, 0 };
+    }
+
+    /**
+     * A few Newton steps on each root, each kept only if it reduces |f|.
+     */
+    static void polish(CompiledPolynomial f, double[] roots) {
+        double[] valueAndSlope = new double[2];
+        for (int i = 0; i < roots.length; ++i) {
+            double x = roots[i];
+            f.evaluateWithDerivatives(x, valueAndSlope);
+            double y = valueAndSlope[0];
+            for (int step = 0; step < POLISHING_STEPS && y != 0; ++step) {
+                double newX = x - y / valueAndSlope[1];
+                if (Double.isNaN(newX) || Double.isInfinite(newX)) {
+                    break;
+                }
+                f.evaluateWithDerivatives(newX, valueAndSlope);
+                if (!(Math.abs(valueAndSlope[0]) < Math.abs(y))) {
+                    break;
+                }
+                x = newX;
+                y = valueAndSlope[0];
+            }
+            roots[i] = x;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.swtanalytics.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class ClosedFormSolverTest {
+    private static MathFunction functionOf(Term... terms) {
+        MathFunction function = new MathFunction();
+        for (Term t : terms) {
+            function.addTerm(t);
+        }
+        return function;
+    }
+
+    private static void assertRoots(double[] expected, List<Double> actual, double relativeEpsilon) {
+        Assert.assertNotNull(actual);
+        Assert.assertEquals(actual.toString(), expected.length, actual.size());
+        for (int i = 0; i < expected.length; ++i) {
+            Assert.assertEquals(actual.toString(), expected[i], actual.get(i), relativeEpsilon * Math.max(1, Math.abs(expected[i])));
+        }
+    }
+
+    @Test
+    public void quadraticAvoidsCancellation() {
+        // x^2 - 10^8 x + 1: the naive formula loses every digit of the small root
+        MathFunction function = functionOf(new Term(1, 2), new Term(-100000000, 1), new Term(1, 0));
+
+        List<Double> roots = ClosedFormSolver.solve(function);
+
+        Assert.assertEquals(2, roots.size());
+        Assert.assertEquals(1.0E-8, roots.get(0), 1.0E-8 * 1.0E-15);
+        Assert.assertEquals(1.0E8, roots.get(1), 1.0E8 * 1.0E-15);
+    }
+
+    @Test
+    public void largeCoefficientsDoNotOverflow() {
+        // x^2 + 10^200 x - 1, whose discriminant is beyond the range of a double, and x^3 + 10^320,
+        // whose constant term is too
+        MathFunction quadratic = functionOf(new Term(1, 2), new Term(Fraction.valueOf(1.0E200), 1), new Term(-1, 0));
+        MathFunction cubic = functionOf(new Term(1, 3), new Term(new Fraction(BigInteger.TEN.pow(320)), 0));
+
+        SolveResult quadraticRoots = quadratic.solve(SolveOptions.DEFAULT);
+        SolveResult cubicRoots = cubic.solve(SolveOptions.DEFAULT);
+
+        Assert.assertTrue(quadraticRoots.isComplete());
+        assertRoots(new double[] { -1.0E200, 1.0E-200 }, quadraticRoots.values(), 1.0E-15);
+        Assert.assertEquals(1.0E-200, quadraticRoots.values().get(1), 1.0E-200 * 1.0E-15);
+        Assert.assertTrue(cubicRoots.isComplete());
+        assertRoots(new double[] { -Math.cbrt(100) * 1.0E106 }, cubicRoots.values(), 1.0E-15);
+    }
+
+    @Test
+    public void quadraticRootCounts() {
+        assertRoots(new double[] { 1 }, ClosedFormSolver.solve(functionOf(new Term(1, 2), new Term(-2, 1), new Term(1, 0))), 0);
+        assertRoots(new double[] {}, ClosedFormSolver.solve(functionOf(new Term(1, 2), new Term(1, 0))), 0);
+        assertRoots(new double[] { -Math.sqrt(5), Math.sqrt(5) }, ClosedFormSolver.solve(functionOf(new Term(1, 2), new Term(-5, 0))), 0);
+    }
+
+    @Test
+    public void cubicRootCounts() {
+        // (x - 1)(x - 2)(x - 3)
+        assertRoots(new double[] { 1, 2, 3 },
+                ClosedFormSolver.solve(functionOf(new Term(1, 3), new Term(-6, 2), new Term(11, 1), new Term(-6, 0))), 1.0E-15);
+        // (x - 1)^2 (x + 2)
+        assertRoots(new double[] { -2, 1 },
+                ClosedFormSolver.solve(functionOf(new Term(1, 3), new Term(-3, 1), new Term(2, 0))), 0);
+        // (x + 1/2)^3
+        assertRoots(new double[] { -0.5 },
+                ClosedFormSolver.solve(functionOf(new Term(1, 3), new Term(new Fraction(3, 2), 2), new Term(new Fraction(3, 4), 1), new Term(new Fraction(1, 8), 0))), 0);
+        // x^3 + x + 1 has one real root
+        assertRoots(new double[] { -0.68232780382801932737 },
+                ClosedFormSolver.solve(functionOf(new Term(1, 3), new Term(1, 1), new Term(1, 0))), 1.0E-15);
+    }
+
+    @Test
+    public void quarticRootCounts() {
+        // (x^2 - 1)(x^2 - 4)
+        assertRoots(new double[] { -2, -1, 1, 2 },
+                ClosedFormSolver.solve(functionOf(new Term(1, 4), new Term(-5, 2), new Term(4, 0))), 1.0E-15);
+        // (x - 1)(x - 2)(x - 3)(x - 5)
+        assertRoots(new double[] { 1, 2, 3, 5 },
+                ClosedFormSolver.solve(functionOf(new Term(1, 4), new Term(-11, 3), new Term(41, 2), new Term(-61, 1), new Term(30, 0))), 1.0E-14);
+        // (x^2 + 1)(x - 1)(x + 3) = x^4 + 2x^3 - 2x^2 + 2x - 3
+        assertRoots(new double[] { -3, 1 },
+                ClosedFormSolver.solve(functionOf(new Term(1, 4), new Term(2, 3), new Term(-2, 2), new Term(2, 1), new Term(-3, 0))), 1.0E-14);
+        // (x^2 + 1)(x^2 + 2)
+        assertRoots(new double[] {},
+                ClosedFormSolver.solve(functionOf(new Term(1, 4), new Term(3, 2), new Term(2, 0))), 0);
+    }
+
+    @Test
+    public void repeatedQuarticRootsAreLeftToTheGeneralSolver() {
+        // (x - 1)^2 (x^2 + 1)
+        MathFunction function = functionOf(new Term(1, 4), new Term(-2, 3), new Term(2, 2), new Term(-2, 1), new Term(1, 0));
+
+        Assert.assertNull(ClosedFormSolver.solve(function));
+        assertRoots(new double[] { 1 }, function.solve(MathContext.DECIMAL128), 1.0E-6);
+    }
+
+    @Test
+    public void otherDegreesAreNotHandled() {
+        Assert.assertNull(ClosedFormSolver.solve(functionOf(new Term(1, 5), new Term(1, 0))));
+        Assert.assertNull(ClosedFormSolver.solve(functionOf(new Term(1, 2), new Term(1, 1))));
+        Assert.assertNull(ClosedFormSolver.solve(functionOf(new Term(1, 2), new Term(1, -1))));
+    }
+
+    @Test
+    public void agreesWithSturm() {
+        RandomGenerator randomGenerator = new SeededRandomGenerator(1234);
+        MathFunctionFactory factory = new MathFunctionFactory(
+                new RandomTermFactory(new RandomFractionFactory(randomGenerator)), randomGenerator);
+        RootSolver sturm = new SturmRootSolver();
+
+        for (int i = 0; i < 300; ++i) {
+            MathFunction function = factory.create(false, randomGenerator.generateInt(2, 5), 4, false);
+            function.addTerm(new Term(randomGenerator.generateInt(1, 9), 0));
+            List<Double> actual = ClosedFormSolver.solve(function);
+            if (actual == null) {
+                continue;
+            }
+            List<Double> expected = function.solve(sturm, MathContext.DECIMAL128);
+            assertRoots(toArray(expected), actual, 1.0E-12);
+        }
+    }
+
+    private static double[] toArray(List<Double> list) {
+        double[] result = new double[list.size()];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = list.get(i);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,441 @@
+package com.swtanalytics.math;
+
+import java.math.MathContext;
+import java.nio.BufferOverflowException;
+import java.nio.DoubleBuffer;
+import java.util.Collection;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * An immutable, double-precision snapshot of a MathFunction, laid out for fast repeated evaluation.
+ *
+ * Functions whose exponents are all whole and non-negative are evaluated with Horner's scheme,
+ * either over a dense coefficient array (one multiply-add per degree) or, for sparse high-degree
+ * functions, over just the non-zero terms, raising x to each gap between consecutive exponents
+ * by repeated squaring.  compile() picks whichever needs fewer multiplications.  Other functions
+ * fall back to summing c * Math.pow(x, e) over their terms.
+ *
+ * Results agree with MathFunction.evaluate(...) up to floating-point rounding, including its
+ * handling of infinite arguments and of negative arguments to fractional exponents.
+ *
+ * The batch evaluate(...) methods are bitwise identical to calling applyAsDouble(...) on each
+ * point (a 0 ULP difference): they perform the same operations in the same order, just several
+ * points at a time.
+ */
+public abstract class CompiledPolynomial implements DoubleUnaryOperator {
+    // The number of points evaluated together by the batch kernels.  Independent Horner chains
+    // let the CPU overlap their multiply-add latencies.
+    private static final int LANES = 4;
+
+    // Size of the scratch array used to stage DoubleBuffers that aren't backed by arrays.
+    private static final int BUFFER_CHUNK_SIZE = 1024;
+
+    // MathFunction.evaluate(...)'s limits at the infinities, which aren't what Horner's scheme
+    // would produce (it gives NaN for, e.g., x^2 - x at +infinity).
+    private final double valueAtPositiveInfinity;
+    private final double valueAtNegativeInfinity;
+
+    private CompiledPolynomial(double valueAtPositiveInfinity, double valueAtNegativeInfinity) {
+        this.valueAtPositiveInfinity = valueAtPositiveInfinity;
+        this.valueAtNegativeInfinity = valueAtNegativeInfinity;
+    }
+
+    public static CompiledPolynomial compile(MathFunction function) {
+        // MathFunction.evaluate(...) no longer depends on the MathContext for double results.
+        MathContext mc = MathContext.DECIMAL64;
+        double atPositiveInfinity = function.evaluate(Double.POSITIVE_INFINITY, mc);
+        double atNegativeInfinity = function.evaluate(Double.NEGATIVE_INFINITY, mc);
+
+        Collection<Term> terms = function.getTerms(); // Ordered by descending exponent
+        int termCount = terms.size();
+
+        if (function.hasFractionalExponent() || function.hasNegativeExponent()) {
+            double[] coefficients = new double[termCount];
+            double[] exponents = new double[termCount];
+            int i = 0;
+            for (Term t : terms) {
+                coefficients[i] = t.coefficient.doubleValue();
+                exponents[i] = t.exponent.doubleValue();
+                ++i;
+            }
+            return new General(atPositiveInfinity, atNegativeInfinity, coefficients, exponents);
+        }
+
+        if (termCount == 0) {
+            return new Dense(atPositiveInfinity, atNegativeInfinity, new double[] { 0 });
+        }
+
+        int[] exponents = new int[termCount];
+        double[] coefficients = new double[termCount];
+        int i = 0;
+        for (Term t : terms) {
+            exponents[i] = t.exponent.intValue();
+            coefficients[i] = t.coefficient.doubleValue();
+            ++i;
+        }
+
+        int degree = exponents[0];
+        if (degree <= sparseMultiplicationCount(exponents)) {
+            double[] dense = new double[degree + 1];
+            for (int j = 0; j < termCount; ++j) {
+                dense[exponents[j]] = coefficients[j];
+            }
+            return new Dense(atPositiveInfinity, atNegativeInfinity, dense);
+        }
+
+        // gaps[j] is the power of x applied after adding coefficients[j]; the last one is the
+        // lowest exponent, which factors out of every term.
+        int[] gaps = new int[termCount];
+        for (int j = 0; j < termCount - 1; ++j) {
+            gaps[j] = exponents[j] - exponents[j + 1];
+        }
+        gaps[termCount - 1] = exponents[termCount - 1];
+        return new Sparse(atPositiveInfinity, atNegativeInfinity, coefficients, gaps);
+    }
+
+    /**
+     * @return The number of multiplications the sparse kernel needs for the given (descending)
+     * exponents.  The dense kernel needs one per degree.
+     */
+    private static int sparseMultiplicationCount(int[] exponents) {
+        int count = 0;
+        for (int j = 0; j < exponents.length; ++j) {
+            int gap = (j + 1 < exponents.length) ? exponents[j] - exponents[j + 1] : exponents[j];
+            if (gap > 0) {
+                // Squarings, plus one multiply per set bit (the first of which is free), plus
+                // one to apply the power to the running sum.
+                count += (31 - Integer.numberOfLeadingZeros(gap)) + Integer.bitCount(gap);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return x^n for n >= 0, by repeated squaring.
+     */
+    static double pow(double x, int n) {
+        double result = 1;
+        while (n != 0) {
+            if ((n & 1) != 0) {
+                result *= x;
+            }
+            x *= x;
+            n >>>= 1;
+        }
+        return result;
+    }
+
+    @Override
+    public final double applyAsDouble(double x) {
+        if (x == Double.POSITIVE_INFINITY) {
+            return valueAtPositiveInfinity;
+        }
+        if (x == Double.NEGATIVE_INFINITY) {
+            return valueAtNegativeInfinity;
+        }
+        return evaluateFinite(x);
+    }
+
+    /**
+     * Evaluates the function and its derivatives at x in a single pass over the coefficients,
+     * without building the derivative MathFunction.
+     *
+     * @param out Receives f(x) in out[0] and f'(x) in out[1].  If it has room, f''(x) is stored in
+     * out[2] too.  At an infinite x, out[0] is the function's limit and the derivatives are NaN.
+     */
+    public final void evaluateWithDerivatives(double x, double[] out) {
+        if (Double.isInfinite(x)) {
+            out[0] = applyAsDouble(x);
+            for (int i = 1; i < out.length; ++i) {
+                out[i] = Double.NaN;
+            }
+            return;
+        }
+        evaluateFiniteWithDerivatives(x, out, out.length > 2);
+    }
+
+    /**
+     * Evaluates the function at every point of @c xs, storing f(xs[i]) in out[i].  @c out may be
+     * the same array as @c xs.
+     */
+    public final void evaluate(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than the input array.");
+        }
+        evaluate(xs, 0, out, 0, xs.length);
+    }
+
+    /**
+     * Evaluates the function at xs[xsOffset ... xsOffset + length - 1], storing the results at the
+     * same positions relative to @c outOffset in @c out.  The ranges may be the same, but must not
+     * otherwise overlap.
+     */
+    public final void evaluate(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        // The infinities are rare, so check for them once per batch and keep them out of the kernels.
+        for (int i = xsOffset; i < xsOffset + length; ++i) {
+            if (Double.isInfinite(xs[i])) {
+                for (int j = 0; j < length; ++j) {
+                    out[outOffset + j] = applyAsDouble(xs[xsOffset + j]);
+                }
+                return;
+            }
+        }
+
+        evaluateFinite(xs, xsOffset, out, outOffset, length);
+    }
+
+    /**
+     * Evaluates the function at each of @c in's remaining values, writing the results to @c out.
+     * Like DoubleBuffer's bulk get and put, this advances both buffers' positions.
+     */
+    public final void evaluate(DoubleBuffer in, DoubleBuffer out) {
+        int length = in.remaining();
+        if (out.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+
+        if (in.hasArray() && out.hasArray()) {
+            evaluate(in.array(), in.arrayOffset() + in.position(), out.array(), out.arrayOffset() + out.position(), length);
+            in.position(in.position() + length);
+            out.position(out.position() + length);
+            return;
+        }
+
+        double[] chunk = new double[Math.min(length, BUFFER_CHUNK_SIZE)];
+        while (in.hasRemaining()) {
+            int n = Math.min(in.remaining(), chunk.length);
+            in.get(chunk, 0, n);
+            evaluate(chunk, 0, chunk, 0, n);
+            out.put(chunk, 0, n);
+        }
+    }
+
+    /**
+     * Evaluates the function at a finite (or NaN) x.
+     */
+    protected abstract double evaluateFinite(double x);
+
+    /**
+     * The batch form of evaluateFinite(double).  Subclasses override this with interleaved kernels.
+     */
+    protected void evaluateFinite(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+        for (int i = 0; i < length; ++i) {
+            out[outOffset + i] = evaluateFinite(xs[xsOffset + i]);
+        }
+    }
+
+    /**
+     * Stores f(x) and f'(x) in out[0] and out[1], and f''(x) in out[2] if @c second is set.
+     */
+    protected abstract void evaluateFiniteWithDerivatives(double x, double[] out, boolean second);
+
+    private static final class Dense extends CompiledPolynomial {
+        // coefficients[i] is the coefficient of x^i
+        private final double[] coefficients;
+
+        Dense(double atPositiveInfinity, double atNegativeInfinity, double[] coefficients) {
+            super(atPositiveInfinity, atNegativeInfinity);
+            this.coefficients = coefficients;
+        }
+
+        @Override
+        protected double evaluateFinite(double x) {
+            double[] c = coefficients;
+            double result = c[c.length - 1];
+            for (int i = c.length - 2; i >= 0; --i) {
+                result = result * x + c[i];
+            }
+            return result;
+        }
+
+        @Override
+        protected void evaluateFinite(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+            double[] c = coefficients;
+            double top = c[c.length - 1];
+            int i = 0;
+            for (; i + LANES <= length; i += LANES) {
+                double x0 = xs[xsOffset + i];
+                double x1 = xs[xsOffset + i + 1];
+                double x2 = xs[xsOffset + i + 2];
+                double x3 = xs[xsOffset + i + 3];
+                double r0 = top;
+                double r1 = top;
+                double r2 = top;
+                double r3 = top;
+                for (int k = c.length - 2; k >= 0; --k) {
+                    double ck = c[k];
+                    r0 = r0 * x0 + ck;
+                    r1 = r1 * x1 + ck;
+                    r2 = r2 * x2 + ck;
+                    r3 = r3 * x3 + ck;
+                }
+                out[outOffset + i] = r0;
+                out[outOffset + i + 1] = r1;
+                out[outOffset + i + 2] = r2;
+                out[outOffset + i + 3] = r3;
+            }
+            for (; i < length; ++i) {
+                out[outOffset + i] = evaluateFinite(xs[xsOffset + i]);
+            }
+        }
+
+        @Override
+        protected void evaluateFiniteWithDerivatives(double x, double[] out, boolean second) {
+            // Horner's scheme, differentiated: each step of p = p * x + c[i] also updates
+            // p' = p' * x + p, and (p'' / 2) = (p'' / 2) * x + p'.
+            double[] c = coefficients;
+            double p = c[c.length - 1];
+            double dp = 0;
+            double halfDdp = 0;
+            for (int i = c.length - 2; i >= 0; --i) {
+                halfDdp = halfDdp * x + dp;
+                dp = dp * x + p;
+                p = p * x + c[i];
+            }
+            out[0] = p;
+            out[1] = dp;
+            if (second) {
+                out[2] = 2 * halfDdp;
+            }
+        }
+    }
+
+    private static final class Sparse extends CompiledPolynomial {
+        // Terms in descending exponent order; see compile() for the meaning of 'gaps'.
+        private final double[] coefficients;
+        private final int[] gaps;
+
+        Sparse(double atPositiveInfinity, double atNegativeInfinity, double[] coefficients, int[] gaps) {
+            super(atPositiveInfinity, atNegativeInfinity);
+            this.coefficients = coefficients;
+            this.gaps = gaps;
+        }
+
+        @Override
+        protected double evaluateFinite(double x) {
+            double result = 0;
+            for (int j = 0; j < coefficients.length; ++j) {
+                result += coefficients[j];
+                if (gaps[j] != 0) {
+                    result *= pow(x, gaps[j]);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        protected void evaluateFinite(double[] xs, int xsOffset, double[] out, int outOffset, int length) {
+            int i = 0;
+            for (; i + LANES <= length; i += LANES) {
+                double x0 = xs[xsOffset + i];
+                double x1 = xs[xsOffset + i + 1];
+                double x2 = xs[xsOffset + i + 2];
+                double x3 = xs[xsOffset + i + 3];
+                double r0 = 0;
+                double r1 = 0;
+                double r2 = 0;
+                double r3 = 0;
+                for (int j = 0; j < coefficients.length; ++j) {
+                    double cj = coefficients[j];
+                    r0 += cj;
+                    r1 += cj;
+                    r2 += cj;
+                    r3 += cj;
+                    int g = gaps[j];
+                    if (g != 0) {
+                        r0 *= pow(x0, g);
+                        r1 *= pow(x1, g);
+                        r2 *= pow(x2, g);
+                        r3 *= pow(x3, g);
+                    }
+                }
+                out[outOffset + i] = r0;
+                out[outOffset + i + 1] = r1;
+                out[outOffset + i + 2] = r2;
+                out[outOffset + i + 3] = r3;
+            }
+            for (; i < length; ++i) {
+                out[outOffset + i] = evaluateFinite(xs[xsOffset + i]);
+            }
+        }
+
+        @Override
+        protected void evaluateFiniteWithDerivatives(double x, double[] out, boolean second) {
+            // Each step replaces p with q * x^g, where q = p + c.  By the product rule:
+            //   (q x^g)'  = q' x^g + g q x^(g-1)
+            //   (q x^g)'' = q'' x^g + 2 g q' x^(g-1) + g (g-1) q x^(g-2)
+            double p = 0;
+            double dp = 0;
+            double ddp = 0;
+            for (int j = 0; j < coefficients.length; ++j) {
+                double q = p + coefficients[j];
+                int g = gaps[j];
+                if (g == 0) {
+                    p = q;
+                    continue;
+                }
+
+                double xToGMinus2 = (g >= 2) ? pow(x, g - 2) : 0;
+                double xToGMinus1 = (g >= 2) ? xToGMinus2 * x : 1;
+                double xToG = xToGMinus1 * x;
+
+                if (second) {
+                    ddp = ddp * xToG + 2 * g * dp * xToGMinus1 + (double) g * (g - 1) * q * xToGMinus2;
+                }
+                dp = dp * xToG + g * q * xToGMinus1;
+                p = q * xToG;
+            }
+            out[0] = p;
+            out[1] = dp;
+            if (second) {
+                out[2] = ddp;
+            }
+        }
+    }
+
+    private static final class General extends CompiledPolynomial {
+        private final double[] coefficients;
+        private final double[] exponents;
+
+        General(double atPositiveInfinity, double atNegativeInfinity, double[] coefficients, double[] exponents) {
+            super(atPositiveInfinity, atNegativeInfinity);
+            this.coefficients = coefficients;
+            this.exponents = exponents;
+        }
+
+        @Override
+        protected double evaluateFinite(double x) {
+            double result = 0;
+            for (int j = 0; j < coefficients.length; ++j) {
+                result += Math.pow(x, exponents[j]) * coefficients[j];
+            }
+            return result;
+        }
+
+        @Override
+        protected void evaluateFiniteWithDerivatives(double x, double[] out, boolean second) {
+            double f = 0;
+            double df = 0;
+            double ddf = 0;
+            for (int j = 0; j < coefficients.length; ++j) {
+                double c = coefficients[j];
+                double e = exponents[j];
+                f += Math.pow(x, e) * c;
+                // Constant terms contribute nothing to the derivatives; skipping them also avoids
+                // 0 * pow(0, -1) = NaN at x = 0.
+                if (e != 0) {
+                    double xToEMinus1 = Math.pow(x, e - 1);
+                    df += e * c * xToEMinus1;
+                    if (second && (e != 1)) {
+                        ddf += e * (e - 1) * c * Math.pow(x, e - 2);
+                    }
+                }
+            }
+            out[0] = f;
+            out[1] = df;
+            if (second) {
+                out[2] = ddf;
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.swtanalytics.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.math.MathContext;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+
+@RunWith(JUnit4.class)
+public class CompiledPolynomialTest {
+    private static final double[] POINTS = {
+            Double.NEGATIVE_INFINITY, -7.5, -2, -1, -0.3, 0, 0.3, 1, 1.01, 2, 7.5, Double.POSITIVE_INFINITY
+    };
+
+    private static void assertMatchesEvaluate(MathFunction function) {
+        CompiledPolynomial compiled = function.compile();
+        for (double x : POINTS) {
+            double expected = function.evaluate(x, MathContext.DECIMAL128);
+            double actual = compiled.applyAsDouble(x);
+            String message = function + " at " + x;
+            if (Double.isNaN(expected) || Double.isInfinite(expected)) {
+                Assert.assertEquals(message, expected, actual, 0.0);
+            } else {
+                Assert.assertEquals(message, expected, actual, 1.0E-12 * Math.max(1, Math.abs(expected)));
+            }
+        }
+    }
+
+    private static MathFunction functionOf(Term... terms) {
+        MathFunction function = new MathFunction();
+        for (Term t : terms) {
+            function.addTerm(t);
+        }
+        return function;
+    }
+
+    @Test
+    public void emptyFunctionIsZero() {
+        Assert.assertEquals(0, new MathFunction().compile().applyAsDouble(3), 0);
+        assertMatchesEvaluate(new MathFunction());
+    }
+
+    @Test
+    public void denseLowDegreePolynomial() {
+        assertMatchesEvaluate(functionOf(new Term(3, 4), new Term(-2, 3), new Term(new Fraction(1, 2), 1), new Term(-7, 0)));
+    }
+
+    @Test
+    public void sparseHighDegreePolynomial() {
+        assertMatchesEvaluate(functionOf(new Term(-3, 100), new Term(5, 61), new Term(new Fraction(7, 3), 60), new Term(2, 13)));
+        assertMatchesEvaluate(functionOf(new Term(1, 97), new Term(-1, 0)));
+    }
+
+    @Test
+    public void fractionalAndNegativeExponents() {
+        assertMatchesEvaluate(functionOf(new Term(2, new Fraction(1, 2)), new Term(1, 1)));
+        assertMatchesEvaluate(functionOf(new Term(2, -2), new Term(-1, 3)));
+        assertMatchesEvaluate(functionOf(new Term(1, new Fraction(-1, 2))));
+    }
+
+    @Test
+    public void randomGeneratedFunctions() {
+        RandomGenerator randomGenerator = new SeededRandomGenerator(31337);
+        MathFunctionFactory factory = new MathFunctionFactory(
+                new RandomTermFactory(new RandomFractionFactory(randomGenerator)), randomGenerator);
+
+        for (int i = 0; i < 200; ++i) {
+            MathFunction function = factory.create(i % 2 == 0, randomGenerator.generateInt(1, 6), 12, false);
+            assertMatchesEvaluate(function);
+        }
+    }
+
+    @Test
+    public void compiledFormIsCachedUntilTheFunctionChanges() {
+        MathFunction function = functionOf(new Term(1, 2));
+        CompiledPolynomial compiled = function.compile();
+        Assert.assertSame(compiled, function.compile());
+
+        function.addTerm(new Term(1, 0));
+        Assert.assertNotSame(compiled, function.compile());
+        Assert.assertEquals(5, function.compile().applyAsDouble(2), 0);
+    }
+
+    private static void assertDerivativesMatch(MathFunction function) {
+        MathFunction derivative = function.differentiate();
+        MathFunction secondDerivative = derivative.differentiate();
+        double[] out = new double[3];
+        for (double x : POINTS) {
+            if (Double.isInfinite(x) || (x < 0 && function.hasFractionalExponent()) || (x == 0 && function.hasNegativeExponent())) {
+                continue;
+            }
+            function.evaluateWithDerivatives(x, out);
+            String message = function + " at " + x;
+            double[] expected = {
+                    function.evaluate(x, MathContext.DECIMAL128),
+                    derivative.evaluate(x, MathContext.DECIMAL128),
+                    secondDerivative.evaluate(x, MathContext.DECIMAL128)
+            };
+            for (int i = 0; i < 3; ++i) {
+                Assert.assertEquals(message, expected[i], out[i], 1.0E-10 * Math.max(1, Math.abs(expected[i])));
+            }
+        }
+    }
+
+    @Test
+    public void fusedDerivativesMatchDifferentiate() {
+        assertDerivativesMatch(functionOf(new Term(3, 4), new Term(-2, 3), new Term(new Fraction(1, 2), 1), new Term(-7, 0)));
+        assertDerivativesMatch(functionOf(new Term(-3, 40), new Term(5, 21), new Term(new Fraction(7, 3), 20), new Term(2, 3)));
+        assertDerivativesMatch(functionOf(new Term(1, 37), new Term(-1, 1)));
+        assertDerivativesMatch(functionOf(new Term(2, new Fraction(3, 2)), new Term(1, 1), new Term(4, 0)));
+        assertDerivativesMatch(functionOf(new Term(2, -2), new Term(-1, 3)));
+    }
+
+    @Test
+    public void fusedEvaluationWithoutSecondDerivative() {
+        MathFunction function = functionOf(new Term(1, 3), new Term(-1, 1));
+        double[] out = new double[2];
+
+        function.evaluateWithDerivatives(2, out);
+
+        Assert.assertEquals(6, out[0], 0);
+        Assert.assertEquals(11, out[1], 0);
+    }
+
+    private static double[] grid(int size) {
+        double[] xs = new double[size];
+        for (int i = 0; i < size; ++i) {
+            xs[i] = -3 + 6.0 * i / size;
+        }
+        return xs;
+    }
+
+    private static void assertBatchMatchesScalar(MathFunction function, double[] xs) {
+        CompiledPolynomial compiled = function.compile();
+        double[] out = new double[xs.length];
+
+        function.evaluate(xs, out);
+
+        for (int i = 0; i < xs.length; ++i) {
+            Assert.assertEquals(function + " at " + xs[i], compiled.applyAsDouble(xs[i]), out[i], 0.0);
+        }
+    }
+
+    @Test
+    public void batchEvaluationMatchesScalarExactly() {
+        double[] xs = grid(1003);
+        assertBatchMatchesScalar(functionOf(new Term(3, 4), new Term(-2, 3), new Term(new Fraction(1, 2), 1), new Term(-7, 0)), xs);
+        assertBatchMatchesScalar(functionOf(new Term(-3, 100), new Term(5, 61), new Term(new Fraction(7, 3), 60), new Term(2, 13)), xs);
+        assertBatchMatchesScalar(functionOf(new Term(2, new Fraction(1, 2)), new Term(1, 1)), xs);
+        assertBatchMatchesScalar(new MathFunction(), xs);
+    }
+
+    @Test
+    public void batchEvaluationHandlesInfinities() {
+        double[] xs = { 1, Double.NEGATIVE_INFINITY, 2, 3, 4, Double.POSITIVE_INFINITY, Double.NaN };
+        assertBatchMatchesScalar(functionOf(new Term(1, 3), new Term(-1, 2)), xs);
+    }
+
+    @Test
+    public void batchEvaluationInPlace() {
+        MathFunction function = functionOf(new Term(1, 2), new Term(1, 0));
+        double[] xs = { 0, 1, 2, 3, 4, Double.POSITIVE_INFINITY };
+
+        function.evaluate(xs, xs);
+
+        Assert.assertArrayEquals(new double[] { 1, 2, 5, 10, 17, Double.POSITIVE_INFINITY }, xs, 0.0);
+    }
+
+    @Test
+    public void batchEvaluationOverBuffers() {
+        MathFunction function = functionOf(new Term(-3, 41), new Term(5, 20), new Term(2, 3));
+        CompiledPolynomial compiled = function.compile();
+        double[] xs = grid(3001);
+
+        DoubleBuffer heapOut = DoubleBuffer.allocate(xs.length);
+        compiled.evaluate(DoubleBuffer.wrap(xs), heapOut);
+
+        DoubleBuffer directIn = ByteBuffer.allocateDirect(8 * xs.length).asDoubleBuffer();
+        directIn.put(xs).flip();
+        DoubleBuffer directOut = ByteBuffer.allocateDirect(8 * xs.length).asDoubleBuffer();
+        compiled.evaluate(directIn, directOut);
+
+        Assert.assertFalse(directIn.hasRemaining());
+        Assert.assertFalse(directOut.hasRemaining());
+        for (int i = 0; i < xs.length; ++i) {
+            Assert.assertEquals(compiled.applyAsDouble(xs[i]), heapOut.get(i), 0.0);
+            Assert.assertEquals(compiled.applyAsDouble(xs[i]), directOut.get(i), 0.0);
+        }
+    }
+}
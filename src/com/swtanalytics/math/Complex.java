@@ -0,0 +1,66 @@
+package com.swtanalytics.math;
+
+/**
+ * An immutable complex number, as returned by MathFunction.allRoots().
+ */
+public final class Complex implements Comparable<Complex> {
+    private final double real;
+    private final double imaginary;
+
+    public Complex(double real, double imaginary) {
+        this.real = real;
+        this.imaginary = imaginary;
+    }
+
+    public double real() {
+        return real;
+    }
+
+    public double imaginary() {
+        return imaginary;
+    }
+
+    public double abs() {
+        return Math.hypot(real, imaginary);
+    }
+
+    /**
+     * @return True if the imaginary part is negligible: no more than @c tolerance times the
+     * larger of 1 and the magnitude.
+     */
+    public boolean isReal(double tolerance) {
+        return Math.abs(imaginary) <= tolerance * Math.max(1, abs());
+    }
+
+    /**
+     * Orders by real part, then by imaginary part.
+     */
+    @Override
+    public int compareTo(Complex c) {
+        int result = Double.compare(real, c.real);
+        return result != 0 ? result : Double.compare(imaginary, c.imaginary);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Complex)) return false;
+
+        Complex complex = (Complex) o;
+
+        return Double.compare(real, complex.real) == 0 && Double.compare(imaginary, complex.imaginary) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(real) + Double.hashCode(imaginary);
+    }
+
+    @Override
+    public String toString() {
+        if (imaginary == 0) {
+            return Double.toString(real);
+        }
+        return real + (imaginary < 0 ? " - " : " + ") + Math.abs(imaginary) + "i";
+    }
+}
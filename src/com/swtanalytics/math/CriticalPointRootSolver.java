@@ -0,0 +1,15 @@
+package com.swtanalytics.math;
+
+import java.math.MathContext;
+import java.util.List;
+
+/**
+ * The original solver, MathFunction.solve(MathContext): it splits the domain at the critical
+ * points, found by recursively solving the derivative, and runs Newton's method on each span.
+ */
+public class CriticalPointRootSolver implements RootSolver {
+    @Override
+    public List<Double> solve(MathFunction function, MathContext mc) {
+        return function.solve(mc);
+    }
+}
@@ -0,0 +1,165 @@
+package com.swtanalytics.math;
+
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Finds real roots by Vincent-Collins-Akritas bisection: Descartes' rule of signs on the function's
+ * exact integer coefficients, with Taylor shifts to move between intervals.
+ *
+ * The function is cleared to a square-free integer polynomial p, and its positive roots are
+ * mapped into (0, 1) by the substitution x = 2^k y, where 2^k bounds the roots.  For a polynomial q
+ * on (0, 1), the sign variations of (y + 1)^n q(1 / (y + 1)) bound its roots there: none means
+ * no root, one means exactly one.  Otherwise the interval is halved, via 2^n q(y / 2) for the
+ * left half and a Taylor shift of that by one for the right.  Negative roots are the positive
+ * roots of p(-x).  Only additions and shifts of integers are needed until the final refinement,
+ * which makes this fast for the sparse, high-degree polynomials that MathFunctionFactory creates.
+ *
+ * Functions with fractional exponents are handed to the fallback solver.
+ */
+public class DescartesRootSolver implements RootSolver {
+    private final RootSolver fallback;
+
+    public DescartesRootSolver() {
+        this(new CriticalPointRootSolver());
+    }
+
+    /**
+     * @param fallback Solves functions that this solver can't: those with fractional exponents.
+     */
+    public DescartesRootSolver(RootSolver fallback) {
+        this.fallback = fallback;
+    }
+
+    /**
+     * @return Isolating intervals for the distinct real roots of @c function, in ascending order.
+     * Each is a pair {a, b}: if a == b, it's an exact (rational) root; otherwise, there is exactly
+     * one root in the open interval (a, b).  An end may itself be an exact root, but then it also
+     * has its own pair.
+     * @throws UnsupportedOperationException If any exponent is fractional.
+     */
+    public List<Fraction[]> isolate(MathFunction function) {
+        if (function.hasFractionalExponent()) {
+            throw new UnsupportedOperationException("Root isolation requires whole-number exponents.");
+        }
+
+        IntegerPolynomial p = function.exact().toIntegerPolynomial();
+        if (p.degree() <= 0) {
+            return Collections.emptyList();
+        }
+        return isolate(p.squareFreePart());
+    }
+
+    static List<Fraction[]> isolate(IntegerPolynomial squareFree) {
+        IntegerPolynomial p = squareFree;
+        boolean zeroIsRoot = p.coefficient(0).signum() == 0;
+        if (zeroIsRoot) {
+            // Square-free, so x divides it only once
+            p = p.divideExactly(IntegerPolynomial.of(0, 1));
+        }
+        int k = p.rootBoundExponent();
+
+        List<Fraction[]> negative = new ArrayList<Fraction[]>();
+        isolatePositive(p.negateArgument(), k, negative);
+
+        List<Fraction[]> intervals = new ArrayList<Fraction[]>();
+        for (int i = negative.size() - 1; i >= 0; --i) {
+            Fraction[] interval = negative.get(i);
+            intervals.add(new Fraction[] { interval[1].negate(), interval[0].negate() });
+        }
+        if (zeroIsRoot) {
+            intervals.add(new Fraction[] { Fraction.ZERO, Fraction.ZERO });
+        }
+        isolatePositive(p, k, intervals);
+        return intervals;
+    }
+
+    /**
+     * Appends isolating intervals for the roots of @c p in (0, 2^k), all of which must lie below 2^k.
+     */
+    private static void isolatePositive(IntegerPolynomial p, int k, List<Fraction[]> intervals) {
+        if (p.degree() <= 0) {
+            return;
+        }
+        bisect(p.scaleArgument(k).primitivePart(), BigInteger.ZERO, 0, k, intervals);
+    }
+
+    /**
+     * Appends isolating intervals for the roots in (0, 1) of @c q, which is p(2^k (c + y) / 2^level),
+     * scaled by a positive constant.  In terms of p, that's the interval (2^k c / 2^level, 2^k (c + 1) / 2^level).
+     */
+    private static void bisect(IntegerPolynomial q, BigInteger c, int level, int k, List<Fraction[]> intervals) {
+        // Roots of q in (0, 1) are the positive roots of (y + 1)^n q(1 / (y + 1)).  reverse() drops
+        // any root at y = 0, which isn't in the open interval anyway.
+        int variations = q.reverse().taylorShiftByOne().signVariations();
+        if (variations == 0) {
+            return;
+        }
+        if (variations == 1) {
+            intervals.add(new Fraction[] { point(c, level, k), point(c.add(BigInteger.ONE), level, k) });
+            return;
+        }
+
+        IntegerPolynomial left = q.halveArgument().primitivePart();
+        IntegerPolynomial right = left.taylorShiftByOne();
+        BigInteger leftC = c.shiftLeft(1);
+        BigInteger rightC = leftC.add(BigInteger.ONE);
+
+        bisect(left, leftC, level + 1, k, intervals);
+        if (left.valueAtOne().signum() == 0) {
+            // The midpoint is a root
+            Fraction root = point(rightC, level + 1, k);
+            intervals.add(new Fraction[] { root, root });
+        }
+        bisect(right, rightC, level + 1, k, intervals);
+    }
+
+    /**
+     * @return 2^k c / 2^level
+     */
+    private static Fraction point(BigInteger c, int level, int k) {
+        return (k >= level)
+                ? Fraction.valueOf(c.shiftLeft(k - level), BigInteger.ONE)
+                : Fraction.valueOf(c, BigInteger.ONE.shiftLeft(level - k));
+    }
+
+    @Override
+    public List<Double> solve(MathFunction function, MathContext mc) {
+        if (function.hasFractionalExponent()) {
+            return fallback.solve(function, mc);
+        }
+
+        IntegerPolynomial p = function.exact().toIntegerPolynomial();
+        if (p.degree() <= 0) {
+            // Constant, so no solutions (see MathFunction.solve(...) about f(x) = 0)
+            return Collections.emptyList();
+        }
+
+        IntegerPolynomial squareFree = p.squareFreePart();
+        List<Fraction[]> intervals = isolate(squareFree);
+
+        // Divide out the exact roots, which may be the ends of other intervals, so that refineRoot(...)
+        // only ever sees the one root inside its interval.
+        IntegerPolynomial deflated = squareFree;
+        for (Fraction[] interval : intervals) {
+            if (interval[0].equals(interval[1])) {
+                deflated = deflated.divideExactly(IntegerPolynomial.of(interval[0].numerator().negate(), interval[0].denominator()));
+            }
+        }
+
+        CompiledPolynomial compiled = deflated.toMathFunction().compile();
+        double[] valueAndSlope = new double[2];
+        List<Double> solutions = new ArrayList<Double>(intervals.size());
+        for (Fraction[] interval : intervals) {
+            if (interval[0].equals(interval[1])) {
+                solutions.add(interval[0].doubleValue());
+            } else {
+                solutions.add(deflated.refineRoot(compiled, interval[0], interval[1], valueAndSlope));
+            }
+        }
+        return solutions;
+    }
+}
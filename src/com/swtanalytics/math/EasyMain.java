@@ -2,6 +2,8 @@ package com.swtanalytics.math;
 
 import java.io.IOException;
 import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.kohsuke.args4j.Option;
 import org.kohsuke.args4j.CmdLineParser;
@@ -11,6 +13,9 @@ public class EasyMain {
     public static final int NUM_MATH_FUNCTIONS_DEFAULT = 10;
     private final MathFunctionFactory functionFactory;
 
+    // Reused across batches, so that analyzing the functions allocates as little as possible
+    private final SolverWorkspace workspace = new SolverWorkspace();
+
     public EasyMain() {
         RandomGenerator randomGenerator = new RandomGeneratorUsingMathRandom();
         FractionFactory fractionFactory = new RandomFractionFactory(randomGenerator);
@@ -75,7 +80,10 @@ public class EasyMain {
         return functionString.toString();
     }
 
-    public void printFunction(MathFunction mf, int i, MathContext mc) {
+    /**
+     * Prints @c mf, with the roots and extrema that @c analysis holds for it at index @c i.
+     */
+    public void printFunction(MathFunction mf, BatchResult analysis, int i, MathContext mc) {
     	System.out.println("  <function>");
 
     	printFunction(mf, i, FunctionType.NORMAL);
@@ -92,9 +100,9 @@ public class EasyMain {
         	printSlope(mf.computeSlope());
         }
         
-        printMinMax(mf);
+        printMinMax(analysis, i);
         
-        printIntercepts(mf, mc);
+        printIntercepts(mf, analysis, i, mc);
 
     	System.out.println("  </function>");
     }
@@ -106,37 +114,22 @@ public class EasyMain {
     	System.out.println("    </slope>");
     }
 
-    private void printMinMax(MathFunction function) {
-    	MathContext mc = MathContext.DECIMAL128;
-    	
-        try {
-            double minX = function.findMinimum(domainMin, domainMax, mc);
-            double minY = function.evaluate(minX, mc);
-            if (!Double.isNaN(minX) && !Double.isNaN(minY)) {
-                System.out.format("    <min>(%f, %f)</min>%n", minX, minY);
-            }
-        } catch (UnsupportedOperationException e) {
+    private void printMinMax(BatchResult analysis, int i) {
+        // NaN when the exponents' denominators are too large to substitute for
+        if (!Double.isNaN(analysis.argMin(i)) && !Double.isNaN(analysis.min(i))) {
+            System.out.format("    <min>(%f, %f)</min>%n", analysis.argMin(i), analysis.min(i));
         }
-
-        try {
-            double maxX = function.findMaximum(domainMin, domainMax, mc);
-            double maxY = function.evaluate(maxX, mc);
-            if (!Double.isNaN(maxX) && !Double.isNaN(maxY)) {
-                System.out.format("    <max>(%f, %f)</max>%n", maxX, maxY);
-            }
-        } catch (UnsupportedOperationException e) {
+        if (!Double.isNaN(analysis.argMax(i)) && !Double.isNaN(analysis.max(i))) {
+            System.out.format("    <max>(%f, %f)</max>%n", analysis.argMax(i), analysis.max(i));
         }
     }
 
-    private void printIntercepts(MathFunction function, MathContext mc) {
+    private void printIntercepts(MathFunction function, BatchResult analysis, int i, MathContext mc) {
         System.out.format("    <y-intercept>%f</y-intercept>%n", function.evaluate(0, mc));
 
-        try {
-            for (double solution : function.solve(mc))
-            {
-                System.out.format("    <x-intercept>%f</x-intercept>%n", solution);
-            }
-        } catch (UnsupportedOperationException e) {
+        for (int j = 0; j < analysis.rootCount(i); ++j)
+        {
+            System.out.format("    <x-intercept>%f</x-intercept>%n", analysis.root(i, j));
         }
     }
 
@@ -180,9 +173,17 @@ public class EasyMain {
     	
     	MathContext mc = MathContext.DECIMAL128;
     	
+    	List<MathFunction> functions = new ArrayList<MathFunction>(this.numMathFunctions);
+    	for (int i=0; i<this.numMathFunctions;++i){
+            functions.add(functionFactory.create(!this.isFractions, this.forceLinearFunctions));
+        }
+
+        // Find every function's roots and extrema in one pass, without per-function garbage
+        BatchResult analysis = new BatchResult();
+        BatchAnalyzer.analyze(functions, domainMin, domainMax, workspace, analysis);
+
     	for (int i=0; i<this.numMathFunctions;++i){
-            MathFunction mf = functionFactory.create(!this.isFractions, this.forceLinearFunctions);
-            printFunction(mf, i, mc);
+            printFunction(functions.get(i), analysis, i, mc);
         }
 
     	System.out.println("</functions>");
@@ -0,0 +1,105 @@
+package com.swtanalytics.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.math.BigInteger;
+
+@RunWith(JUnit4.class)
+public class EvaluateExactTest {
+    private static MathFunction functionOf(Term... terms) {
+        MathFunction function = new MathFunction();
+        for (Term t : terms) {
+            function.addTerm(t);
+        }
+        return function;
+    }
+
+    /**
+     * The straightforward (slow) way to evaluate a function exactly, one Fraction power per term.
+     */
+    private static Fraction termByTerm(MathFunction function, Fraction x) {
+        Fraction result = Fraction.ZERO;
+        for (Term t : function.getTerms()) {
+            int e = t.exponent.intValue();
+            Fraction power = Fraction.ONE;
+            for (int i = 0; i < Math.abs(e); ++i) {
+                power = power.multiply(x);
+            }
+            if (e < 0) {
+                power = power.invert();
+            }
+            result = result.add(t.coefficient.multiply(power));
+        }
+        return result;
+    }
+
+    @Test
+    public void emptyFunctionIsZero() {
+        Assert.assertEquals(Fraction.ZERO, new MathFunction().evaluateExact(new Fraction(3, 7)));
+    }
+
+    @Test
+    public void simplePolynomial() {
+        MathFunction function = functionOf(new Term(new Fraction(1, 2), 3), new Term(-1, 1), new Term(new Fraction(2, 3), 0));
+
+        // (1/2)(8/27) - 2/3 + 2/3 = 4/27
+        Assert.assertEquals(new Fraction(4, 27), function.evaluateExact(new Fraction(2, 3)));
+        Assert.assertEquals(new Fraction(2, 3), function.evaluateExact(Fraction.ZERO));
+        Assert.assertEquals(new Fraction(-4, 3), function.evaluateExact(new Fraction(-2)));
+    }
+
+    @Test
+    public void negativeExponents() {
+        MathFunction function = functionOf(new Term(2, 1), new Term(new Fraction(3, 4), -2));
+
+        // 2(-1/2) + (3/4)(4) = 2
+        Assert.assertEquals(new Fraction(2), function.evaluateExact(new Fraction(-1, 2)));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void negativeExponentAtZero() {
+        functionOf(new Term(1, -1)).evaluateExact(Fraction.ZERO);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void fractionalExponentsAreUnsupported() {
+        functionOf(new Term(1, new Fraction(1, 2))).evaluateExact(Fraction.ONE);
+    }
+
+    @Test
+    public void matchesTermByTermEvaluation() {
+        RandomGenerator randomGenerator = new SeededRandomGenerator(31337);
+        MathFunctionFactory factory = new MathFunctionFactory(
+                new RandomTermFactory(new RandomFractionFactory(randomGenerator)), randomGenerator);
+
+        for (int i = 0; i < 50; ++i) {
+            MathFunction function = factory.create(false, randomGenerator.generateInt(1, 6), 40, false);
+            Fraction[] xs = {
+                    Fraction.ZERO,
+                    new Fraction(randomGenerator.generateInt(-9, 9), randomGenerator.generateInt(1, 9)),
+                    new Fraction(BigInteger.valueOf(Long.MAX_VALUE).multiply(BigInteger.TEN), BigInteger.valueOf(7))
+            };
+            Fraction[] actual = function.evaluateExact(xs);
+            for (int j = 0; j < xs.length; ++j) {
+                Assert.assertEquals(function + " at " + xs[j], termByTerm(function, xs[j]), actual[j]);
+            }
+        }
+    }
+
+    @Test
+    public void measuresResidualsOfApproximateRoots() {
+        MathFunction function = functionOf(new Term(1, 2), new Term(-2, 0));
+
+        java.util.List<Double> roots = function.solve(java.math.MathContext.DECIMAL128);
+        Assert.assertEquals(2, roots.size());
+        for (double root : roots) {
+            // sqrt(2) is irrational, so the residual is never exactly zero, but it is tiny.
+            Fraction residual = function.evaluateExact(Fraction.valueOf(root));
+            Assert.assertNotEquals(Fraction.ZERO, residual);
+            Assert.assertEquals(0, residual.doubleValue(), 1.0E-6);
+        }
+    }
+}
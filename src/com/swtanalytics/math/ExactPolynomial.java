@@ -0,0 +1,128 @@
+package com.swtanalytics.math;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * An immutable, exact form of a MathFunction whose exponents are all whole numbers (negative ones
+ * included), for evaluating it at rational points without any rounding.
+ *
+ * The coefficients are cleared to integers over a single common denominator when the form is
+ * built.  Evaluating at x = p/q then runs Horner's scheme in homogeneous form, entirely in
+ * integers, so it costs O(degree) BigInteger multiplications and a single GCD (in the final
+ * Fraction), rather than a Fraction.pow(...) and a Fraction.add(...) with its GCD per term.
+ */
+public final class ExactPolynomial {
+    // Terms in descending exponent order: the function is
+    //   (1 / commonDenominator) * sum( numerators[j] * x^exponents[j] )
+    private final BigInteger[] numerators;
+    private final int[] exponents;
+    private final BigInteger commonDenominator;
+
+    private ExactPolynomial(BigInteger[] numerators, int[] exponents, BigInteger commonDenominator) {
+        this.numerators = numerators;
+        this.exponents = exponents;
+        this.commonDenominator = commonDenominator;
+    }
+
+    static ExactPolynomial of(MathFunction function) {
+        if (function.hasFractionalExponent()) {
+            throw new UnsupportedOperationException("Exact evaluation requires whole-number exponents.");
+        }
+
+        Collection<Term> terms = function.getTerms(); // Ordered by descending exponent
+        int termCount = terms.size();
+
+        BigInteger commonDenominator = BigInteger.ONE;
+        for (Term t : terms) {
+            BigInteger d = t.coefficient.denominator();
+            commonDenominator = commonDenominator.divide(commonDenominator.gcd(d)).multiply(d);
+        }
+
+        BigInteger[] numerators = new BigInteger[termCount];
+        int[] exponents = new int[termCount];
+        int j = 0;
+        for (Term t : terms) {
+            numerators[j] = t.coefficient.numerator().multiply(commonDenominator.divide(t.coefficient.denominator()));
+            exponents[j] = t.exponent.intValue();
+            ++j;
+        }
+
+        return new ExactPolynomial(numerators, exponents, commonDenominator);
+    }
+
+    /**
+     * @return commonDenominator * f(x), multiplied by x^-lowest if there are negative exponents, as
+     * a dense integer polynomial.  It has the same non-zero roots as the function f, and x = 0 is
+     * one of its roots exactly when f(0) = 0.
+     */
+    IntegerPolynomial toIntegerPolynomial() {
+        int termCount = numerators.length;
+        if (termCount == 0) {
+            return IntegerPolynomial.ZERO;
+        }
+        int shift = Math.max(0, -exponents[termCount - 1]);
+        BigInteger[] coefficients = new BigInteger[exponents[0] + shift + 1];
+        Arrays.fill(coefficients, BigInteger.ZERO);
+        for (int j = 0; j < termCount; ++j) {
+            coefficients[exponents[j] + shift] = numerators[j];
+        }
+        return IntegerPolynomial.of(coefficients);
+    }
+
+    /**
+     * @return The exact value of the function at @c x.
+     * @throws ArithmeticException If @c x is zero and the function has a negative exponent.
+     */
+    public Fraction evaluate(Fraction x) {
+        int termCount = numerators.length;
+        if (termCount == 0) {
+            return Fraction.ZERO;
+        }
+
+        BigInteger p = x.numerator();
+        BigInteger q = x.denominator();
+
+        int lowest = exponents[termCount - 1];
+        if ((lowest < 0) && (p.signum() == 0)) {
+            throw new ArithmeticException("The function is undefined at x = 0.");
+        }
+
+        // Factor out x^lowest, leaving sum( numerators[j] * x^(exponents[j] - lowest) ), whose
+        // powers are all non-negative.  With x = p/q and m = exponents[0] - lowest, multiplying that
+        // by q^m gives an integer, which Horner's scheme computes as
+        //   acc = numerators[0];  acc = acc * p^gap + numerators[j] * q^(exponents[0] - exponents[j])
+        BigInteger acc = numerators[0];
+        BigInteger qPower = BigInteger.ONE;
+        for (int j = 1; j < termCount; ++j) {
+            int gap = exponents[j - 1] - exponents[j];
+            qPower = qPower.multiply(q.pow(gap));
+            acc = acc.multiply(p.pow(gap)).add(numerators[j].multiply(qPower));
+        }
+
+        // Now f(x) = acc / (commonDenominator * q^m) * (p/q)^lowest.
+        BigInteger numerator;
+        BigInteger denominator = commonDenominator.multiply(qPower);
+        if (lowest >= 0) {
+            numerator = acc.multiply(p.pow(lowest));
+            denominator = denominator.multiply(q.pow(lowest));
+        } else {
+            numerator = acc.multiply(q.pow(-lowest));
+            denominator = denominator.multiply(p.pow(-lowest));
+        }
+
+        return Fraction.valueOf(numerator, denominator);
+    }
+
+    /**
+     * @return The exact values of the function at each of @c xs.
+     */
+    public Fraction[] evaluate(Fraction[] xs) {
+        Fraction[] result = new Fraction[xs.length];
+        for (int i = 0; i < xs.length; ++i) {
+            result[i] = evaluate(xs[i]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,46 @@
+package com.swtanalytics.math;
+
+/**
+ * The minimum and maximum of a function over a domain, and where they occur, as returned by
+ * MathFunction.findExtrema(...).
+ */
+public final class Extrema {
+    private final double argMin;
+    private final double argMax;
+    private final double min;
+    private final double max;
+
+    Extrema(double argMin, double min, double argMax, double max) {
+        this.argMin = argMin;
+        this.min = min;
+        this.argMax = argMax;
+        this.max = max;
+    }
+
+    /**
+     * @return The first x in the domain at which the function takes its minimum.
+     */
+    public double argMin() {
+        return argMin;
+    }
+
+    /**
+     * @return The first x in the domain at which the function takes its maximum.
+     */
+    public double argMax() {
+        return argMax;
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "min f(" + argMin + ") = " + min + ", max f(" + argMax + ") = " + max;
+    }
+}
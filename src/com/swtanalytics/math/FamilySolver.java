@@ -0,0 +1,201 @@
+package com.swtanalytics.math;
+
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Solves a family of functions f + t g for a sequence of values of t by continuation: each
+ * member's roots start Newton's method for the next member's, so when consecutive members differ
+ * little, each root takes a step or two instead of a search.
+ *
+ * As in BatchAnalyzer, each member is solved along with its derivatives, from the linear one up,
+ * one root per span between the next derivative's roots.  Roots come and go only where a critical
+ * value changes sign, and that's exactly when a span gains or loses its sign change, so they're
+ * found (or dropped) even when there's no previous root to start from.  A member is solved from
+ * scratch with MathFunction.solve(...) when tracking it fails: when its coefficients overflow or a
+ * derivative's leading coefficient cancels out in rounding, when SpanSolver overflows or runs out
+ * of steps, or when it may have a repeated root, which takes the exact stage to find: when its
+ * value at a critical point is within the rounding error of zero, as in BatchAnalyzer, when two of
+ * its roots are closer than the tolerance, or when its root count changes by an odd number without
+ * its degree changing.
+ */
+final class FamilySolver {
+    // The same as SolveOptions.DEFAULT
+    private static final double TOLERANCE = 1.0E-12;
+
+    private final MathFunction f;
+    private final MathFunction g;
+    private final int degree;
+
+    // The derivatives of f and g, as in SolverWorkspace: fDerivatives[k][i] is the coefficient of x^i in
+    // the k-th derivative, with f and g scaled alike so that their sums are the members' derivatives.
+    private final double[][] fDerivatives;
+    private final double[][] gDerivatives;
+    private final double[][] member;
+    private final double[] bounds;
+    private final SolveContext context = new SolveContext(SolveOptions.DEFAULT);
+
+    // The roots of each derivative of the current member, and of the previous one
+    private double[][] roots;
+    private int[] rootCounts;
+    private double[][] previousRoots;
+    private int[] previousRootCounts;
+
+    FamilySolver(MathFunction f, MathFunction g) {
+        this.f = f;
+        this.g = g;
+        this.degree = Math.max(f.wholeDegree(), g.wholeDegree());
+        this.fDerivatives = derivatives(f, degree);
+        this.gDerivatives = derivatives(g, degree);
+        this.member = new double[degree + 1][degree + 1];
+        this.bounds = new double[degree + 3];
+        this.roots = new double[degree + 1][degree + 1];
+        this.rootCounts = new int[degree + 1];
+        this.previousRoots = new double[degree + 1][degree + 1];
+        this.previousRootCounts = new int[degree + 1];
+    }
+
+    /**
+     * @return The distinct real roots of f + t g for each t in @c ts, each list in ascending order.
+     */
+    List<List<Double>> solve(double[] ts) {
+        List<List<Double>> solutions = new ArrayList<List<Double>>(ts.length);
+        if (f.wholeDegree() < 0 || g.wholeDegree() < 0) {
+            // No coefficient arrays to track with
+            for (double t : ts) {
+                solutions.add(member(t).solve(MathContext.DECIMAL128));
+            }
+            return solutions;
+        }
+
+        int previousDegree = -1;
+        for (double t : ts) {
+            if (!Double.isFinite(t)) {
+                throw new IllegalArgumentException("Argument 't' is not finite");
+            }
+            int memberDegree = load(t);
+            boolean tracked = (memberDegree >= 0) && track(memberDegree) && !mayHaveRepeatedRoot(memberDegree);
+            if (tracked && previousDegree == memberDegree && ((rootCounts[0] - previousRootCounts[0]) & 1) != 0) {
+                tracked = false;
+            }
+
+            List<Double> memberRoots;
+            if (tracked) {
+                memberRoots = new ArrayList<Double>(rootCounts[0]);
+                for (int j = 0; j < rootCounts[0]; ++j) {
+                    memberRoots.add(roots[0][j]);
+                }
+            } else {
+                memberRoots = member(t).solve(MathContext.DECIMAL128);
+                // Only the function's own roots are replaced; the derivatives' still make good seeds.
+                rootCounts[0] = memberRoots.size();
+                for (int j = 0; j < rootCounts[0]; ++j) {
+                    roots[0][j] = memberRoots.get(j);
+                }
+            }
+            solutions.add(memberRoots);
+            previousDegree = memberDegree;
+
+            double[][] swapRoots = previousRoots;
+            previousRoots = roots;
+            roots = swapRoots;
+            int[] swapCounts = previousRootCounts;
+            previousRootCounts = rootCounts;
+            rootCounts = swapCounts;
+        }
+        return solutions;
+    }
+
+    /**
+     * Sums the member's derivatives' coefficients for @c t.
+     * @return The member's degree, or -1 if a coefficient overflowed.
+     */
+    private int load(double t) {
+        int memberDegree = 0;
+        for (int k = 0; k <= degree; ++k) {
+            double[] m = member[k];
+            for (int i = 0; i <= degree - k; ++i) {
+                m[i] = fDerivatives[k][i] + t * gDerivatives[k][i];
+                if (!Double.isFinite(m[i])) {
+                    return -1;
+                }
+                if (k == 0 && m[i] != 0) {
+                    memberDegree = i;
+                }
+            }
+        }
+        return memberDegree;
+    }
+
+    /**
+     * Solves the loaded member's derivatives from the linear one up, starting each from the previous
+     * member's roots.
+     * @return False if a derivative's leading coefficient rounded away to zero, or if SpanSolver
+     * overflowed or ran out of steps in some span.
+     */
+    private boolean track(int memberDegree) {
+        context.reset();
+        for (int k = degree; k >= 0; --k) {
+            int d = memberDegree - k;
+            double[] m = member[k];
+            if (d <= 0) {
+                rootCounts[k] = 0;
+            } else if (m[d] == 0) {
+                return false;
+            } else if (d == 1) {
+                // Adding zero turns -0.0 into 0.0.
+                roots[k][0] = -m[0] / m[1] + 0.0;
+                rootCounts[k] = 1;
+            } else {
+                rootCounts[k] = BatchAnalyzer.solveSpans(m, d, roots[k + 1], rootCounts[k + 1], bounds,
+                        roots[k], previousRoots[k], previousRootCounts[k], context);
+            }
+        }
+        return context.isComplete();
+    }
+
+    /**
+     * @return True if the tracked member may touch zero at a critical point, or if two of its roots
+     * are so close that they may be one.
+     */
+    private boolean mayHaveRepeatedRoot(int memberDegree) {
+        if (memberDegree >= 2 && BatchAnalyzer.mayTouchZero(member[0], memberDegree, roots[1], rootCounts[1])) {
+            return true;
+        }
+        double[] memberRoots = roots[0];
+        for (int j = 1; j < rootCounts[0]; ++j) {
+            if (memberRoots[j] - memberRoots[j - 1] < TOLERANCE * Math.max(1, Math.abs(memberRoots[j]))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return f + t g, exactly.
+     */
+    private MathFunction member(double t) {
+        Fraction scale = Fraction.valueOf(t);
+        MathFunction.Builder builder = new MathFunction.Builder().addTerms(f.getTerms());
+        for (Term term : g.getTerms()) {
+            builder.addTerm(term.coefficient.multiply(scale), term.exponent);
+        }
+        return builder.build();
+    }
+
+    private static double[][] derivatives(MathFunction function, int degree) {
+        double[][] coefficients = new double[degree + 1][degree + 1];
+        if (function.wholeDegree() < 0) {
+            return coefficients;
+        }
+        function.wholeCoefficients(coefficients[0]);
+        for (int k = 1; k <= degree; ++k) {
+            int previousDegree = degree - k + 1;
+            for (int i = 0; i < previousDegree; ++i) {
+                coefficients[k][i] = coefficients[k - 1][i + 1] * (i + 1) / previousDegree;
+            }
+        }
+        return coefficients;
+    }
+}
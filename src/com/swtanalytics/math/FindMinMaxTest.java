@@ -47,6 +47,9 @@ public class FindMinMaxTest {
                 {new Term[]{new Term(1, 3), new Term(-1, 1)}, -1, 1, 1 / Math.sqrt(3), -1 / Math.sqrt(3)},
                 {new Term[]{new Term(1, 3), new Term(-1, 1)}, 0, 1, 1 / Math.sqrt(3), 0},
                 {new Term[]{new Term(1, 3), new Term(-1, 1)}, 0, 2, 1 / Math.sqrt(3), 2},
+                {new Term[]{new Term(1, 1), new Term(1, -1)}, 0.5, 3, 1, 3},
+                {new Term[]{new Term(1, 1), new Term(1, -1)}, -2, 2, 0, 0},
+                {new Term[]{new Term(Fraction.ONE, new Fraction(1, 2)), new Term(-1, 1)}, -1, 4, 4, 0.25},
         });
     }
 
@@ -61,4 +64,20 @@ public class FindMinMaxTest {
         assertEquals(expectedMin, function.findMinimum(domainMin, domainMax, MathContext.DECIMAL128), EPSILON);
         assertEquals(expectedMax, function.findMaximum(domainMin, domainMax, MathContext.DECIMAL128), EPSILON);
     }
+
+    @Test
+    public void findExtremaMatchesFindMinimumAndFindMaximum() {
+        MathFunction function = new MathFunction();
+        for (Term term : terms) {
+            function.addTerm(term);
+        }
+
+        Extrema extrema = function.findExtrema(domainMin, domainMax);
+
+        assertEquals(expectedMin, extrema.argMin(), EPSILON);
+        assertEquals(expectedMax, extrema.argMax(), EPSILON);
+        CompiledPolynomial f = function.compile();
+        assertEquals(f.applyAsDouble(extrema.argMin()), extrema.min(), EPSILON);
+        assertEquals(f.applyAsDouble(extrema.argMax()), extrema.max(), EPSILON);
+    }
 }
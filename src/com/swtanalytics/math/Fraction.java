@@ -8,8 +8,17 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class Fraction implements Comparable<Fraction> {
-    protected final BigInteger numerator;
-    protected final BigInteger denominator;
+    // A Fraction is held in one of two representations.  When both its reduced numerator and
+    // denominator fit in a Java 'long', they're stored in 'num' and 'den', and 'bigNum'/'bigDen' are
+    // null.  Otherwise 'bigNum' and 'bigDen' hold the value, and 'num'/'den' are unused.
+    //
+    // Every mathematically distinct fraction has exactly one representation: the 'long' form is
+    // always used when it can be.  We also never store Long.MIN_VALUE as a 'long' numerator, so that
+    // negate() and abs() can't overflow.
+    protected final long num;
+    protected final long den;
+    protected final BigInteger bigNum;
+    protected final BigInteger bigDen;
 
     // We allow '~' as an alternative for '-', because in some contexts '-' might be confused with 
     // a command-line switch.
@@ -22,7 +31,11 @@ public class Fraction implements Comparable<Fraction> {
     
     protected final boolean isWholeFlag;
 
-    private static final BigInteger bigZero = BigInteger.valueOf( 0 );
+    // The value of doubleValue(), computed on first use.  NaN means "not computed yet", since no
+    // Fraction has that value.  Racing threads may both compute it, but they'll store the same
+    // result; the field is volatile only so that the 64-bit write can't be torn.
+    private volatile double doubleValueCache = Double.NaN;
+
     private static final BigInteger bigOne = BigInteger.valueOf( 1 );
     private static final BigInteger bigTwo = BigInteger.valueOf( 2 );
 
@@ -38,7 +51,74 @@ public class Fraction implements Comparable<Fraction> {
     private static final BigDecimal bigMinDouble = BigDecimal.valueOf( Double.MIN_VALUE );
     private static final BigDecimal bigMaxDouble = BigDecimal.valueOf( Double.MAX_VALUE );
 
+    // Canonical instances for the small fractions that dominate our generated functions (the
+    // random factories produce numerators and denominators in -50..49).  Slot [d - 1][n - CACHE_MIN_NUMERATOR]
+    // holds the reduced value of n/d, so every equal small value is the same object.
+    private static final int CACHE_MIN_NUMERATOR = -128;
+    private static final int CACHE_MAX_NUMERATOR = 127;
+    private static final int CACHE_MAX_DENOMINATOR = 64;
+    private static final Fraction[][] cache = buildCache();
+
+    public static final Fraction ZERO = cache[0][ 0 - CACHE_MIN_NUMERATOR];
+    public static final Fraction ONE = cache[0][ 1 - CACHE_MIN_NUMERATOR];
+    public static final Fraction MINUS_ONE = cache[0][-1 - CACHE_MIN_NUMERATOR];
+
+    /**
+     * Builds a Fraction directly from an already-reduced representation.  Exactly one of the
+     * (num, den) and (bigNum, bigDen) pairs is meaningful; see the comment on the fields.
+     */
+    private Fraction(long num, long den, BigInteger bigNum, BigInteger bigDen) {
+    	this.num = num;
+    	this.den = den;
+    	this.bigNum = bigNum;
+    	this.bigDen = bigDen;
+
+    	if (bigNum == null) {
+    		this.sign_val = Long.signum( num );
+    		this.isWholeFlag = (den == 1);
+    	}
+    	else {
+    		this.sign_val = bigNum.signum();
+    		this.isWholeFlag = bigDen.equals( bigOne );
+    	}
+    }
+
+    private Fraction(Fraction f) {
+    	this( f.num, f.den, f.bigNum, f.bigDen );
+    }
+
     public Fraction(String s) throws NumberFormatException {    	
+    	this( parse(s) );
+    }
+    
+    public Fraction(BigInteger n, BigInteger d) {
+    	this( valueOf(n, d) );
+    }
+    
+    public Fraction(Integer n, Integer d) {
+    	this( valueOf(n.longValue(), d.longValue()) );
+    }
+    
+    public Fraction(Long n, Long d) {
+    	this( valueOf(n.longValue(), d.longValue()) );
+    }
+
+    public Fraction(Integer whole)
+    {
+    	this( valueOf(whole.longValue(), 1L) );
+    }
+
+    public Fraction(Long whole)
+    {
+    	this( valueOf(whole.longValue(), 1L) );
+    }
+
+    public Fraction(BigInteger whole)
+    {
+    	this( whole, bigOne );
+    }
+
+    private static Fraction parse(String s) throws NumberFormatException {
     	Matcher m = parsePattern.matcher( s );
     	
     	System.out.println( "Whole string = '" + s + "'");
@@ -52,109 +132,213 @@ public class Fraction implements Comparable<Fraction> {
     	String denominatorStr = m.group("DENOMINATOR");
     	
     	BigInteger n = new BigInteger( numeratorStr );
-    	
-    	if (n.equals(bigZero)) {
-    		this.sign_val = 0;
-    		this.numerator = bigZero;
-    		this.denominator = bigOne;
-    		this.isWholeFlag = true;
+    	if ((signStr != null)  &&  (signStr.equals("~") || signStr.equals("-"))) {
+    		n = n.negate();
     	}
-    	else {
-    		if ((signStr != null)  &&  (signStr.equals("~") || signStr.equals("-"))) {
-        		this.sign_val = -1;
+
+    	BigInteger d = (denominatorStr == null) ? bigOne : new BigInteger( denominatorStr );
+    	return valueOf( n, d );
+    }
+
+    private static Fraction[][] buildCache() {
+    	int width = CACHE_MAX_NUMERATOR - CACHE_MIN_NUMERATOR + 1;
+    	Fraction[][] result = new Fraction[CACHE_MAX_DENOMINATOR][width];
+
+    	// Rows are filled in order of increasing denominator, so an unreduced n/d can always reuse
+    	// the instance already built for its reduced form.
+    	for (int d = 1; d <= CACHE_MAX_DENOMINATOR; ++d) {
+    		for (int n = CACHE_MIN_NUMERATOR; n <= CACHE_MAX_NUMERATOR; ++n) {
+    			int g = (int) gcd( Math.abs(n), d );
+    			if (g == 1) {
+    				result[d - 1][n - CACHE_MIN_NUMERATOR] = new Fraction( n, d, null, null );
+    			}
+    			else {
+    				result[d - 1][n - CACHE_MIN_NUMERATOR] = result[d / g - 1][n / g - CACHE_MIN_NUMERATOR];
+    			}
     		}
-    		else {
-        		this.sign_val = 1;
+    	}
+
+    	return result;
+    }
+
+    private static boolean isCacheable(long n, long d) {
+    	return (n >= CACHE_MIN_NUMERATOR) && (n <= CACHE_MAX_NUMERATOR) && (d >= 1) && (d <= CACHE_MAX_DENOMINATOR);
+    }
+
+    /**
+     * @return The reduced Fraction n/d.  Small values are returned as shared canonical instances, so
+     * prefer this to the constructors wherever object identity doesn't matter.
+     */
+    public static Fraction valueOf(long n, long d) {
+    	if (d == 0) {
+            throw new IllegalArgumentException("Argument 'd' is 0");
+    	}
+
+    	if (n == 0) {
+    		return ZERO;
+    	}
+
+    	// Negating Long.MIN_VALUE overflows, so leave those rare cases to BigInteger.
+    	if ((n == Long.MIN_VALUE) || (d == Long.MIN_VALUE)) {
+    		return valueOf( BigInteger.valueOf(n), BigInteger.valueOf(d) );
+    	}
+
+    	if (d < 0) {
+    		n = -n;
+    		d = -d;
+    	}
+
+    	if (isCacheable(n, d)) {
+    		return cache[(int) d - 1][(int) n - CACHE_MIN_NUMERATOR];
+    	}
+
+    	long g = gcd( Math.abs(n), d );
+    	return createReduced( n / g, d / g );
+    }
+
+    /**
+     * @return The Fraction whose value is exactly that of @c d.  Every finite double is a dyadic
+     * rational, m * 2^k, so no rounding is involved.
+     */
+    public static Fraction valueOf(double d) {
+    	if (Double.isNaN(d) || Double.isInfinite(d)) {
+            throw new IllegalArgumentException("Argument 'd' is not finite");
+    	}
+
+    	if (d == 0) {
+    		return ZERO;
+    	}
+
+    	long bits = Double.doubleToRawLongBits( d );
+    	long mantissa = bits & 0x000FFFFFFFFFFFFFL;
+    	int exponent = Math.getExponent( d );
+    	if (exponent < Double.MIN_EXPONENT) {
+    		// Subnormal: no implicit leading bit.
+    		exponent = Double.MIN_EXPONENT;
+    	}
+    	else {
+    		mantissa |= 0x0010000000000000L;
+    	}
+
+    	// |d| = mantissa * 2^shift.  Strip the mantissa's trailing zeros so the result is reduced.
+    	int shift = exponent - 52;
+    	int trailingZeros = Long.numberOfTrailingZeros( mantissa );
+    	mantissa >>= trailingZeros;
+    	shift += trailingZeros;
+
+    	if (d < 0) {
+    		mantissa = -mantissa;
+    	}
+
+    	if (shift < 0) {
+    		if (shift > -63) {
+    			return createReduced( mantissa, 1L << -shift );
     		}
-    		
-        	BigInteger d;
-        	if (denominatorStr == null) {
-        		if (this.sign_val == -1) {
-        			this.numerator = n.negate();
-        		}
-        		else {
-            		this.numerator = n;
-        		}
-        		
-        		this.denominator = bigOne;
-        		this.isWholeFlag = true;
-        	}
-        	else {
-        		d = new BigInteger( denominatorStr );    	
-
-    	        BigInteger g = n.gcd( d );
-    	        BigInteger tempNumerator = n.divide( g );
-    	        BigInteger tempDenominator = d.divide( g );
-
-        		this.denominator = tempDenominator;
-
-        		if (this.sign_val == -1) {
-            		this.numerator = tempNumerator.negate();   	        
-        		}
-        		else {
-            		this.numerator = tempNumerator;   	        
-        		}
-    	        
-        		this.isWholeFlag = tempDenominator.equals( bigOne );
-        	}
+    		return valueOf( BigInteger.valueOf( mantissa ), bigOne.shiftLeft( -shift ) );
+    	}
+
+    	if (64 - Long.numberOfLeadingZeros( Math.abs(mantissa) ) + shift < 63) {
+    		return createReduced( mantissa << shift, 1 );
     	}
+    	return valueOf( BigInteger.valueOf( mantissa ).shiftLeft( shift ), bigOne );
     }
-    
-    
-    public Fraction(BigInteger n, BigInteger d) {
-    	int nsign_val = n.compareTo( bigZero );
-    	int dsign_val = d.compareTo( bigZero );
-    	
-    	this.sign_val = nsign_val * dsign_val;
 
+    /**
+     * @return The reduced Fraction n/d, using the 'long' representation if the reduced value fits.
+     */
+    public static Fraction valueOf(BigInteger n, BigInteger d) {
+    	int dsign_val = d.signum();
     	if (dsign_val == 0) {
             throw new IllegalArgumentException("Argument 'd' is 0");
     	}
 
-    	if (nsign_val == 0) {
-    		this.numerator = bigZero;
-    		this.denominator = bigOne;
-    		this.isWholeFlag = true;
+    	if (n.signum() == 0) {
+    		return ZERO;
     	}
-    	else {
-	        BigInteger g = n.gcd( d );
-	        BigInteger tempNumerator = n.divide( g );
-	        BigInteger tempDenominator = d.divide( g );
-	        
-	        if (dsign_val == -1) {
-				numerator = tempNumerator.negate();
-				denominator = tempDenominator.negate();
-	        }
-	        else { // dsign_val == 1
-				numerator = tempNumerator;
-				denominator = tempDenominator;
-	        }
-	        
-	        isWholeFlag = denominator.equals(bigOne);
+
+        BigInteger g = n.gcd( d );
+        n = n.divide( g );
+        d = d.divide( g );
+
+        if (dsign_val == -1) {
+        	n = n.negate();
+        	d = d.negate();
+        }
+
+        if (fitsInLongForm(n) && fitsInLongForm(d)) {
+        	return createReduced( n.longValue(), d.longValue() );
+        }
+
+        return new Fraction( 0, 0, n, d );
+    }
+
+    /**
+     * @return The Fraction n/d, where the caller guarantees that n/d is already reduced and d > 0.
+     * Throws ArithmeticException if n can't be held in the 'long' representation, so that callers can
+     * fall back to BigInteger arithmetic.
+     */
+    private static Fraction createReduced(long n, long d) {
+    	if (n == 0) {
+    		return ZERO;
     	}
+
+    	if (isCacheable(n, d)) {
+    		return cache[(int) d - 1][(int) n - CACHE_MIN_NUMERATOR];
+    	}
+
+    	if (n == Long.MIN_VALUE) {
+    		throw new ArithmeticException( "long overflow" );
+    	}
+
+    	return new Fraction( n, d, null, null );
     }
-    
-    public Fraction(Integer n, Integer d) {
-    	this( BigInteger.valueOf(n), BigInteger.valueOf(d) );
+
+    private static boolean fitsInLongForm( BigInteger val ) {
+    	return (val.bitLength() < 64) && (val.longValue() != Long.MIN_VALUE);
     }
-    
-    public Fraction(Long n, Long d) {
-    	this( BigInteger.valueOf(n), BigInteger.valueOf(d) );
+
+    /**
+     * Binary (Stein's) GCD.  Both arguments must be non-negative.
+     */
+    static long gcd(long a, long b) {
+    	if (a == 0) {
+    		return b;
+    	}
+    	if (b == 0) {
+    		return a;
+    	}
+
+    	int shift = Long.numberOfTrailingZeros( a | b );
+    	a >>= Long.numberOfTrailingZeros( a );
+    	do {
+    		b >>= Long.numberOfTrailingZeros( b );
+    		if (a > b) {
+    			long t = a;
+    			a = b;
+    			b = t;
+    		}
+    		b -= a;
+    	} while (b != 0);
+
+    	return a << shift;
     }
 
-    public Fraction(Integer whole)
-    {
-    	this( BigInteger.valueOf( whole ) );
+    boolean isLongForm() {
+    	return this.bigNum == null;
     }
 
-    public Fraction(Long whole)
-    {
-    	this( BigInteger.valueOf( whole ) );
+    /**
+     * @return This Fraction's numerator, in lowest terms.  Its sign is the sign of the Fraction.
+     */
+    BigInteger numerator() {
+    	return isLongForm() ? BigInteger.valueOf( num ) : bigNum;
     }
 
-    public Fraction(BigInteger whole)
-    {
-    	this( whole, bigOne );
+    /**
+     * @return This Fraction's denominator, in lowest terms.  It is always positive.
+     */
+    BigInteger denominator() {
+    	return isLongForm() ? BigInteger.valueOf( den ) : bigDen;
     }
 
     public String toString() {
@@ -175,11 +359,16 @@ public class Fraction implements Comparable<Fraction> {
     		result.append(' ');
     	}
 
-    	result.append( numerator.abs().toString() );
+    	if (isLongForm()) {
+    		result.append( Math.abs(num) );
+    	}
+    	else {
+    		result.append( bigNum.abs().toString() );
+    	}
     	
     	if (! isWholeFlag) {
     		result.append( '/' );
-    		result.append( denominator.toString() );
+    		result.append( isLongForm() ? Long.toString(den) : bigDen.toString() );
     	}
 
         return result.toString();
@@ -189,8 +378,18 @@ public class Fraction implements Comparable<Fraction> {
     	return this.isWholeFlag;
     }
 
+    /**
+     * @return True if intValue() would succeed, i.e. this is a whole number strictly inside the range of an int.
+     */
+    boolean isIntValue() {
+    	return isWholeFlag && isLongForm() && (num > Integer.MIN_VALUE) && (num < Integer.MAX_VALUE);
+    }
+
     public BigInteger wholePart() {
-        return numerator.divide( denominator );
+    	if (isLongForm()) {
+    		return BigInteger.valueOf( num / den );
+    	}
+        return bigNum.divide( bigDen );
     }
     
     private static boolean canBeInt( BigInteger val ) {
@@ -222,11 +421,11 @@ public class Fraction implements Comparable<Fraction> {
     		throw new ArithmeticException( "Can't cast a non-whole Fraction to a scalar type." );
     	}
 
-    	if (! canBeInt(numerator)) {
+    	if (isLongForm() ? ((num <= Integer.MIN_VALUE) || (num >= Integer.MAX_VALUE)) : (! canBeInt(bigNum))) {
     		throw new ArithmeticException( "Fraction's value lies outside the range supported by 'int'" );
     	}
     	
-    	return numerator.intValue();
+    	return (int) num;
     }
     
     /**
@@ -238,11 +437,11 @@ public class Fraction implements Comparable<Fraction> {
     		throw new ArithmeticException( "Can't cast a non-whole Fraction to a scalar type." );
     	}
 
-    	if (! canBeLong(numerator)) {
+    	if (isLongForm() ? (num == Long.MAX_VALUE) : (! canBeLong(bigNum))) {
     		throw new ArithmeticException( "Fraction's value lies outside the range supported by 'long'" );
     	}
     	
-    	return numerator.longValue();
+    	return num;
     }
     
     /**
@@ -273,9 +472,79 @@ public class Fraction implements Comparable<Fraction> {
     	return ratio.doubleValue();
     }
     
+    /**
+     * @return The double closest to this Fraction's value (ties round to even), or an infinity if
+     * it lies outside the range of 'double'.  The value is computed once and cached.
+     */
+    public double doubleValue() {
+    	double result = doubleValueCache;
+    	if (Double.isNaN( result )) {
+    		result = isLongForm() ? toDouble( num, den ) : toDouble( bigNum, bigDen );
+    		doubleValueCache = result;
+    	}
+    	return result;
+    }
+
+    private static final long EXACT_DOUBLE_LIMIT = 1L << 53;
+
+    private static double toDouble( long n, long d ) {
+    	// Every long of magnitude up to 2^53 is exactly representable, and IEEE division is
+    	// correctly rounded, so for the common case a single division is exact.
+    	if ((Math.abs(n) <= EXACT_DOUBLE_LIMIT) && (d <= EXACT_DOUBLE_LIMIT)) {
+    		return (double) n / (double) d;
+    	}
+    	return toDouble( BigInteger.valueOf(n), BigInteger.valueOf(d) );
+    }
+
+    /**
+     * Correctly rounds n/d (with d > 0) to a double, using only integer arithmetic.
+     */
+    private static double toDouble( BigInteger n, BigInteger d ) {
+    	if (n.signum() == 0) {
+    		return 0.0;
+    	}
+
+    	BigInteger a = n.abs();
+    	double sign = n.signum();
+
+    	// a/d lies in [2^(e-1), 2^(e+1)).
+    	int e = a.bitLength() - d.bitLength();
+
+    	if (e <= Double.MIN_EXPONENT) {
+    		// The result is below 2^-1021, where doubles are spaced 2^-1074 apart (subnormal or the
+    		// bottom binade of normals).  So find a/d in units of 2^-1074 and round that to an
+    		// integer, half to even.  It's at most 2^53, so the final scaling is exact.
+    		BigInteger[] qr = a.shiftLeft( -Double.MIN_EXPONENT + 52 ).divideAndRemainder( d );
+    		long q = qr[0].longValue();
+    		int c = qr[1].shiftLeft( 1 ).compareTo( d );
+    		if ((c > 0) || ((c == 0) && ((q & 1) != 0))) {
+    			++q;
+    		}
+    		return sign * (q * Double.MIN_VALUE);
+    	}
+
+    	// Scale a/d to a 60- or 61-bit integer quotient q.  Ignoring the remainder would truncate,
+    	// so fold a nonzero remainder into q's lowest bit as a "sticky" bit; that bit lies well below
+    	// the rounding position, so converting q to double then rounds exactly as a/d would.
+    	// The result is normal, so the final scalb() is exact (or overflows to infinity, correctly).
+    	int shift = 60 - e;
+    	BigInteger[] qr = (shift >= 0)
+    			? a.shiftLeft( shift ).divideAndRemainder( d )
+    			: a.divideAndRemainder( d.shiftLeft( -shift ) );
+    	long q = qr[0].longValue();
+    	if (qr[1].signum() != 0) {
+    		q |= 1;
+    	}
+    	return sign * Math.scalb( (double) q, -shift );
+    }
+
     public BigDecimal bigDecimalValue( MathContext mc ) {
-    	BigDecimal bdNum   = new BigDecimal( this.numerator,   0, mc );
-    	BigDecimal bdDenom = new BigDecimal( this.denominator, 0, mc );
+    	if (isLongForm()) {
+    		return new BigDecimal( num, mc ).divide( new BigDecimal( den, mc ), mc );
+    	}
+
+    	BigDecimal bdNum   = new BigDecimal( this.bigNum, 0, mc );
+    	BigDecimal bdDenom = new BigDecimal( this.bigDen, 0, mc );
     	
     	return bdNum.divide( bdDenom, mc );
     }
@@ -305,41 +574,138 @@ public class Fraction implements Comparable<Fraction> {
     	// Both of these new fractions will have a denominator of '1', meaning we can get our final 
     	// answer by simply comparing the new fractions' numerators.  Thus we avoid a potentially 
     	// slow and error-introducing floating-point conversion...
-    	BigInteger a = this.numerator.multiply( f   .denominator );
-    	BigInteger b = f   .numerator.multiply( this.denominator );
+    	if (this.isLongForm() && f.isLongForm()) {
+    		if (this.den == f.den) {
+    			return Long.compare( this.num, f.num );
+    		}
+
+    		try {
+    			return Long.compare( Math.multiplyExact( this.num, f.den ), Math.multiplyExact( f.num, this.den ) );
+    		}
+    		catch (ArithmeticException e) {
+    			// The cross products overflowed; fall through to BigInteger.
+    		}
+    	}
+
+    	BigInteger a = this.numerator().multiply( f   .denominator() );
+    	BigInteger b = f   .numerator().multiply( this.denominator() );
     	return a.compareTo( b );
     }
 
     public Fraction add(Fraction f) {
-    	BigInteger n = this.numerator.multiply( f   .denominator ).add(
-    			       f   .numerator.multiply( this.denominator ));
+    	if (this.isLongForm() && f.isLongForm()) {
+    		try {
+    			return sum( this.num, this.den, f.num, f.den );
+    		}
+    		catch (ArithmeticException e) {
+    			// Overflow; fall through to BigInteger.
+    		}
+    	}
+
+    	BigInteger n = this.numerator().multiply( f   .denominator() ).add(
+    			       f   .numerator().multiply( this.denominator() ));
     	
-    	BigInteger d = this.denominator.multiply( f.denominator );
+    	BigInteger d = this.denominator().multiply( f.denominator() );
     	
-        return new Fraction(n, d);
+        return valueOf(n, d);
     }
 
     public Fraction subtract(Fraction f) {
-    	BigInteger n = this.numerator.multiply( f   .denominator ).subtract(
-			           f   .numerator.multiply( this.denominator ));
+    	// Negating f.num can't overflow, because the 'long' form never holds Long.MIN_VALUE.
+    	if (this.isLongForm() && f.isLongForm()) {
+    		try {
+    			return sum( this.num, this.den, -f.num, f.den );
+    		}
+    		catch (ArithmeticException e) {
+    			// Overflow; fall through to BigInteger.
+    		}
+    	}
+
+    	BigInteger n = this.numerator().multiply( f   .denominator() ).subtract(
+			           f   .numerator().multiply( this.denominator() ));
 	
-    	BigInteger d = this.denominator.multiply( f.denominator );
+    	BigInteger d = this.denominator().multiply( f.denominator() );
 	
-    	return new Fraction(n, d);
+    	return valueOf(n, d);
+    }
+
+    /**
+     * @return a/b + c/d, where both inputs are reduced and b, d > 0.  Throws ArithmeticException on
+     * overflow.
+     *
+     * This follows Knuth (TAOCP vol. 2, 4.5.1): dividing out gcd(b, d) up front keeps the intermediate
+     * products small, and leaves only a cheap second GCD against that common factor.
+     */
+    private static Fraction sum(long a, long b, long c, long d) {
+    	long g = gcd( b, d );
+    	if (g == 1) {
+    		long n = Math.addExact( Math.multiplyExact( a, d ), Math.multiplyExact( c, b ) );
+    		return createReduced( n, Math.multiplyExact( b, d ) );
+    	}
+
+    	long t = Math.addExact( Math.multiplyExact( a, d / g ), Math.multiplyExact( c, b / g ) );
+    	if (t == Long.MIN_VALUE) {
+    		throw new ArithmeticException( "long overflow" );
+    	}
+
+    	long g2 = gcd( Math.abs(t), g );
+    	return createReduced( t / g2, Math.multiplyExact( b / g, d / g2 ) );
+    }
+
+    /**
+     * @return (a/b) * (c/d), where both inputs are reduced and b, d > 0.  Throws ArithmeticException
+     * on overflow.  Cross-cancelling first means the result needs no further reduction.
+     */
+    private static Fraction product(long a, long b, long c, long d) {
+    	if ((a == 0) || (c == 0)) {
+    		return ZERO;
+    	}
+
+    	long g1 = gcd( Math.abs(a), d );
+    	long g2 = gcd( Math.abs(c), b );
+    	return createReduced( Math.multiplyExact( a / g1, c / g2 ), Math.multiplyExact( b / g2, d / g1 ) );
     }
 
     public Fraction multiply(Fraction f) {
-        return new Fraction(this.numerator  .multiply( f.numerator ), 
-        					this.denominator.multiply( f.denominator) );
+    	if (this.isLongForm() && f.isLongForm()) {
+    		try {
+    			return product( this.num, this.den, f.num, f.den );
+    		}
+    		catch (ArithmeticException e) {
+    			// Overflow; fall through to BigInteger.
+    		}
+    	}
+
+        return valueOf(this.numerator()  .multiply( f.numerator() ), 
+        			  this.denominator().multiply( f.denominator()) );
     }
 
     public Fraction divide(Fraction f) {
-        return new Fraction(this.numerator  .multiply( f.denominator ), 
-        					this.denominator.multiply( f.numerator) );
+    	if (f.sign_val == 0) {
+            throw new IllegalArgumentException("Argument 'd' is 0");
+    	}
+
+    	if (this.isLongForm() && f.isLongForm()) {
+    		// Multiply by f's reciprocal, keeping the denominator positive.
+    		long fNum = (f.num < 0) ? -f.den : f.den;
+    		long fDen = Math.abs( f.num );
+    		try {
+    			return product( this.num, this.den, fNum, fDen );
+    		}
+    		catch (ArithmeticException e) {
+    			// Overflow; fall through to BigInteger.
+    		}
+    	}
+
+        return valueOf(this.numerator()  .multiply( f.denominator() ), 
+        			  this.denominator().multiply( f.numerator()) );
     }
 
     public Fraction negate() {
-        return new Fraction(this.numerator.negate(), this.denominator );
+    	if (isLongForm()) {
+    		return createReduced( -num, den );
+    	}
+        return valueOf( bigNum.negate(), bigDen );
     }
 
     public Fraction invert() {
@@ -347,7 +713,10 @@ public class Fraction implements Comparable<Fraction> {
     		throw new ArithmeticException( "Cannot invert a zero-value Fraction." );
     	}
     	
-        return new Fraction(this.denominator, this.numerator );
+    	if (isLongForm()) {
+    		return (num < 0) ? createReduced( -den, -num ) : createReduced( den, num );
+    	}
+        return valueOf( bigDen, bigNum );
     }
     
     public int sign() {
@@ -372,15 +741,19 @@ public class Fraction implements Comparable<Fraction> {
      * For example, Fraction(11, 5) --> 2.  Fraction (-11, 5) --> -3. 
      */
     BigInteger floor() {
+    	if (isLongForm()) {
+    		return BigInteger.valueOf( Math.floorDiv(num, den) );
+    	}
+
     	if (this.isWholeFlag) {
-    		return numerator;
+    		return bigNum;
     	}
     	else {
     		if (this.sign_val == 1) {
-    			return numerator.divide(denominator);
+    			return bigNum.divide(bigDen);
     		}
     		else { // this.sign_val == -1
-    			return numerator.divide(denominator).subtract(bigOne);
+    			return bigNum.divide(bigDen).subtract(bigOne);
     		}
     	}
     }
@@ -390,15 +763,19 @@ public class Fraction implements Comparable<Fraction> {
      * For example, Fraction(11, 5) --> 3.  Fraction (-11, 5) --> -2. 
      */
     BigInteger ceil() {
+    	if (isLongForm()) {
+    		return BigInteger.valueOf( -Math.floorDiv(-num, den) );
+    	}
+
     	if (this.isWholeFlag) {
-    		return numerator;
+    		return bigNum;
     	}
     	else {
     		if (this.sign_val == 1) {
-    			return numerator.divide(denominator).add(bigOne);
+    			return bigNum.divide(bigDen).add(bigOne);
     		}
     		else { // this.sign_val == -1
-    			return numerator.divide(denominator);
+    			return bigNum.divide(bigDen);
     		}
     	}
     }
@@ -409,15 +786,27 @@ public class Fraction implements Comparable<Fraction> {
      */
     BigInteger round() {
     	if (this.isWholeFlag) {
-    		return numerator;
+    		return numerator();
     	}
     	
-    	BigInteger[] results = numerator.divideAndRemainder( denominator );
+    	if (isLongForm()) {
+    		long quotient  = num / den;
+    		long remainder = num % den;
+
+    		// (den - |remainder|) can't overflow, unlike 2 * |remainder|.
+    		boolean roundAwayFromZero = (Math.abs(remainder) >= den - Math.abs(remainder));
+    		if (roundAwayFromZero) {
+    			quotient += this.sign_val;
+    		}
+    		return BigInteger.valueOf( quotient );
+    	}
+
+    	BigInteger[] results = bigNum.divideAndRemainder( bigDen );
     	BigInteger quotient  = results[0];
     	BigInteger remainder = results[1];
 
     	// This is an integer version of checking if (abs(remainder) / denominator) >= 0.5.
-    	boolean roundAwayFromZero = (remainder.abs().multiply( bigTwo ).compareTo( denominator ) >= 0);
+    	boolean roundAwayFromZero = (remainder.abs().multiply( bigTwo ).compareTo( bigDen ) >= 0);
     	
     	if (this.sign_val == -1) {
     		if (roundAwayFromZero) {
@@ -452,6 +841,7 @@ public class Fraction implements Comparable<Fraction> {
      */
     @Override
     public boolean equals(Object o) {
+    	// Small values are canonical (see valueOf), so this catches most equal Fractions.
     	if (this == o) {
     		return true;
     	}
@@ -462,17 +852,17 @@ public class Fraction implements Comparable<Fraction> {
         		return false;
         	}
         	    	
-        	// Every mathematically distinct fraction maps to a unique (numerator, denominator) pair,
-        	// thanks to this class's constructors...
-        	if (this.isWholeFlag && f.isWholeFlag) {
-        		return this.numerator.equals( f.numerator  );
-        	}
-        	else if (this.isWholeFlag ^ f.isWholeFlag) {
+        	// Every mathematically distinct fraction maps to a unique representation, thanks to this
+        	// class's constructors...
+        	if (this.isLongForm() != f.isLongForm()) {
         		return false;
         	}
+        	else if (this.isLongForm()) {
+        		return (this.num == f.num) && (this.den == f.den);
+        	}
         	else {
-        		return this.numerator  .equals(f.numerator  ) && 
-          			   this.denominator.equals(f.denominator);
+        		return this.bigNum.equals(f.bigNum) && 
+          			   this.bigDen.equals(f.bigDen);
         	}
     	}
     	else if (o instanceof Integer) {
@@ -480,24 +870,16 @@ public class Fraction implements Comparable<Fraction> {
     			return false;
     		}
     		
-    		if ((numerator.compareTo(bigMinInt) == -1) || (numerator.compareTo(bigMaxInt) == 1)) {
-    			return false;
-    		}
-    		
     		Integer i = (Integer) o;
-    	   	return numerator.intValue() == i.intValue();
+    	   	return isLongForm() && (num == i.intValue());
     	}
     	else if (o instanceof Long) {
     		if (! this.isWholeFlag) {
     			return false;
     		}
     		
-    		if ((numerator.compareTo(bigMinLong) == -1) || (numerator.compareTo(bigMaxLong) == 1)) {
-    			return false;
-    		}
-    		
     		Long l = (Long) o;
-    	   	return numerator.longValue() == l.longValue();
+    	   	return isLongForm() && (num == l.longValue());
     	}    	
     	else if (o instanceof BigInteger) {
     		if (! this.isWholeFlag) {
@@ -505,7 +887,7 @@ public class Fraction implements Comparable<Fraction> {
     		}
     		
     		BigInteger bi = (BigInteger) o;
-    	   	return numerator.equals( bi );
+    	   	return numerator().equals( bi );
     	}
     	
     	return false;
@@ -513,11 +895,14 @@ public class Fraction implements Comparable<Fraction> {
 
     @Override
     public int hashCode() {
-    	// Every mathematically distinct Fraction maps to a unique (numerator, denominator) pair,
-    	// thanks to this class's constructors.  So there are no concerns about equivalent Fractions
-    	// getting distinct hashcodes using the following formula.
+    	// Every mathematically distinct Fraction maps to a unique representation, thanks to this
+    	// class's constructors.  So there are no concerns about equivalent Fractions getting
+    	// distinct hashcodes using the following formula.
     	//
     	// NOTE: This hashing algorithm is not carefully tuned.
-    	return numerator.hashCode() + denominator.hashCode();
+    	if (isLongForm()) {
+    		return 31 * Long.hashCode( num ) + Long.hashCode( den );
+    	}
+    	return 31 * bigNum.hashCode() + bigDen.hashCode();
     }
 }
\ No newline at end of file
@@ -132,22 +132,22 @@ public class FractionTest {
 
         String BAD_SIMPLIFY_MSG = "Fraction simplified incorrectly.";
 
-        Assert.assertEquals(BAD_SIMPLIFY_MSG, zero.numerator, BigInteger.valueOf(0));
+        Assert.assertEquals(BAD_SIMPLIFY_MSG, zero.numerator(), BigInteger.valueOf(0));
 
-        Assert.assertEquals(BAD_SIMPLIFY_MSG, oneThird.numerator, BigInteger.valueOf(1));
-        Assert.assertEquals(BAD_SIMPLIFY_MSG, oneThird.denominator, BigInteger.valueOf(3));
+        Assert.assertEquals(BAD_SIMPLIFY_MSG, oneThird.numerator(), BigInteger.valueOf(1));
+        Assert.assertEquals(BAD_SIMPLIFY_MSG, oneThird.denominator(), BigInteger.valueOf(3));
 
-        Assert.assertEquals(BAD_SIMPLIFY_MSG, seven.numerator, BigInteger.valueOf(7));
-        Assert.assertEquals(BAD_SIMPLIFY_MSG, seven.denominator, BigInteger.valueOf(1));
+        Assert.assertEquals(BAD_SIMPLIFY_MSG, seven.numerator(), BigInteger.valueOf(7));
+        Assert.assertEquals(BAD_SIMPLIFY_MSG, seven.denominator(), BigInteger.valueOf(1));
 
-        Assert.assertEquals(BAD_SIMPLIFY_MSG, minusfourth.numerator, BigInteger.valueOf(-1));
-        Assert.assertEquals(BAD_SIMPLIFY_MSG, minusfourth.denominator, BigInteger.valueOf(4));
+        Assert.assertEquals(BAD_SIMPLIFY_MSG, minusfourth.numerator(), BigInteger.valueOf(-1));
+        Assert.assertEquals(BAD_SIMPLIFY_MSG, minusfourth.denominator(), BigInteger.valueOf(4));
 
-        Assert.assertEquals(BAD_SIMPLIFY_MSG, same.numerator, BigInteger.valueOf(-11));
-        Assert.assertEquals(BAD_SIMPLIFY_MSG, same.denominator, BigInteger.valueOf(12));
+        Assert.assertEquals(BAD_SIMPLIFY_MSG, same.numerator(), BigInteger.valueOf(-11));
+        Assert.assertEquals(BAD_SIMPLIFY_MSG, same.denominator(), BigInteger.valueOf(12));
 
-        Assert.assertEquals(BAD_SIMPLIFY_MSG, minusminus.numerator, BigInteger.valueOf(4));
-        Assert.assertEquals(BAD_SIMPLIFY_MSG, minusminus.denominator, BigInteger.valueOf(1));
+        Assert.assertEquals(BAD_SIMPLIFY_MSG, minusminus.numerator(), BigInteger.valueOf(4));
+        Assert.assertEquals(BAD_SIMPLIFY_MSG, minusminus.denominator(), BigInteger.valueOf(1));
     }
     
     @Test 
@@ -192,6 +192,142 @@ public class FractionTest {
     	f2.longValue();
     }
 
+    @Test
+    public void testOverflowPromotesToBigInteger() {
+    	Fraction max = new Fraction( Long.MAX_VALUE );
+    	Fraction min = new Fraction( Long.MIN_VALUE );
+
+    	BigInteger bigMax = BigInteger.valueOf( Long.MAX_VALUE );
+    	BigInteger bigMin = BigInteger.valueOf( Long.MIN_VALUE );
+
+    	Assert.assertEquals( max.add( max ).numerator(), bigMax.add( bigMax ) );
+    	Assert.assertEquals( min.subtract( max ).numerator(), bigMin.subtract( bigMax ) );
+    	Assert.assertEquals( max.multiply( max ).numerator(), bigMax.multiply( bigMax ) );
+    	Assert.assertEquals( min.negate().numerator(), bigMin.negate() );
+    	Assert.assertEquals( new Fraction( 1, 3 ).divide( max ).denominator(), bigMax.multiply( BigInteger.valueOf(3) ) );
+
+    	Fraction sum = new Fraction( Long.MAX_VALUE, Long.MAX_VALUE - 1 ).add( new Fraction( 1L, Long.MAX_VALUE ) );
+    	Assert.assertEquals( sum, new Fraction( bigMax.multiply( bigMax ).add( bigMax ).subtract( BigInteger.ONE ),
+    			                                bigMax.multiply( bigMax.subtract( BigInteger.ONE ) ) ) );
+    }
+
+    @Test
+    public void testResultsThatFitAgainAreEqualToSmallFractions() {
+    	Fraction max = new Fraction( Long.MAX_VALUE );
+    	Fraction twiceMax = max.multiply( new Fraction( 2 ) );
+
+    	Assert.assertEquals( twiceMax.divide( new Fraction( 2 ) ), max );
+    	Assert.assertEquals( twiceMax.subtract( max ), max );
+    	Assert.assertEquals( twiceMax.subtract( max ).hashCode(), max.hashCode() );
+    	Assert.assertEquals( new Fraction( Long.MIN_VALUE, Long.MIN_VALUE ), new Fraction( 1 ) );
+    	Assert.assertEquals( new Fraction( Long.MIN_VALUE ).negate().subtract( new Fraction( 1 ) ), max );
+    }
+
+    @Test
+    public void testValueOfReturnsCanonicalSmallFractions() {
+    	Assert.assertSame( Fraction.valueOf( 2, 6 ), Fraction.valueOf( 1, 3 ) );
+    	Assert.assertSame( Fraction.valueOf( -3, -9 ), Fraction.valueOf( 1, 3 ) );
+    	Assert.assertSame( Fraction.valueOf( 0, 17 ), Fraction.ZERO );
+    	Assert.assertSame( Fraction.valueOf( 0, 1000 ), Fraction.ZERO );
+    	Assert.assertSame( Fraction.valueOf( 7, 7 ), Fraction.ONE );
+    	Assert.assertSame( Fraction.valueOf( 5, -5 ), Fraction.MINUS_ONE );
+    	Assert.assertSame( oneThird.add( oneThird ), Fraction.valueOf( 2, 3 ) );
+    	Assert.assertSame( oneThird.multiply( new Fraction( 3 ) ), Fraction.ONE );
+
+    	Assert.assertEquals( Fraction.valueOf( 1000, 3000 ), oneThird );
+    	Assert.assertEquals( Fraction.valueOf( 1, 65 ), new Fraction( 1, 65 ) );
+    	Assert.assertEquals( new Fraction( 1, 3 ), Fraction.valueOf( 1, 3 ) );
+    }
+
+    @Test(expected= java.lang.IllegalArgumentException.class)
+    public void testValueOfZeroDenominator() {
+    	Fraction.valueOf( 1, 0 );
+    }
+
+    private static Fraction exactValueOf( double d ) {
+    	BigDecimal bd = new BigDecimal( d );
+    	if (bd.scale() > 0) {
+    		return new Fraction( bd.unscaledValue(), BigInteger.TEN.pow( bd.scale() ) );
+    	}
+    	return new Fraction( bd.toBigIntegerExact() );
+    }
+
+    /**
+     * Checks that f.doubleValue() is at least as close to f as both of its neighbouring doubles.
+     */
+    private static void assertCorrectlyRounded( Fraction f ) {
+    	double d = f.doubleValue();
+    	Fraction error = exactValueOf( d ).geometricAbs( f );
+    	Assert.assertTrue( f + " -> " + d, error.compareTo( exactValueOf( Math.nextUp( d ) ).geometricAbs( f ) ) <= 0 );
+    	Assert.assertTrue( f + " -> " + d, error.compareTo( exactValueOf( Math.nextDown( d ) ).geometricAbs( f ) ) <= 0 );
+    }
+
+    @Test
+    public void testDoubleValueIsCorrectlyRounded() {
+    	Assert.assertEquals( 0.0, Fraction.ZERO.doubleValue(), 0.0 );
+    	Assert.assertEquals( -0.5, new Fraction( -1, 2 ).doubleValue(), 0.0 );
+    	Assert.assertEquals( 1.0 / 3.0, oneThird.doubleValue(), 0.0 );
+
+    	java.util.Random random = new java.util.Random( 31337 );
+    	for (int i = 0; i < 2000; ++i) {
+    		BigInteger n = new BigInteger( 1 + random.nextInt( 200 ), random );
+    		BigInteger d = new BigInteger( 1 + random.nextInt( 200 ), random ).add( BigInteger.ONE );
+    		assertCorrectlyRounded( new Fraction( random.nextBoolean() ? n : n.negate(), d ) );
+    	}
+
+    	assertCorrectlyRounded( new Fraction( Long.MAX_VALUE - 1, 3L ) );
+    	assertCorrectlyRounded( new Fraction( 1L, Long.MAX_VALUE ) );
+    	assertCorrectlyRounded( new Fraction( (1L << 53) + 1, 1L ) );
+    }
+
+    @Test
+    public void testDoubleValueAtTheEdgesOfTheDoubleRange() {
+    	BigInteger twoTo1074 = BigInteger.ONE.shiftLeft( 1074 );
+
+    	Assert.assertEquals( Double.MIN_VALUE, new Fraction( BigInteger.ONE, twoTo1074 ).doubleValue(), 0.0 );
+    	Assert.assertEquals( 0.0, new Fraction( BigInteger.ONE, twoTo1074.shiftLeft( 1 ) ).doubleValue(), 0.0 );
+    	Assert.assertEquals( 2 * Double.MIN_VALUE, new Fraction( BigInteger.valueOf( 3 ), twoTo1074.shiftLeft( 1 ) ).doubleValue(), 0.0 );
+    	assertCorrectlyRounded( new Fraction( BigInteger.valueOf( 12345 ), twoTo1074.shiftLeft( 7 ).add( BigInteger.ONE ) ) );
+    	assertCorrectlyRounded( new Fraction( twoTo1074.subtract( BigInteger.ONE ), twoTo1074.shiftLeft( 1022 ) ) );
+
+    	Fraction max = exactValueOf( Double.MAX_VALUE );
+    	Assert.assertEquals( Double.MAX_VALUE, max.doubleValue(), 0.0 );
+    	Assert.assertEquals( Double.POSITIVE_INFINITY, max.multiply( new Fraction( 2 ) ).doubleValue(), 0.0 );
+    	Assert.assertEquals( Double.NEGATIVE_INFINITY, max.multiply( new Fraction( -2 ) ).doubleValue(), 0.0 );
+    }
+
+    @Test
+    public void testValueOfDoubleIsExact() {
+    	Assert.assertSame( Fraction.ZERO, Fraction.valueOf( 0.0 ) );
+    	Assert.assertSame( Fraction.ZERO, Fraction.valueOf( -0.0 ) );
+    	Assert.assertEquals( new Fraction( -3, 8 ), Fraction.valueOf( -0.375 ) );
+    	Assert.assertEquals( new Fraction( 1L << 60 ), Fraction.valueOf( Math.scalb( 1.0, 60 ) ) );
+    	Assert.assertEquals( new Fraction( BigInteger.ONE, BigInteger.ONE.shiftLeft( 1074 ) ), Fraction.valueOf( Double.MIN_VALUE ) );
+
+    	double[] values = { 0.1, -1.0 / 3.0, Math.PI, 1.0E300, -1.0E-300, Double.MAX_VALUE, Double.MIN_NORMAL, 3 * Double.MIN_VALUE };
+    	for (double d : values) {
+    		Assert.assertEquals( exactValueOf( d ), Fraction.valueOf( d ) );
+    		Assert.assertEquals( d, Fraction.valueOf( d ).doubleValue(), 0.0 );
+    	}
+    }
+
+    @Test(expected= java.lang.IllegalArgumentException.class)
+    public void testValueOfNaN() {
+    	Fraction.valueOf( Double.NaN );
+    }
+
+    @Test
+    public void testCompareToAcrossRepresentations() {
+    	Fraction max = new Fraction( Long.MAX_VALUE );
+    	Fraction almostOne = new Fraction( Long.MAX_VALUE - 1, Long.MAX_VALUE );
+    	Fraction slightlyLess = new Fraction( Long.MAX_VALUE - 2, Long.MAX_VALUE - 1 );
+
+    	Assert.assertEquals( slightlyLess.compareTo( almostOne ), -1 );
+    	Assert.assertEquals( almostOne.compareTo( slightlyLess ), 1 );
+    	Assert.assertEquals( max.add( max ).compareTo( max ), 1 );
+    	Assert.assertEquals( max.negate().subtract( max ).compareTo( max.negate() ), -1 );
+    }
+
     @Test
     public void testDivide() {
     	Fraction f1 = new Fraction(2, 3);
@@ -0,0 +1,648 @@
+package com.swtanalytics.math;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable polynomial with integer coefficients, stored densely in ascending order of degree.
+ * This is the exact arithmetic behind the root isolation code: derivatives, pseudo-remainders,
+ * GCDs and signs at rational points, all without rounding.
+ */
+final class IntegerPolynomial {
+    // Bisection alone needs about 2100 steps to narrow the widest double interval to a single ulp.
+    private static final int MAX_REFINEMENT_ITERATIONS = 2200;
+
+    // Newton's method in BigDecimal starts at about a double's precision, works with a few more digits
+    // than the result needs, and hands over to bisection for roots that move further than this,
+    // relative to their size, from the double estimate.
+    private static final int DOUBLE_DIGITS = 17;
+    private static final int POLISHING_GUARD_DIGITS = 5;
+    private static final int MAX_POLISHING_STEPS = 64;
+    private static final double MAX_POLISHING_DRIFT = 1.0E-6;
+
+    static final IntegerPolynomial ZERO = new IntegerPolynomial(new BigInteger[0]);
+
+    // coefficients[i] is the coefficient of x^i.  The last element is non-zero; the zero polynomial
+    // has no elements.
+    private final BigInteger[] coefficients;
+
+    private IntegerPolynomial(BigInteger[] coefficients) {
+        this.coefficients = coefficients;
+    }
+
+    /**
+     * @return The polynomial whose coefficient of x^i is ascending[i].
+     */
+    static IntegerPolynomial of(BigInteger... ascending) {
+        return trimmed(ascending.clone());
+    }
+
+    static IntegerPolynomial of(long... ascending) {
+        BigInteger[] coefficients = new BigInteger[ascending.length];
+        for (int i = 0; i < ascending.length; ++i) {
+            coefficients[i] = BigInteger.valueOf(ascending[i]);
+        }
+        return trimmed(coefficients);
+    }
+
+    /**
+     * Takes ownership of @c coefficients, dropping any zero leading coefficients.
+     */
+    private static IntegerPolynomial trimmed(BigInteger[] coefficients) {
+        int length = coefficients.length;
+        while (length > 0 && coefficients[length - 1].signum() == 0) {
+            --length;
+        }
+        if (length == 0) {
+            return ZERO;
+        }
+        return new IntegerPolynomial(length == coefficients.length ? coefficients : Arrays.copyOf(coefficients, length));
+    }
+
+    /**
+     * @return The degree, or -1 for the zero polynomial.
+     */
+    int degree() {
+        return coefficients.length - 1;
+    }
+
+    boolean isZero() {
+        return coefficients.length == 0;
+    }
+
+    /**
+     * @return The bit length of the largest coefficient, as BigInteger.bitLength() counts it.
+     */
+    int coefficientBitLength() {
+        int maxBits = 0;
+        for (BigInteger c : coefficients) {
+            maxBits = Math.max(maxBits, c.bitLength());
+        }
+        return maxBits;
+    }
+
+    /**
+     * @return The coefficient of x^i, which is zero if @c i exceeds the degree.
+     */
+    BigInteger coefficient(int i) {
+        return i < coefficients.length ? coefficients[i] : BigInteger.ZERO;
+    }
+
+    BigInteger leadingCoefficient() {
+        return isZero() ? BigInteger.ZERO : coefficients[coefficients.length - 1];
+    }
+
+    IntegerPolynomial negate() {
+        BigInteger[] result = new BigInteger[coefficients.length];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = coefficients[i].negate();
+        }
+        return new IntegerPolynomial(result);
+    }
+
+    IntegerPolynomial derivative() {
+        if (coefficients.length <= 1) {
+            return ZERO;
+        }
+        BigInteger[] result = new BigInteger[coefficients.length - 1];
+        for (int i = 1; i < coefficients.length; ++i) {
+            result[i - 1] = coefficients[i].multiply(BigInteger.valueOf(i));
+        }
+        return trimmed(result);
+    }
+
+    /**
+     * @return The (non-negative) GCD of the coefficients.
+     */
+    BigInteger content() {
+        BigInteger content = BigInteger.ZERO;
+        for (BigInteger c : coefficients) {
+            content = content.gcd(c);
+            if (content.equals(BigInteger.ONE)) {
+                break;
+            }
+        }
+        return content;
+    }
+
+    /**
+     * @return This polynomial divided by its content.  The sign of every coefficient is unchanged.
+     */
+    IntegerPolynomial primitivePart() {
+        BigInteger content = content();
+        if (content.signum() == 0 || content.equals(BigInteger.ONE)) {
+            return this;
+        }
+        BigInteger[] result = new BigInteger[coefficients.length];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = coefficients[i].divide(content);
+        }
+        return new IntegerPolynomial(result);
+    }
+
+    /**
+     * @return The remainder of lc(divisor)^(deg(this) - deg(divisor) + 1) * this, divided by
+     * @c divisor.  The scale factor makes the division exact over the integers.
+     */
+    IntegerPolynomial pseudoRemainder(IntegerPolynomial divisor) {
+        if (divisor.isZero()) {
+            throw new ArithmeticException("Division by the zero polynomial.");
+        }
+        int divisorDegree = divisor.degree();
+        if (degree() < divisorDegree) {
+            return this;
+        }
+
+        BigInteger lead = divisor.leadingCoefficient();
+        BigInteger[] remainder = coefficients.clone();
+        for (int k = degree(); k >= divisorDegree; --k) {
+            BigInteger top = remainder[k];
+            int shift = k - divisorDegree;
+            for (int i = 0; i < k; ++i) {
+                remainder[i] = remainder[i].multiply(lead);
+            }
+            remainder[k] = BigInteger.ZERO;
+            if (top.signum() != 0) {
+                for (int j = 0; j < divisorDegree; ++j) {
+                    remainder[shift + j] = remainder[shift + j].subtract(top.multiply(divisor.coefficients[j]));
+                }
+            }
+        }
+        return trimmed(Arrays.copyOf(remainder, divisorDegree));
+    }
+
+    /**
+     * @return The quotient of this polynomial and @c divisor.
+     * @throws ArithmeticException If @c divisor doesn't divide this polynomial exactly over the integers.
+     */
+    IntegerPolynomial divideExactly(IntegerPolynomial divisor) {
+        if (divisor.isZero()) {
+            throw new ArithmeticException("Division by the zero polynomial.");
+        }
+        int divisorDegree = divisor.degree();
+        if (isZero()) {
+            return ZERO;
+        }
+        if (degree() < divisorDegree) {
+            throw new ArithmeticException("The division is not exact.");
+        }
+
+        BigInteger lead = divisor.leadingCoefficient();
+        BigInteger[] remainder = coefficients.clone();
+        BigInteger[] quotient = new BigInteger[degree() - divisorDegree + 1];
+        for (int k = degree(); k >= divisorDegree; --k) {
+            BigInteger[] qr = remainder[k].divideAndRemainder(lead);
+            if (qr[1].signum() != 0) {
+                throw new ArithmeticException("The division is not exact.");
+            }
+            BigInteger q = qr[0];
+            int shift = k - divisorDegree;
+            quotient[shift] = q;
+            if (q.signum() != 0) {
+                for (int j = 0; j <= divisorDegree; ++j) {
+                    remainder[shift + j] = remainder[shift + j].subtract(q.multiply(divisor.coefficients[j]));
+                }
+            }
+        }
+        for (int i = 0; i < divisorDegree; ++i) {
+            if (remainder[i].signum() != 0) {
+                throw new ArithmeticException("The division is not exact.");
+            }
+        }
+        return trimmed(quotient);
+    }
+
+    /**
+     * @return The quotient of this polynomial and (s x - r) by synthetic division, or null if that
+     * doesn't divide it exactly, which (with r and s coprime and s positive) is exactly when r/s
+     * isn't a root.
+     */
+    IntegerPolynomial deflate(BigInteger r, BigInteger s) {
+        int n = degree();
+        if (n <= 0) {
+            return null;
+        }
+
+        // With this = (s x - r) * sum b_k x^k:  a_n = s b_(n-1), a_k = s b_(k-1) - r b_k, a_0 = -r b_0
+        BigInteger[] quotient = new BigInteger[n];
+        BigInteger carry = coefficients[n];
+        for (int k = n; k >= 1; --k) {
+            BigInteger[] qr = carry.divideAndRemainder(s);
+            if (qr[1].signum() != 0) {
+                return null;
+            }
+            quotient[k - 1] = qr[0];
+            carry = coefficients[k - 1].add(r.multiply(qr[0]));
+        }
+        return (carry.signum() == 0) ? new IntegerPolynomial(quotient) : null;
+    }
+
+    /**
+     * @return The greatest common divisor of this polynomial and @c other, as a primitive polynomial
+     * with a positive leading coefficient.  The GCD of two zero polynomials is zero.
+     */
+    IntegerPolynomial gcd(IntegerPolynomial other) {
+        IntegerPolynomial a = this.primitivePart();
+        IntegerPolynomial b = other.primitivePart();
+        if (a.degree() < b.degree()) {
+            IntegerPolynomial t = a;
+            a = b;
+            b = t;
+        }
+        // Primitive polynomial remainder sequence: dividing out the content at every step keeps the
+        // coefficients from growing exponentially, and changes nothing but a constant factor.
+        while (!b.isZero()) {
+            IntegerPolynomial r = a.pseudoRemainder(b).primitivePart();
+            a = b;
+            b = r;
+        }
+        return a.leadingCoefficient().signum() < 0 ? a.negate() : a;
+    }
+
+    /**
+     * @return The product of the distinct irreducible factors of this polynomial: it has the same
+     * roots, but every one of them simple.  The result is primitive, with the sign of this
+     * polynomial's leading coefficient.
+     */
+    IntegerPolynomial squareFreePart() {
+        if (degree() <= 0) {
+            return primitivePart();
+        }
+        IntegerPolynomial p = primitivePart();
+        IntegerPolynomial g = p.gcd(p.derivative());
+        return g.degree() == 0 ? p : p.divideExactly(g).primitivePart();
+    }
+
+    /**
+     * @return Yun's square-free decomposition: factors a_1, a_2, ..., a_m, pairwise coprime and each
+     * square-free, such that this polynomial is a constant times a_1 a_2^2 ... a_m^m.  So the roots
+     * of a_i are exactly the roots of multiplicity i.  Factors with no roots are constants.
+     */
+    List<IntegerPolynomial> squareFreeDecomposition() {
+        List<IntegerPolynomial> factors = new ArrayList<IntegerPolynomial>();
+        if (degree() <= 0) {
+            return factors;
+        }
+
+        // With g = gcd(p, p'), b = p / g and c = p' / g:  each step, a = gcd(b, c - b') is the
+        // product of the factors of the current multiplicity, and b / a and (c - b') / a are the b and
+        // c for the next.  Dividing b and c by the same polynomial keeps them consistently scaled.
+        IntegerPolynomial p = primitivePart();
+        IntegerPolynomial derivative = p.derivative();
+        IntegerPolynomial g = p.gcd(derivative);
+        IntegerPolynomial b = p.divideExactly(g);
+        IntegerPolynomial c = derivative.divideExactly(g);
+        while (b.degree() > 0) {
+            IntegerPolynomial d = c.subtract(b.derivative());
+            IntegerPolynomial a = b.gcd(d);
+            factors.add(a);
+            b = b.divideExactly(a);
+            c = d.divideExactly(a);
+        }
+        return factors;
+    }
+
+    /**
+     * @return this - other
+     */
+    IntegerPolynomial subtract(IntegerPolynomial other) {
+        BigInteger[] result = Arrays.copyOf(coefficients, Math.max(coefficients.length, other.coefficients.length));
+        for (int i = 0; i < result.length; ++i) {
+            BigInteger a = (i < coefficients.length) ? coefficients[i] : BigInteger.ZERO;
+            result[i] = (i < other.coefficients.length) ? a.subtract(other.coefficients[i]) : a;
+        }
+        return trimmed(result);
+    }
+
+    /**
+     * @return p(-x), where p is this polynomial.
+     */
+    IntegerPolynomial negateArgument() {
+        BigInteger[] result = coefficients.clone();
+        for (int i = 1; i < result.length; i += 2) {
+            result[i] = result[i].negate();
+        }
+        return new IntegerPolynomial(result);
+    }
+
+    /**
+     * @return p(2^k x), where p is this polynomial.
+     */
+    IntegerPolynomial scaleArgument(int k) {
+        BigInteger[] result = new BigInteger[coefficients.length];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = coefficients[i].shiftLeft(k * i);
+        }
+        return new IntegerPolynomial(result);
+    }
+
+    /**
+     * @return 2^n p(x / 2), where p is this polynomial and n its degree.
+     */
+    IntegerPolynomial halveArgument() {
+        int n = degree();
+        BigInteger[] result = new BigInteger[coefficients.length];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = coefficients[i].shiftLeft(n - i);
+        }
+        return new IntegerPolynomial(result);
+    }
+
+    /**
+     * @return p(x + 1), where p is this polynomial, by the O(n^2)-addition Taylor shift.
+     */
+    IntegerPolynomial taylorShiftByOne() {
+        BigInteger[] result = coefficients.clone();
+        int n = degree();
+        for (int i = 0; i < n; ++i) {
+            for (int j = n - 1; j >= i; --j) {
+                result[j] = result[j].add(result[j + 1]);
+            }
+        }
+        return new IntegerPolynomial(result);
+    }
+
+    /**
+     * @return x^n p(1 / x), where p is this polynomial and n its degree: the coefficients reversed.
+     */
+    IntegerPolynomial reverse() {
+        BigInteger[] result = new BigInteger[coefficients.length];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = coefficients[coefficients.length - 1 - i];
+        }
+        return trimmed(result);
+    }
+
+    /**
+     * @return The number of sign changes in the coefficient sequence, ignoring zeros.  By Descartes'
+     * rule of signs, that bounds the number of positive roots, and has the same parity.
+     */
+    int signVariations() {
+        int count = 0;
+        int lastSign = 0;
+        for (BigInteger c : coefficients) {
+            int sign = c.signum();
+            if (sign != 0) {
+                if (lastSign != 0 && sign != lastSign) {
+                    ++count;
+                }
+                lastSign = sign;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return p(-1), where p is this polynomial.
+     */
+    BigInteger valueAtMinusOne() {
+        BigInteger sum = BigInteger.ZERO;
+        for (int i = 0; i < coefficients.length; ++i) {
+            sum = (i % 2 == 0) ? sum.add(coefficients[i]) : sum.subtract(coefficients[i]);
+        }
+        return sum;
+    }
+
+    /**
+     * @return p(1), where p is this polynomial.
+     */
+    BigInteger valueAtOne() {
+        BigInteger sum = BigInteger.ZERO;
+        for (BigInteger c : coefficients) {
+            sum = sum.add(c);
+        }
+        return sum;
+    }
+
+    /**
+     * @return The sign of this polynomial at p/q, where @c q is positive.
+     */
+    int signAt(BigInteger p, BigInteger q) {
+        if (isZero()) {
+            return 0;
+        }
+        // Horner's scheme on q^degree * f(p/q), which has the same sign and is an integer.
+        BigInteger acc = coefficients[coefficients.length - 1];
+        BigInteger qPower = BigInteger.ONE;
+        for (int i = coefficients.length - 2; i >= 0; --i) {
+            qPower = qPower.multiply(q);
+            acc = acc.multiply(p);
+            if (coefficients[i].signum() != 0) {
+                acc = acc.add(coefficients[i].multiply(qPower));
+            }
+        }
+        return acc.signum();
+    }
+
+    int signAt(Fraction x) {
+        return signAt(x.numerator(), x.denominator());
+    }
+
+    /**
+     * @return The sign of this polynomial's limit at positive (or negative) infinity.
+     */
+    int signAtInfinity(boolean positive) {
+        int sign = leadingCoefficient().signum();
+        return (positive || degree() % 2 == 0) ? sign : -sign;
+    }
+
+    /**
+     * @return The smallest k such that every real root lies strictly inside (-2^k, 2^k), from
+     * Cauchy's bound 1 + max|a_i / a_n|.
+     */
+    int rootBoundExponent() {
+        int maxBits = 0;
+        for (int i = 0; i < coefficients.length - 1; ++i) {
+            maxBits = Math.max(maxBits, coefficients[i].bitLength());
+        }
+        // max|a_i| / |a_n| < 2^maxBits / 2^(leadBits - 1), so the bound is below 2^(that + 1).
+        int leadBits = leadingCoefficient().abs().bitLength();
+        return Math.max(1, maxBits - leadBits + 2);
+    }
+
+    /**
+     * @return The root of this polynomial in (a, b), where it has exactly one, simple root and
+     * neither end is a root, to within a few ulps.
+     * @param compiled This polynomial, compiled.
+     * @param valueAndSlope Scratch space for at least two values.
+     */
+    double refineRoot(CompiledPolynomial compiled, Fraction a, Fraction b, double[] valueAndSlope) {
+        double lo = Math.max(a.doubleValue(), -Double.MAX_VALUE);
+        double hi = Math.min(b.doubleValue(), Double.MAX_VALUE);
+
+        // Rounding the ends to doubles may have moved one of them across the root, in which case the
+        // root is within an ulp of that end.
+        int loSign = signAt(Fraction.valueOf(lo));
+        int hiSign = signAt(Fraction.valueOf(hi));
+        if (loSign == 0) {
+            return lo;
+        }
+        if (hiSign == 0) {
+            return hi;
+        }
+        if (loSign == hiSign) {
+            return (loSign == signAt(a)) ? hi : lo;
+        }
+
+        // Newton's method on the double-precision polynomial proposes each step, but the bracket is
+        // only ever narrowed by exact signs: near the root of an ill-conditioned polynomial, the
+        // double values are mostly rounding noise.  A step is taken only if it stays inside the
+        // bracket and is less than half the one before it; otherwise the bracket is bisected.
+        double x = lo + (hi - lo) / 2;
+        double lastStep = hi - lo;
+        for (int iteration = 0; iteration < MAX_REFINEMENT_ITERATIONS; ++iteration) {
+            int xSign = signAt(Fraction.valueOf(x));
+            if (xSign == 0) {
+                return x;
+            }
+            if (xSign == loSign) {
+                lo = x;
+            } else {
+                hi = x;
+            }
+            double mid = lo + (hi - lo) / 2;
+            if (mid == lo || mid == hi) {
+                // lo and hi are adjacent doubles
+                return (xSign == loSign) ? hi : lo;
+            }
+
+            compiled.evaluateWithDerivatives(x, valueAndSlope);
+            double step = valueAndSlope[0] / valueAndSlope[1];
+            double newX = x - step;
+            if (!(lo < newX && newX < hi) || !(Math.abs(step) < lastStep / 2)) {
+                newX = mid;
+                step = x - mid;
+            } else if (Math.abs(step) <= Math.ulp(x)) {
+                // Newton has converged, as far as doubles can tell.  Try to confirm it by trapping the
+                // root in an ulp-wide bracket; if that fails, the loop carries on from there.
+                newX = (xSign == loSign) ? Math.nextUp(x) : Math.nextDown(x);
+            }
+            lastStep = Math.abs(step);
+            x = newX;
+        }
+        return x;
+    }
+
+    /**
+     * @return A simple root of this polynomial, refined from the estimate @c start by Newton's method
+     * in BigDecimal and rounded to @c mc.  Each step roughly doubles the correct digits, so the
+     * working precision starts near a double's and doubles with every step until it reaches the
+     * target; only the last few steps are at full precision.  If the iteration wanders off or
+     * doesn't converge (a poor start, or a root that isn't simple), the root is bisected instead,
+     * with exact signs, in an interval around @c start as wide as the drift Newton's method is
+     * allowed.
+     * @throws ArithmeticException If that fails too, because this polynomial doesn't change sign
+     * across the interval.
+     */
+    BigDecimal polishRoot(double start, MathContext mc) {
+        int target = mc.getPrecision() + POLISHING_GUARD_DIGITS;
+        BigDecimal x = new BigDecimal(start);
+        int precision = DOUBLE_DIGITS;
+        boolean converged = (degree() <= 0);
+        for (int step = 0; step < MAX_POLISHING_STEPS && !converged; ++step) {
+            precision = Math.min(2 * precision, target);
+            MathContext work = new MathContext(precision);
+
+            // p and p' together, in one pass of Horner's scheme
+            BigDecimal p = new BigDecimal(coefficients[coefficients.length - 1]);
+            BigDecimal dp = BigDecimal.ZERO;
+            for (int i = coefficients.length - 2; i >= 0; --i) {
+                dp = dp.multiply(x, work).add(p, work);
+                p = p.multiply(x, work).add(new BigDecimal(coefficients[i]), work);
+            }
+            if (p.signum() == 0) {
+                converged = true;
+                break;
+            }
+            if (dp.signum() == 0) {
+                break;
+            }
+
+            BigDecimal correction = p.divide(dp, work);
+            x = x.subtract(correction, work);
+            converged = (precision == target && correction.abs().compareTo(x.abs().movePointLeft(target)) <= 0);
+        }
+
+        BigDecimal maxDrift = BigDecimal.valueOf(Math.max(1, Math.abs(start)) * MAX_POLISHING_DRIFT);
+        if (converged && x.subtract(new BigDecimal(start)).abs().compareTo(maxDrift) <= 0) {
+            return x.round(mc);
+        }
+        return bisectRoot(new BigDecimal(start).subtract(maxDrift), new BigDecimal(start).add(maxDrift), target).round(mc);
+    }
+
+    /**
+     * @return A root in (lo, hi), to @c digits significant digits, by bisection with exact signs.
+     * @throws ArithmeticException If this polynomial has the same sign at both ends.
+     */
+    private BigDecimal bisectRoot(BigDecimal lo, BigDecimal hi, int digits) {
+        int loSign = signAt(lo);
+        int hiSign = signAt(hi);
+        if (loSign == 0) {
+            return lo;
+        }
+        if (hiSign == 0) {
+            return hi;
+        }
+        if (loSign == hiSign) {
+            throw new ArithmeticException("The root can't be polished: there is no sign change near the estimate.");
+        }
+
+        BigDecimal half = BigDecimal.valueOf(5, 1);
+        BigDecimal mid = lo.add(hi).multiply(half);
+        for (int iteration = 0; iteration < MAX_REFINEMENT_ITERATIONS; ++iteration) {
+            if (hi.subtract(lo).compareTo(mid.abs().movePointLeft(digits)) <= 0) {
+                break;
+            }
+            int midSign = signAt(mid);
+            if (midSign == 0) {
+                break;
+            }
+            if (midSign == loSign) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+            mid = lo.add(hi).multiply(half);
+        }
+        return mid;
+    }
+
+    private int signAt(BigDecimal x) {
+        if (x.scale() <= 0) {
+            return signAt(x.toBigIntegerExact(), BigInteger.ONE);
+        }
+        return signAt(x.unscaledValue(), BigInteger.TEN.pow(x.scale()));
+    }
+
+    /**
+     * @return This polynomial as a MathFunction, with its coefficients converted exactly.
+     */
+    MathFunction toMathFunction() {
+        MathFunction.Builder builder = new MathFunction.Builder();
+        for (int i = 0; i < coefficients.length; ++i) {
+            if (coefficients[i].signum() != 0) {
+                builder.addTerm(Fraction.valueOf(coefficients[i], BigInteger.ONE), Fraction.valueOf(i, 1));
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return (o instanceof IntegerPolynomial) && Arrays.equals(coefficients, ((IntegerPolynomial) o).coefficients);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(coefficients);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(coefficients);
+    }
+}
@@ -0,0 +1,136 @@
+package com.swtanalytics.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class IntegerPolynomialTest {
+    @Test
+    public void trimsLeadingZeros() {
+        IntegerPolynomial p = IntegerPolynomial.of(1, 2, 0, 0);
+
+        Assert.assertEquals(1, p.degree());
+        Assert.assertEquals(IntegerPolynomial.of(1, 2), p);
+        Assert.assertTrue(IntegerPolynomial.of(0, 0).isZero());
+        Assert.assertEquals(-1, IntegerPolynomial.ZERO.degree());
+    }
+
+    @Test
+    public void derivative() {
+        // 3x^3 - x + 5 -> 9x^2 - 1
+        Assert.assertEquals(IntegerPolynomial.of(-1, 0, 9), IntegerPolynomial.of(5, -1, 0, 3).derivative());
+        Assert.assertTrue(IntegerPolynomial.of(7).derivative().isZero());
+    }
+
+    @Test
+    public void pseudoRemainder() {
+        // x^3 + 1 divided by 2x + 1: 8(x^3 + 1) = (2x + 1)(4x^2 - 2x + 1) + 7
+        Assert.assertEquals(IntegerPolynomial.of(7), IntegerPolynomial.of(1, 0, 0, 1).pseudoRemainder(IntegerPolynomial.of(1, 2)));
+        // Exact division leaves nothing
+        Assert.assertTrue(IntegerPolynomial.of(-1, 0, 1).pseudoRemainder(IntegerPolynomial.of(1, 1)).isZero());
+    }
+
+    @Test
+    public void divideExactly() {
+        // (x^2 - 1) / (x + 1) = x - 1
+        Assert.assertEquals(IntegerPolynomial.of(-1, 1), IntegerPolynomial.of(-1, 0, 1).divideExactly(IntegerPolynomial.of(1, 1)));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void divideExactlyRejectsRemainders() {
+        IntegerPolynomial.of(1, 0, 1).divideExactly(IntegerPolynomial.of(1, 1));
+    }
+
+    @Test
+    public void gcdIsPrimitiveWithPositiveLeadingCoefficient() {
+        // -6(x - 1)(x + 2) and 4(x - 1)(x - 3) share (x - 1)
+        IntegerPolynomial a = IntegerPolynomial.of(12, -6, -6);
+        IntegerPolynomial b = IntegerPolynomial.of(12, -16, 4);
+
+        Assert.assertEquals(IntegerPolynomial.of(-1, 1), a.gcd(b));
+        Assert.assertEquals(IntegerPolynomial.of(1), IntegerPolynomial.of(1, 1).gcd(IntegerPolynomial.of(-1, 1)));
+    }
+
+    @Test
+    public void squareFreePartDropsRepeatedFactors() {
+        // 2(x - 1)^2 (x + 1) = 2x^3 - 2x^2 - 2x + 2
+        Assert.assertEquals(IntegerPolynomial.of(-1, 0, 1), IntegerPolynomial.of(2, -2, -2, 2).squareFreePart());
+    }
+
+    @Test
+    public void signAtRationalPoints() {
+        // x^2 - 2 changes sign between 7/5 and 3/2
+        IntegerPolynomial p = IntegerPolynomial.of(-2, 0, 1);
+
+        Assert.assertEquals(-1, p.signAt(new Fraction(7, 5)));
+        Assert.assertEquals(1, p.signAt(new Fraction(3, 2)));
+        Assert.assertEquals(0, IntegerPolynomial.of(-1, 2).signAt(new Fraction(1, 2)));
+        Assert.assertEquals(-1, p.signAtInfinity(false) * -1);
+        Assert.assertEquals(-1, IntegerPolynomial.of(0, 0, 0, 1).signAtInfinity(false));
+    }
+
+    @Test
+    public void rootBoundContainsTheRoots() {
+        // Roots at 1000 and -0.5
+        IntegerPolynomial p = IntegerPolynomial.of(-1000, -1999, 2);
+        BigInteger bound = BigInteger.ONE.shiftLeft(p.rootBoundExponent());
+
+        Assert.assertTrue(bound.compareTo(BigInteger.valueOf(1000)) > 0);
+    }
+
+    @Test
+    public void argumentTransformations() {
+        // p(x) = x^2 - 3x + 2 = (x - 1)(x - 2)
+        IntegerPolynomial p = IntegerPolynomial.of(2, -3, 1);
+
+        Assert.assertEquals(IntegerPolynomial.of(2, 3, 1), p.negateArgument());
+        Assert.assertEquals(IntegerPolynomial.of(2, -12, 16), p.scaleArgument(2));
+        Assert.assertEquals(IntegerPolynomial.of(8, -6, 1), p.halveArgument());
+        Assert.assertEquals(IntegerPolynomial.of(0, -1, 1), p.taylorShiftByOne());
+        Assert.assertEquals(IntegerPolynomial.of(1, -3, 2), p.reverse());
+        Assert.assertEquals(IntegerPolynomial.of(1, 1), IntegerPolynomial.of(0, 1, 1).reverse());
+        Assert.assertEquals(BigInteger.ZERO, p.valueAtOne());
+    }
+
+    @Test
+    public void signVariationsBoundPositiveRoots() {
+        Assert.assertEquals(2, IntegerPolynomial.of(2, -3, 1).signVariations());
+        Assert.assertEquals(0, IntegerPolynomial.of(2, 3, 1).signVariations());
+        Assert.assertEquals(1, IntegerPolynomial.of(-1, 0, 0, 1).signVariations());
+    }
+
+    @Test
+    public void squareFreeDecomposition() {
+        // x^3 (x - 1)^2 (x + 2) = (x + 2)^1 (x - 1)^2 x^3
+        List<IntegerPolynomial> factors = IntegerPolynomial.of(0, 0, 0, 2, -3, 0, 1).squareFreeDecomposition();
+
+        Assert.assertEquals(Arrays.asList(IntegerPolynomial.of(2, 1), IntegerPolynomial.of(-1, 1), IntegerPolynomial.of(0, 1)), factors);
+        Assert.assertTrue(IntegerPolynomial.of(5).squareFreeDecomposition().isEmpty());
+    }
+
+    @Test
+    public void polishRootBisectsWhenNewtonStalls() {
+        // Arrange: 10^21 x^3 - 1, whose root 10^-7 is within the allowed drift of 0, where p' = 0
+        IntegerPolynomial p = IntegerPolynomial.of(BigInteger.ONE.negate(), BigInteger.ZERO, BigInteger.ZERO, BigInteger.TEN.pow(21));
+
+        // Act
+        BigDecimal root = p.polishRoot(0.0, MathContext.DECIMAL64);
+
+        // Assert
+        Assert.assertEquals(0, new BigDecimal("1E-7").compareTo(root));
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void polishRootRejectsAnEstimateFarFromAnyRoot() {
+        // x^3 - 2x + 2: Newton's method from 0 cycles between 0 and 1, and the root is near -1.77
+        IntegerPolynomial.of(2, -2, 0, 1).polishRoot(0.0, MathContext.DECIMAL64);
+    }
+}
@@ -26,10 +26,10 @@ public class IntegrationTest {
         Fraction integralCoefficient = terms.get(0).coefficient;
 		Fraction integralExponent = terms.get(0).exponent;
 		
-		assertTrue(integralCoefficient.numerator.intValue() == 4);
-		assertTrue(integralCoefficient.denominator.intValue() == 3);
-		assertTrue(integralExponent.numerator.intValue() == 3);
-		assertTrue(integralExponent.denominator.intValue() == 1);
+		assertTrue(integralCoefficient.numerator().intValue() == 4);
+		assertTrue(integralCoefficient.denominator().intValue() == 3);
+		assertTrue(integralExponent.numerator().intValue() == 3);
+		assertTrue(integralExponent.denominator().intValue() == 1);
 	}
 
 	@Test
@@ -48,10 +48,10 @@ public class IntegrationTest {
 		Fraction integralCoefficient = terms.get(0).coefficient;
 		Fraction integralExponent = terms.get(0).exponent;
 		
-		assertTrue(integralCoefficient.numerator.intValue() == 2);
-		assertTrue(integralCoefficient.denominator.intValue() == 1);
-		assertTrue(integralExponent.numerator.intValue() == 1);
-		assertTrue(integralExponent.denominator.intValue() == 1);
+		assertTrue(integralCoefficient.numerator().intValue() == 2);
+		assertTrue(integralCoefficient.denominator().intValue() == 1);
+		assertTrue(integralExponent.numerator().intValue() == 1);
+		assertTrue(integralExponent.denominator().intValue() == 1);
 	}
 
 	@Test
@@ -70,10 +70,10 @@ public class IntegrationTest {
 		Fraction integralCoefficient = terms.get(0).coefficient;
 		Fraction integralExponent = terms.get(0).exponent;
 		
-		assertTrue(integralCoefficient.numerator.intValue() == 1);
-		assertTrue(integralCoefficient.denominator.intValue() == 8);
-		assertTrue(integralExponent.numerator.intValue() == 4);
-		assertTrue(integralExponent.denominator.intValue() == 1);
+		assertTrue(integralCoefficient.numerator().intValue() == 1);
+		assertTrue(integralCoefficient.denominator().intValue() == 8);
+		assertTrue(integralExponent.numerator().intValue() == 4);
+		assertTrue(integralExponent.denominator().intValue() == 1);
 	}
 
 	@Test
@@ -92,9 +92,9 @@ public class IntegrationTest {
 		Fraction integralCoefficient = terms.get(0).coefficient;
 		Fraction integralExponent = terms.get(0).exponent;
 				
-		assertTrue(integralCoefficient.numerator.intValue() == 3);
-		assertTrue(integralCoefficient.denominator.intValue() == 2);
-		assertTrue(integralExponent.numerator.intValue() == 4);
-		assertTrue(integralExponent.denominator.intValue() == 3);
+		assertTrue(integralCoefficient.numerator().intValue() == 3);
+		assertTrue(integralCoefficient.denominator().intValue() == 2);
+		assertTrue(integralExponent.numerator().intValue() == 4);
+		assertTrue(integralExponent.denominator().intValue() == 3);
 	}
 }
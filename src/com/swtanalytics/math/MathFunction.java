@@ -1,54 +1,290 @@
 package com.swtanalytics.math;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.MathContext;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class MathFunction {
-    // TODO: These constants belong in Fraction
-    private static final Fraction zero = new Fraction(0, 1);
-    private static final Fraction one = new Fraction(1, 1);
 
-    private static final double NEWTON_X_EPSILON = 1.0E-12;
+    // Substituting x = t^L multiplies the degree by L; beyond 2^12, the polynomial is impractical.
+    private static final int MAX_SUBSTITUTION_BITS = 12;
 
-    private TreeMap<Fraction, Term> termsByExponent = new TreeMap<Fraction, Term>(new ReverseFractionComparator());
+    // Beyond these, the square-free decomposition costs more than it saves.
+    private static final int MAX_EXACT_DEGREE = 48;
+    private static final int MAX_EXACT_COEFFICIENT_BITS = 256;
+
+    private static final double[] NO_CRITICAL_POINTS = new double[0];
+    private static final Term[] NO_TERMS = new Term[0];
+    private static final int[] NO_EXPONENTS = new int[0];
+
+    // The terms, in descending exponent order, are terms[0 .. termCount).  While every exponent is a
+    // whole number that fits in an int, wholeExponents[i] == terms[i].exponent.intValue(), so that
+    // lookups compare ints rather than Fractions; once a fractional exponent is added it is null.
+    private Term[] terms = NO_TERMS;
+    private int[] wholeExponents = NO_EXPONENTS;
+    private int termCount;
+    private final boolean immutable;
+
+    // Lazily computed forms of this function.  addTerm(...) clears them.  Immutable functions
+    // compute each one at most once per winning thread and publish it with a release CAS (see
+    // cached(...) and publish(...)), so they can be shared between threads without locking.
     private MathFunction cachedDerivative;
     private MathFunction cachedIntegral;
+    private CompiledPolynomial cachedCompiled;
+    private ExactPolynomial cachedExact;
+    private double[] cachedCriticalPoints;
+    private MonotoneIndex cachedMonotoneIndex;
+    private Double cachedRootBound;
+
+    private static final VarHandle CACHED_DERIVATIVE;
+    private static final VarHandle CACHED_INTEGRAL;
+    private static final VarHandle CACHED_COMPILED;
+    private static final VarHandle CACHED_EXACT;
+    private static final VarHandle CACHED_CRITICAL_POINTS;
+    private static final VarHandle CACHED_MONOTONE_INDEX;
+    private static final VarHandle CACHED_ROOT_BOUND;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            CACHED_DERIVATIVE = lookup.findVarHandle(MathFunction.class, "cachedDerivative", MathFunction.class);
+            CACHED_INTEGRAL = lookup.findVarHandle(MathFunction.class, "cachedIntegral", MathFunction.class);
+            CACHED_COMPILED = lookup.findVarHandle(MathFunction.class, "cachedCompiled", CompiledPolynomial.class);
+            CACHED_EXACT = lookup.findVarHandle(MathFunction.class, "cachedExact", ExactPolynomial.class);
+            CACHED_CRITICAL_POINTS = lookup.findVarHandle(MathFunction.class, "cachedCriticalPoints", double[].class);
+            CACHED_MONOTONE_INDEX = lookup.findVarHandle(MathFunction.class, "cachedMonotoneIndex", MonotoneIndex.class);
+            CACHED_ROOT_BOUND = lookup.findVarHandle(MathFunction.class, "cachedRootBound", Double.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
 
     public MathFunction() {
+        immutable = false;
     }
 
+    /**
+     * Takes ownership of @c sortedTerms, which must be in descending exponent order with distinct
+     * exponents and non-zero coefficients.
+     */
+    private MathFunction(Term[] sortedTerms, boolean immutable) {
+        this.immutable = immutable;
+        terms = sortedTerms;
+        termCount = sortedTerms.length;
+        wholeExponents = new int[termCount];
+        for (int i = 0; i < termCount; ++i) {
+            if (!sortedTerms[i].exponent.isIntValue()) {
+                wholeExponents = null;
+                break;
+            }
+            wholeExponents[i] = sortedTerms[i].exponent.intValue();
+        }
+
+        if (immutable) {
+            // The term arrays aren't final fields, so give them the same guarantee that final
+            // fields get: no thread can see this function without also seeing its terms.
+            VarHandle.releaseFence();
+        }
+    }
+
+    /**
+     * @throws UnsupportedOperationException If this function is immutable.
+     */
     public void addTerm(Term t) {
-        Term newTerm = termsByExponent.containsKey(t.exponent)
-                ? termsByExponent.get(t.exponent).add(t)
-                : t;
-        if (newTerm.coefficient.compareTo(zero) == 0) {
-            termsByExponent.remove(newTerm.exponent);
-        } else {
-            termsByExponent.put(newTerm.exponent, newTerm);
+        if (immutable) {
+            throw new UnsupportedOperationException("This MathFunction is immutable.");
+        }
+
+        if (wholeExponents != null && !t.exponent.isIntValue()) {
+            wholeExponents = null;
+        }
+
+        int index = indexOf(t.exponent);
+        if (0 <= index) {
+            Term newTerm = terms[index].add(t);
+            if (newTerm.coefficient.sign() == 0) {
+                removeTermAt(index);
+            } else {
+                terms[index] = newTerm;
+            }
+        } else if (t.coefficient.sign() != 0) {
+            insertTermAt(-(index + 1), t);
         }
         cachedDerivative = null;
         cachedIntegral = null;
+        cachedCompiled = null;
+        cachedExact = null;
+        cachedCriticalPoints = null;
+        cachedMonotoneIndex = null;
+        cachedRootBound = null;
+    }
+
+    /**
+     * @return True if this function was built by Builder.buildImmutable() or immutableCopy(), or
+     * derived from such a function.  Immutable functions reject addTerm(...), and are safe to share
+     * between threads.
+     */
+    public boolean isImmutable() {
+        return immutable;
+    }
+
+    /**
+     * @return An immutable function with the same terms as this one; this function itself, if it is
+     * already immutable.
+     */
+    public MathFunction immutableCopy() {
+        if (immutable) {
+            return this;
+        }
+
+        Term[] copy = new Term[termCount];
+        for (int i = 0; i < termCount; ++i) {
+            // Term's fields aren't final, so don't share the Term objects themselves.
+            copy[i] = new Term(terms[i].coefficient, terms[i].exponent);
+        }
+        return new MathFunction(copy, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(VarHandle handle) {
+        return immutable ? (T) handle.getAcquire(this) : (T) handle.get(this);
     }
 
+    /**
+     * Stores a newly computed cache value, unless another thread has got there first, in which case
+     * its value is returned so that every caller sees the same instance.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T publish(VarHandle handle, T value) {
+        if (!immutable) {
+            handle.set(this, value);
+            return value;
+        }
+        T witness = (T) handle.compareAndExchangeRelease(this, null, value);
+        return witness == null ? value : witness;
+    }
+
+    /**
+     * @return The index of the term with the given exponent if there is one, otherwise
+     * -(insertion point) - 1.  While wholeExponents is in use, the insertion point is meaningless
+     * for exponents that are not ints (addTerm(...) stops using wholeExponents before asking).
+     */
+    private int indexOf(Fraction exponent) {
+        int low = 0;
+        int high = termCount - 1;
+        if (wholeExponents != null) {
+            if (!exponent.isIntValue()) {
+                return -1;
+            }
+            int key = exponent.intValue();
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int e = wholeExponents[mid];
+                if (key < e) {
+                    low = mid + 1;
+                } else if (e < key) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+        } else {
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int comparison = exponent.compareTo(terms[mid].exponent);
+                if (comparison < 0) {
+                    low = mid + 1;
+                } else if (0 < comparison) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void insertTermAt(int index, Term t) {
+        if (termCount == terms.length) {
+            int capacity = Math.max(4, 2 * termCount);
+            terms = Arrays.copyOf(terms, capacity);
+            if (wholeExponents != null) {
+                wholeExponents = Arrays.copyOf(wholeExponents, capacity);
+            }
+        }
+        System.arraycopy(terms, index, terms, index + 1, termCount - index);
+        terms[index] = t;
+        if (wholeExponents != null) {
+            System.arraycopy(wholeExponents, index, wholeExponents, index + 1, termCount - index);
+            wholeExponents[index] = t.exponent.intValue();
+        }
+        ++termCount;
+    }
+
+    private void removeTermAt(int index) {
+        --termCount;
+        System.arraycopy(terms, index + 1, terms, index, termCount - index);
+        terms[termCount] = null;
+        if (wholeExponents != null) {
+            System.arraycopy(wholeExponents, index + 1, wholeExponents, index, termCount - index);
+        }
+    }
+
+    /**
+     * @return The product of this function and @c other.
+     */
+    public MathFunction multiply(MathFunction other) {
+        Builder builder = new Builder();
+        for (int i = 0; i < termCount; ++i) {
+            for (int j = 0; j < other.termCount; ++j) {
+                builder.addProduct(terms[i], other.terms[j]);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return A read-only view of the terms, in descending exponent order.  The view reflects later
+     * calls to addTerm(...).
+     */
     public Collection<Term> getTerms() {
-        return termsByExponent.values();
+        return new TermsView();
+    }
+
+    private class TermsView extends AbstractList<Term> implements RandomAccess {
+        @Override
+        public Term get(int index) {
+            if (index < 0 || termCount <= index) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + termCount);
+            }
+            return terms[index];
+        }
+
+        @Override
+        public int size() {
+            return termCount;
+        }
     }
 
     private Fraction getCoefficient(Fraction exponent) {
-        Term term = termsByExponent.get(exponent);
-        return term == null ? zero : term.coefficient;
+        int index = indexOf(exponent);
+        return index < 0 ? Fraction.ZERO : terms[index].coefficient;
     }
 
     public String toString() {
         String result = "f(x) = ";
 
-        if (termsByExponent.isEmpty()) {
+        if (termCount == 0) {
             result += "0";
         } else {
             boolean first_term = true;
-            for (Term t : termsByExponent.values()) {
-                result += (t.prettyPrint(first_term) + " ");
+            for (int i = 0; i < termCount; ++i) {
+                result += (terms[i].prettyPrint(first_term) + " ");
                 first_term = false;
             }
         }
@@ -56,43 +292,48 @@ public class MathFunction {
         return result;
     }
 
+    /**
+     * @return The derivative of this function, which is immutable if this function is.
+     */
     public MathFunction differentiate() {
-        if (cachedDerivative == null) {
-            cachedDerivative = new MathFunction();
-            for (Term t : termsByExponent.values()) {
-                // XXX This will make uncollapsed x^0 and x^1 terms in the
-                //     Style of the original class.
+        MathFunction derivative = cached(CACHED_DERIVATIVE);
+        if (derivative == null) {
+            // Shifting every exponent down by one keeps them in order, and only the constant term drops out.
+            List<Term> derivativeTerms = new ArrayList<Term>(termCount);
+            for (int i = 0; i < termCount; ++i) {
+                Term t = terms[i];
                 if (t.exponent.sign() != 0) {
-                    Term dt = new Term(t.coefficient.multiply(t.exponent), t.exponent.subtract(new Fraction(1, 1)));
-                    cachedDerivative.addTerm(dt);
+                    derivativeTerms.add(new Term(t.coefficient.multiply(t.exponent), t.exponent.subtract(Fraction.ONE)));
                 }
             }
+            derivative = publish(CACHED_DERIVATIVE, new MathFunction(derivativeTerms.toArray(NO_TERMS), immutable));
         }
 
-        return cachedDerivative;
+        return derivative;
     }
 
+    /**
+     * @return The integral of this function, which is immutable if this function is.
+     */
     public MathFunction integrate() {
-        if (cachedIntegral == null) {
-            cachedIntegral = new MathFunction();
+        MathFunction integral = cached(CACHED_INTEGRAL);
+        if (integral == null) {
+            Term[] integralTerms = new Term[termCount];
+            for (int i = 0; i < termCount; ++i) {
+                Term t = terms[i];
+                Fraction exp = t.exponent.add(Fraction.ONE);
+                Fraction coef = t.coefficient.divide(exp);
 
-            for (Term t : termsByExponent.values()) {
-                Fraction exp = new Fraction(
-                		t.exponent.numerator.add(t.exponent.denominator), 
-                		t.exponent.denominator);
-                
-                Fraction coef = t.coefficient.multiply(new Fraction(exp.denominator, exp.numerator));
-
-                Term integralTerm = new Term(coef, exp);
-                cachedIntegral.addTerm(integralTerm);
+                integralTerms[i] = new Term(coef, exp);
             }
+            integral = publish(CACHED_INTEGRAL, new MathFunction(integralTerms, immutable));
         }
 
-        return cachedIntegral;
+        return integral;
     }
 
     public double evaluate(double value, MathContext mc) {
-        if (termsByExponent.isEmpty()) {
+        if (termCount == 0) {
             return 0;
         }
 
@@ -104,16 +345,16 @@ public class MathFunction {
         // Allow evaluation of limits at infinity
         if (Double.isInfinite(value)) {
             // Logic common to both positive and negative infinity
-            Term dominantTerm = termsByExponent.firstEntry().getValue();
-            assert !dominantTerm.coefficient.equals(zero);
-            int exponentSign = dominantTerm.exponent.compareTo(zero);
+            Term dominantTerm = terms[0];
+            assert !dominantTerm.coefficient.equals(Fraction.ZERO);
+            int exponentSign = dominantTerm.exponent.compareTo(Fraction.ZERO);
             if (exponentSign < 0) {
                 return 0;
             } else if (exponentSign == 0) {
-                return dominantTerm.coefficient.bigDecimalValue(mc).doubleValue();
+                return dominantTerm.coefficient.doubleValue();
             }
 
-            int coefficientSign = dominantTerm.coefficient.compareTo(zero);
+            int coefficientSign = dominantTerm.coefficient.compareTo(Fraction.ZERO);
 
             if (0 < value) {
                 // Limit at positive infinity
@@ -130,23 +371,155 @@ public class MathFunction {
 
         double returnValue = 0d;
 
-        for (Term term : termsByExponent.values()) {
-            returnValue += term.evaluate(value, mc);
+        for (int i = 0; i < termCount; ++i) {
+            returnValue += terms[i].evaluate(value, mc);
         }
 
         return returnValue;
     }
 
+    /**
+     * @return A fast double-precision evaluator for this function.  It reflects the terms at the
+     * time of the call, and is cached until the next addTerm(...).
+     */
+    public CompiledPolynomial compile() {
+        CompiledPolynomial compiled = cached(CACHED_COMPILED);
+        if (compiled == null) {
+            compiled = publish(CACHED_COMPILED, CompiledPolynomial.compile(this));
+        }
+
+        return compiled;
+    }
+
+    /**
+     * Evaluates this function at every point of @c xs, storing f(xs[i]) in out[i].  This is much
+     * faster than calling evaluate(...) per point; see CompiledPolynomial.evaluate(double[], double[]).
+     */
+    public void evaluate(double[] xs, double[] out) {
+        compile().evaluate(xs, out);
+    }
+
+    /**
+     * Evaluates f(x) and f'(x) (and f''(x), if @c out has room for it) in one pass.  See
+     * CompiledPolynomial.evaluateWithDerivatives(...).
+     */
+    public void evaluateWithDerivatives(double x, double[] out) {
+        compile().evaluateWithDerivatives(x, out);
+    }
+
+    /**
+     * @return The degree, if every exponent is a whole, non-negative int, otherwise -1.  Allocates
+     * nothing, for BatchAnalyzer.
+     */
+    int wholeDegree() {
+        if (termCount == 0) {
+            return 0;
+        }
+        if (wholeExponents == null || wholeExponents[termCount - 1] < 0) {
+            return -1;
+        }
+        return wholeExponents[0];
+    }
+
+    /**
+     * Stores the coefficient of x^i in out[i], for i = 0 .. wholeDegree(), which must not be -1.
+     * Allocates nothing, once each coefficient's doubleValue() has been computed.
+     */
+    void wholeCoefficients(double[] out) {
+        Arrays.fill(out, 0, wholeDegree() + 1, 0);
+        for (int i = 0; i < termCount; ++i) {
+            out[wholeExponents[i]] = terms[i].coefficient.doubleValue();
+        }
+    }
+
+    /**
+     * @return The exact value of this function at @c x.  Unlike evaluate(...), no floating point is
+     * involved, which makes this suitable for checking roots exactly (see Fraction.valueOf(double)).
+     * @throws UnsupportedOperationException If any exponent is fractional.
+     */
+    public Fraction evaluateExact(Fraction x) {
+        return exact().evaluate(x);
+    }
+
+    /**
+     * @return The exact values of this function at each of @c xs.
+     * @throws UnsupportedOperationException If any exponent is fractional.
+     */
+    public Fraction[] evaluateExact(Fraction[] xs) {
+        return exact().evaluate(xs);
+    }
+
+    ExactPolynomial exact() {
+        ExactPolynomial exact = cached(CACHED_EXACT);
+        if (exact == null) {
+            exact = publish(CACHED_EXACT, ExactPolynomial.of(this));
+        }
+
+        return exact;
+    }
+
+    /**
+     * @return A bound on the magnitude of the real roots: every one lies strictly inside
+     * (-rootBound(), rootBound()).  With whole exponents, it's the least of Cauchy's, Lagrange's and
+     * Fujiwara's bounds; with fractional ones (so x >= 0), Lagrange's, generalized to the smallest
+     * gap between exponents.  It's computed once and cached until the next addTerm(...).
+     */
+    public double rootBound() {
+        Double bound = cached(CACHED_ROOT_BOUND);
+        if (bound == null) {
+            bound = publish(CACHED_ROOT_BOUND, computeRootBound());
+        }
+
+        return bound;
+    }
+
+    private double computeRootBound() {
+        if (termCount <= 1) {
+            // c x^e is only ever zero at x = 0
+            return Double.MIN_VALUE;
+        }
+
+        boolean whole = !hasFractionalExponent();
+        // Fujiwara's bound halves the constant term's ratio; that's the lowest term once negative
+        // exponents are cleared, but there's no constant term if every exponent is positive.
+        boolean hasConstantTerm = terms[termCount - 1].exponent.sign() <= 0;
+        Fraction top = terms[0].exponent;
+        double lead = Math.abs(terms[0].coefficient.doubleValue());
+
+        double cauchy = 0;
+        double lagrange = 0;
+        double fujiwara = 0;
+        double minGap = Double.POSITIVE_INFINITY;
+        for (int i = 1; i < termCount; ++i) {
+            double ratio = Math.abs(terms[i].coefficient.doubleValue()) / lead;
+            double gap = top.subtract(terms[i].exponent).doubleValue();
+            cauchy = Math.max(cauchy, ratio);
+            lagrange += ratio;
+            minGap = Math.min(minGap, gap);
+            if (whole) {
+                double r = (hasConstantTerm && i == termCount - 1) ? ratio / 2 : ratio;
+                fujiwara = Math.max(fujiwara, Math.pow(r, 1 / gap));
+            }
+        }
+
+        double bound = whole
+                ? Math.min(1 + cauchy, Math.min(Math.max(1, lagrange), 2 * fujiwara))
+                : Math.max(1, Math.pow(lagrange, 1 / minGap));
+        // Leave a margin for the rounding in the calculation.
+        return Math.nextUp(bound * (1 + 1.0E-9));
+    }
+
     public Fraction degree() {
-        return termsByExponent.isEmpty() ? new Fraction(0) : termsByExponent.firstKey();
+        return termCount == 0 ? Fraction.ZERO : terms[0].exponent;
     }
 
     public boolean isLinearFunction() {
-        if (2 < termsByExponent.size()) {
+        if (2 < termCount) {
             return false;
         }
-        for (Fraction exponent : termsByExponent.keySet()) {
-            if (!exponent.equals(zero) && !exponent.equals(one)) {
+        for (int i = 0; i < termCount; ++i) {
+            Fraction exponent = terms[i].exponent;
+            if (!exponent.equals(Fraction.ZERO) && !exponent.equals(Fraction.ONE)) {
                 return false;
             }
         }
@@ -155,16 +528,19 @@ public class MathFunction {
     }
 
     public boolean isConstant() {
-        return (termsByExponent.size() <= 1) && degree().equals(zero);
+        return (termCount <= 1) && degree().equals(Fraction.ZERO);
     }
 
     public boolean hasNegativeExponent() {
-        return (!termsByExponent.isEmpty()) && (termsByExponent.lastKey().compareTo(zero) < 0);
+        return (termCount != 0) && (terms[termCount - 1].exponent.sign() < 0);
     }
 
     public boolean hasFractionalExponent() {
-        for (Fraction exponent : termsByExponent.keySet()) {
-            if (!exponent.isWhole()) {
+        if (wholeExponents != null) {
+            return false;
+        }
+        for (int i = 0; i < termCount; ++i) {
+            if (!terms[i].exponent.isWhole()) {
                 return true;
             }
         }
@@ -176,14 +552,221 @@ public class MathFunction {
             throw new IllegalArgumentException("Slope cannot be computed for non-linear functions.");
         }
 
-        if (termsByExponent.containsKey(one)) {
-            return termsByExponent.get(one).coefficient;
+        return getCoefficient(Fraction.ONE);
+    }
+
+    /**
+     * @return The distinct real roots in ascending order, as solveWithMultiplicities(...) finds
+     * them, except that the multiplicities aren't needed: a polynomial of degree above 48 or with
+     * coefficients over 256 bits is solved whole, since the square-free decomposition would cost
+     * more than it saves.
+     */
+    public List<Double> solve(MathContext mc) {
+        return solve(SolveOptions.DEFAULT, Exactness.IF_SMALL).values();
+    }
+
+    /**
+     * @return The distinct real roots in ascending order, each with its multiplicity.
+     *
+     * The function is split into its square-free factors first, and each is solved separately.  So
+     * every root the numeric stage sees is simple: Newton's method converges quadratically, and a
+     * root of even multiplicity, where the function touches zero without changing sign, becomes a
+     * sign change of its factor.
+     */
+    public List<Root> solveWithMultiplicities(MathContext mc) {
+        return solve(SolveOptions.DEFAULT).roots();
+    }
+
+    /**
+     * @return The roots, as solveWithMultiplicities(...) finds them, within the limits of @c options,
+     * and statistics on the work it took.
+     */
+    public SolveResult solve(SolveOptions options) {
+        return solve(options, Exactness.ALWAYS);
+    }
+
+    private SolveResult solve(SolveOptions options, Exactness exactness) {
+        SolveContext context = new SolveContext(options);
+        List<Root> roots = solveWithMultiplicities(context, exactness);
+        return new SolveResult(roots, context.isComplete(), context.newtonSteps, context.bisectionSteps,
+                context.evaluations, context.elapsedNanos());
+    }
+
+    /**
+     * How much exact work solveWithMultiplicities(...) does before the numeric stage.
+     */
+    private enum Exactness {
+        // Neither the square-free decomposition nor the rational roots: for the derivatives solved
+        // for critical points, whose coefficients grow factorially and whose multiplicities are unused.
+        NONE,
+        // Both, unless the polynomial is too large for them to pay off; then every root is simple.
+        // Only for solve(MathContext), which reports no multiplicities.
+        IF_SMALL,
+        // Both, whatever the size, for callers that need the true multiplicities.
+        ALWAYS
+    }
+
+    private List<Root> solveWithMultiplicities(SolveContext context, Exactness exactness) {
+        if (hasFractionalExponent()) {
+            return solveBySubstitution(context, exactness);
+        }
+        if (isConstant()) {
+            return new ArrayList<Root>();
+        }
+        boolean findRationalRoots = (exactness != Exactness.NONE);
+        if (exactness == Exactness.NONE && !hasNegativeExponent()) {
+            return simpleRoots(solve(context, false));
+        }
+
+        // With negative exponents, the polynomial is x^k f(x), which has the same roots but no pole
+        // at zero.
+        IntegerPolynomial polynomial = exact().toIntegerPolynomial();
+        boolean large = polynomial.degree() > MAX_EXACT_DEGREE || polynomial.coefficientBitLength() > MAX_EXACT_COEFFICIENT_BITS;
+        if (exactness == Exactness.NONE || (exactness == Exactness.IF_SMALL && large)) {
+            return simpleRoots(polynomial.toMathFunction().solve(context, findRationalRoots));
+        }
+
+        List<IntegerPolynomial> factors = polynomial.squareFreeDecomposition();
+        if (factors.size() <= 1 && !hasNegativeExponent()) {
+            // Already a square-free polynomial
+            return simpleRoots(solve(context, true));
         }
 
-        return zero;
+        List<Root> roots = new ArrayList<Root>();
+        for (int i = 0; i < factors.size(); ++i) {
+            if (factors.get(i).degree() > 0) {
+                for (double x : factors.get(i).toMathFunction().solve(context, true)) {
+                    roots.add(new Root(x, i + 1));
+                }
+            }
+        }
+        Collections.sort(roots);
+        return roots;
     }
 
-    public List<Double> solve(MathContext mc) {
+    private static List<Root> simpleRoots(List<Double> values) {
+        List<Root> roots = new ArrayList<Root>(values.size());
+        for (double x : values) {
+            roots.add(new Root(x, 1));
+        }
+        return roots;
+    }
+
+    /**
+     * Solves a function with fractional exponents as a polynomial in t, where x = t^L and L is the
+     * least common multiple of the exponents' denominators.  Only x >= 0 is in the domain, so only
+     * the roots t >= 0 count.  x = t^L is smooth and increasing for t > 0, so the multiplicities
+     * carry over, except at zero: there, no whole multiplicity fits, and the root is reported as simple.
+     */
+    private List<Root> solveBySubstitution(SolveContext context, Exactness exactness) {
+        int l = substitutionPower();
+        List<Root> tRoots = substitute(l).solveWithMultiplicities(context, exactness);
+
+        List<Root> roots = new ArrayList<Root>(tRoots.size());
+        double[] xs = new double[1];
+        CompiledPolynomial f = compile();
+        for (Root root : tRoots) {
+            double t = root.value();
+            if (t < 0) {
+                continue;
+            }
+            if (t == 0) {
+                roots.add(new Root(0, 1));
+                continue;
+            }
+            // Rounding in t is magnified L times by the power, so polish in x.
+            xs[0] = Math.pow(t, l);
+            ClosedFormSolver.polish(f, xs);
+            roots.add(new Root(xs[0], root.multiplicity()));
+        }
+        return roots;
+    }
+
+    /**
+     * @return L, the least common multiple of the exponents' denominators.
+     * @throws UnsupportedOperationException If it's too large for substituting x = t^L to be practical.
+     */
+    private int substitutionPower() {
+        BigInteger l = BigInteger.ONE;
+        for (int i = 0; i < termCount; ++i) {
+            BigInteger d = terms[i].exponent.denominator();
+            l = l.divide(l.gcd(d)).multiply(d);
+        }
+        if (l.bitLength() > MAX_SUBSTITUTION_BITS) {
+            throw new UnsupportedOperationException("The exponents' denominators are too large to substitute for.");
+        }
+        return l.intValue();
+    }
+
+    /**
+     * @return This function of x = t^l, as a function of t.
+     */
+    private MathFunction substitute(int l) {
+        Fraction power = Fraction.valueOf(l, 1);
+        Term[] substituted = new Term[termCount];
+        for (int i = 0; i < termCount; ++i) {
+            substituted[i] = new Term(terms[i].coefficient, terms[i].exponent.multiply(power));
+        }
+        return new MathFunction(substituted, false);
+    }
+
+    /**
+     * @return The distinct real roots of f + t g, where f is this function, for each t in @c ts, in
+     * ascending order, as solve(...) would find them.  Each member starts from the previous one's
+     * roots, so sweeping t in small steps is much faster than solving each member from scratch.  See
+     * FamilySolver.  With fractional or negative exponents, each member is solved from scratch.
+     * @throws IllegalArgumentException If any t isn't finite.
+     */
+    public List<List<Double>> solveFamily(MathFunction g, double[] ts) {
+        return new FamilySolver(this, g).solve(ts);
+    }
+
+    /**
+     * @return The distinct real roots in ascending order, as solve(...) finds them in double
+     * precision, then polished by Newton's method in BigDecimal to the precision of @c mc.  Each
+     * root is polished on the square-free factor it's a simple root of, so the convergence is
+     * quadratic even for repeated roots.  With fractional exponents, that's in t, where x = t^L.
+     * @throws IllegalArgumentException If @c mc has unlimited precision.
+     * @throws ArithmeticException If a root can't be polished, because the double estimate was too
+     * far off; see IntegerPolynomial.polishRoot(...).
+     */
+    public List<BigDecimal> solveToPrecision(MathContext mc) {
+        if (mc.getPrecision() == 0) {
+            throw new IllegalArgumentException("Roots can't be computed to unlimited precision.");
+        }
+
+        List<Root> roots = solveWithMultiplicities(mc);
+        List<BigDecimal> solutions = new ArrayList<BigDecimal>(roots.size());
+        if (roots.isEmpty()) {
+            return solutions;
+        }
+
+        int l = hasFractionalExponent() ? substitutionPower() : 1;
+        List<IntegerPolynomial> factors = ((l == 1) ? this : substitute(l)).exact().toIntegerPolynomial().squareFreeDecomposition();
+        // x = t^L magnifies t's relative error L times.
+        MathContext tContext = new MathContext(mc.getPrecision() + Integer.toString(l).length(), mc.getRoundingMode());
+        for (Root root : roots) {
+            double x = root.value();
+            if (x == 0) {
+                solutions.add(BigDecimal.ZERO);
+                continue;
+            }
+            IntegerPolynomial factor = factors.get(root.multiplicity() - 1);
+            if (l == 1) {
+                solutions.add(factor.polishRoot(x, mc));
+            } else {
+                BigDecimal t = factor.polishRoot(Math.pow(x, 1.0 / l), tContext);
+                solutions.add(t.pow(l, mc));
+            }
+        }
+        return solutions;
+    }
+
+    /**
+     * @param findRationalRoots Whether to look for rational roots first; false once they've been
+     * deflated out.
+     */
+    private List<Double> solve(SolveContext context, boolean findRationalRoots) {
         // We *could* special-case f(x) = 0, which has infinite solutions, but I'm not sure what we would return in that
         // case, so let's treat it as any other constant function in the check below
 
@@ -194,22 +777,23 @@ public class MathFunction {
 
         if (isLinearFunction()) {
             // Closed-form solution to 0 = ax+b : x = -b/a
-            double a = getCoefficient(one).bigDecimalValue(mc).doubleValue();
-            double b = getCoefficient(zero).bigDecimalValue(mc).doubleValue();
+            double a = getCoefficient(Fraction.ONE).doubleValue();
+            double b = getCoefficient(Fraction.ZERO).doubleValue();
             return Collections.singletonList(-b / a);
         }
 
-        if (0 < termsByExponent.lastKey().compareTo(zero)) {
+        if (0 < terms[termCount - 1].exponent.sign()) {
             // If all terms are of degree > 0, then 0 is a solution, and the other solutions can be found by dividing
             // this function by its least significant term, and solving
 
-            Fraction leastDegree = termsByExponent.lastKey();
-            MathFunction simplified = new MathFunction();
-            for (Term term : termsByExponent.values()) {
-                simplified.addTerm(new Term(term.coefficient, term.exponent.subtract(leastDegree)));
+            Fraction leastDegree = terms[termCount - 1].exponent;
+            Term[] simplifiedTerms = new Term[termCount];
+            for (int i = 0; i < termCount; ++i) {
+                simplifiedTerms[i] = new Term(terms[i].coefficient, terms[i].exponent.subtract(leastDegree));
             }
+            MathFunction simplified = new MathFunction(simplifiedTerms, false);
 
-            List<Double> solutions = simplified.solve( mc );
+            List<Double> solutions = simplified.solve( context, findRationalRoots );
             if (!solutions.contains(0.0)) {
                 solutions = new ArrayList<Double>(solutions); // solutions could be read-only
                 // TODO: Find & insert instead of sort
@@ -219,173 +803,290 @@ public class MathFunction {
             return solutions;
         }
 
-        // TODO - we could check for and implement the closed-form solution for a simple quadratic equation here
-
-        // General case: divide the domain into spans between critical points. Any such span should have at most one
-        // interior solution; use Newton's method to find it if it exists.
+        // Rational roots come out exactly, and deflating them out leaves a lower degree for the
+        // numeric stage below.
+        if (findRationalRoots && !hasFractionalExponent()) {
+            List<Fraction> rationalRoots = new ArrayList<Fraction>();
+            IntegerPolynomial quotient = RationalRoots.deflate(exact().toIntegerPolynomial(), rationalRoots);
+            if (!rationalRoots.isEmpty()) {
+                List<Double> solutions = new ArrayList<Double>(quotient.toMathFunction().solve(context, false));
+                for (Fraction root : rationalRoots) {
+                    solutions.add(root.doubleValue());
+                }
+                Collections.sort(solutions);
+                return solutions;
+            }
+        }
 
-        List<Double> solutions = new ArrayList<Double>();
+        // Quadratics, cubics and quartics have closed-form solutions.  Since getCriticalPoints(...)
+        // solves the derivative, this also short-cuts the recursion for every function up to degree 5.
+        List<Double> closedForm = ClosedFormSolver.solve(this);
+        if (closedForm != null) {
+            return closedForm;
+        }
 
-        double domainBegin;
-        double rangeBegin;
-        double domainEnd = Double.NEGATIVE_INFINITY;
-        double rangeEnd = evaluate(domainEnd, mc);
+        // General case: divide the domain into spans between critical points. Any such span should have at most one
+        // interior solution; SpanSolver finds it by Newton's method if it exists.
 
-        for (double newDomainEnd : getCriticalPoints(mc)) {
-            domainBegin = domainEnd;
-            rangeBegin = rangeEnd;
-            domainEnd = newDomainEnd;
-            rangeEnd = evaluate(domainEnd, mc);
+        // The spans are refined first, possibly in parallel, and then the roots are collected in order.
+        CompiledPolynomial f = compile();
+        double[] p = new double[wholeDegree() + 1];
+        wholeCoefficients(p);
+        double[] criticalPoints = getCriticalPoints(context);
+        double[] bounds = new double[criticalPoints.length + 2];
+        bounds[0] = Double.NEGATIVE_INFINITY;
+        System.arraycopy(criticalPoints, 0, bounds, 1, criticalPoints.length);
+        bounds[bounds.length - 1] = Double.POSITIVE_INFINITY;
+        double[] interior = new double[bounds.length - 1];
+        refineSpans(p, bounds, interior, context);
 
-            if (rangeBegin == 0) {
-                solutions.add(domainBegin);
+        List<Double> solutions = new ArrayList<Double>();
+        for (int i = 0; i < bounds.length; ++i) {
+            if (f.applyAsDouble(bounds[i]) == 0) {
+                solutions.add(bounds[i]);
             }
-            double solution = interiorSolution(domainBegin, domainEnd, mc);
-            if (!Double.isNaN(solution)) {
-                solutions.add(solution);
+            if (i < interior.length && !Double.isNaN(interior[i])) {
+                solutions.add(interior[i]);
             }
         }
-
-        domainBegin = domainEnd;
-        rangeBegin = rangeEnd;
-        domainEnd = Double.POSITIVE_INFINITY;
-        rangeEnd = evaluate(domainEnd, mc);
-
-        if (rangeBegin == 0) {
-            solutions.add(domainBegin);
-        }
-        double solution = interiorSolution(domainBegin, domainEnd, mc);
-        if (!Double.isNaN(solution)) {
-            solutions.add(solution);
-        }
-        if (rangeEnd == 0) {
-            solutions.add(domainEnd);
-        }
+        context.evaluations += bounds.length;
 
         return solutions;
     }
 
-    private double interiorSolution(double domainBegin, double domainEnd, MathContext mc) {
-        int rangeBeginSign = Double.compare(evaluate(domainBegin, mc), 0);
-        int rangeEndSign = Double.compare(evaluate(domainEnd, mc), 0);
-        if (rangeBeginSign == 0 || rangeEndSign == 0 || rangeBeginSign == rangeEndSign) {
-            return Double.NaN;
+    /**
+     * Sets interior[i] to the root inside (bounds[i], bounds[i + 1]), or NaN if there isn't one, as
+     * SpanSolver finds it in this function's coefficients, @c p.  The spans are independent, so with
+     * a pool in the options and enough spans, they're refined in parallel.
+     */
+    private void refineSpans(double[] p, double[] bounds, double[] interior, SolveContext context) {
+        ForkJoinPool pool = context.options.pool();
+        double bound = rootBound();
+        if (pool == null || interior.length < context.options.parallelThreshold()) {
+            for (int i = 0; i < interior.length; ++i) {
+                interior[i] = SpanSolver.interiorSolution(p, p.length - 1, bounds[i], bounds[i + 1], bound, Double.NaN, context);
+            }
+            return;
         }
 
-        double x = getDivisionPoint(domainBegin, domainEnd);
+        pool.invoke(new RefineSpansTask(p, bound, bounds, interior, 0, interior.length, context));
+    }
 
-        MathFunction derivative = differentiate();
+    /**
+     * Refines spans [from, to) by halves, each leaf on its own fork of the context.
+     */
+    private static final class RefineSpansTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
 
-        while (true) {
-            if (Math.abs(domainEnd - domainBegin) < NEWTON_X_EPSILON) {
-                return x;
-            }
+        private final double[] p;
+        private final double bound;
+        private final double[] bounds;
+        private final double[] interior;
+        private final int from;
+        private final int to;
+        private final SolveContext context;
 
-            double y = evaluate(x, mc);
-            if (y == 0) {
-                return x;
-            }
-            int ySign = Double.compare(y, 0);
-            assert ySign != 0;
-            assert rangeBeginSign != 0;
-            assert rangeEndSign != 0;
-            assert rangeBeginSign != rangeEndSign;
-            assert (ySign == rangeBeginSign) ^ (ySign == rangeEndSign);
+        RefineSpansTask(double[] p, double bound, double[] bounds, double[] interior, int from, int to, SolveContext context) {
+            this.p = p;
+            this.bound = bound;
+            this.bounds = bounds;
+            this.interior = interior;
+            this.from = from;
+            this.to = to;
+            this.context = context;
+        }
 
-            if (ySign == rangeBeginSign) {
-                domainBegin = x;
-                rangeBeginSign = ySign;
-            } else {
-                domainEnd = x;
-                rangeEndSign = ySign;
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                SolveContext fork = context.fork();
+                interior[from] = SpanSolver.interiorSolution(p, p.length - 1, bounds[from], bounds[from + 1], bound, Double.NaN, fork);
+                context.merge(fork);
+                return;
             }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RefineSpansTask(p, bound, bounds, interior, from, middle, context),
+                    new RefineSpansTask(p, bound, bounds, interior, middle, to, context));
+        }
+    }
 
-            double newX = x - y / derivative.evaluate(x, mc);
-            if (Math.abs(x - newX) < NEWTON_X_EPSILON) {
-                return x;
-            }
+    /**
+     * @return The distinct real roots of this function, in ascending order, as found by @c solver.
+     */
+    public List<Double> solve(RootSolver solver, MathContext mc) {
+        return solver.solve(this, mc);
+    }
 
-            if (Double.isNaN(newX) || newX <= domainBegin || domainEnd <= newX) {
-                // Either we've had some rounding error, we're diverging, we're looping, or our walk took us out of the search range.
-                // In any case, let's fall back to a search-by-division on this step.
-                if (ySign != rangeBeginSign) {
-                    newX = getDivisionPoint(domainBegin, x);
-                } else {
-                    newX = getDivisionPoint(x, domainEnd);
-                }
-            }
+    /**
+     * @return Every root of this function, complex ones included, with repeated roots repeated,
+     * sorted by real part and then imaginary part.  They're found simultaneously by the
+     * Aberth-Ehrlich iteration, in double precision; the real roots are the ones that satisfy
+     * Complex.isReal(...) with a small tolerance.  With negative exponents, these are the roots of
+     * x^k f(x), where x^k clears them.
+     * @throws UnsupportedOperationException If any exponent is fractional.
+     * @throws ArithmeticException If the iteration hasn't converged to every root within its
+     * iteration limit; an approximation that hasn't converged is never returned as a root.
+     */
+    public List<Complex> allRoots() {
+        if (hasFractionalExponent()) {
+            throw new UnsupportedOperationException("All roots can only be found with whole-number exponents.");
+        }
+        if (termCount == 0) {
+            return Collections.emptyList();
+        }
 
-            x = newX;
+        // A lowest exponent m > 0 contributes m roots at exactly zero; x^m is factored out so the
+        // iteration doesn't have to converge (slowly) to a multiple root there.
+        int highest = terms[0].exponent.intValue();
+        int lowest = terms[termCount - 1].exponent.intValue();
+        double[] coefficients = new double[highest - lowest + 1];
+        for (int i = 0; i < termCount; ++i) {
+            coefficients[terms[i].exponent.intValue() - lowest] = terms[i].coefficient.doubleValue();
         }
-    }
 
-    private double getDivisionPoint(double begin, double end) {
-        double x;
-        if (Double.isInfinite(begin)) {
-            if (Double.isInfinite(end)) {
-                x = 0;
-            } else {
-                x = end - 1;
-            }
-        } else {
-            if (Double.isInfinite(end)) {
-                x = begin + 1;
-            } else {
-                x = (begin + end) / 2;
-            }
+        List<Complex> roots = new ArrayList<Complex>(Arrays.asList(AberthSolver.roots(coefficients)));
+        for (int i = 0; i < lowest; ++i) {
+            roots.add(new Complex(0, 0));
         }
-        return x;
+        Collections.sort(roots);
+        return roots;
     }
 
-    private List<Double> getCriticalPoints( MathContext mc ) {
+    /**
+     * @return The distinct real roots of the derivative, in ascending order.  The array is cached
+     * and shared, so callers must not modify it.
+     */
+    private double[] getCriticalPoints( SolveContext context ) {
         if (isLinearFunction()) {
-            return Collections.emptyList();
+            return NO_CRITICAL_POINTS;
         }
-        if (hasNegativeExponent()) {
-            throw new UnsupportedOperationException(); // an exercise for the reader ;-)
+        // The solver's results depend on the tolerance, so the cache holds them only for the default
+        // one.  Those serve any looser tolerance too, but a tighter one gets its own.  Nothing is
+        // cached if the budget cut the search short.
+        boolean cacheable = (context.options.tolerance() == SolveOptions.DEFAULT.tolerance());
+        double[] criticalPoints = (context.options.tolerance() >= SolveOptions.DEFAULT.tolerance()) ? cached(CACHED_CRITICAL_POINTS) : null;
+        if (criticalPoints == null) {
+            List<Root> roots = differentiate().solveWithMultiplicities(context, Exactness.NONE);
+            criticalPoints = new double[roots.size()];
+            for (int i = 0; i < criticalPoints.length; ++i) {
+                criticalPoints[i] = roots.get(i).value();
+            }
+            Arrays.sort(criticalPoints);
+            if (cacheable && context.isComplete()) {
+                criticalPoints = publish(CACHED_CRITICAL_POINTS, criticalPoints);
+            }
         }
-        if (hasFractionalExponent()) {
-            throw new UnsupportedOperationException(); // an exercise for the reader ;-)
+
+        return criticalPoints;
+    }
+
+    /**
+     * @return The critical points and their values, indexed for range queries and for solving
+     * f(x) = c.  It's built once and cached until the next addTerm(...).  With fractional
+     * exponents, the domain starts at x = 0; with negative exponents, x = 0 is a pole, which the
+     * index splits its monotone segments at.
+     */
+    public MonotoneIndex monotoneIndex() {
+        MonotoneIndex index = cached(CACHED_MONOTONE_INDEX);
+        if (index == null) {
+            boolean fractional = hasFractionalExponent();
+            double domainStart = fractional ? 0 : Double.NEGATIVE_INFINITY;
+            boolean poleAtZero = hasNegativeExponent() && !fractional;
+            index = new MonotoneIndex(compile(), getCriticalPoints(new SolveContext(SolveOptions.DEFAULT)), domainStart, poleAtZero);
+            index = publish(CACHED_MONOTONE_INDEX, index);
         }
 
-        return differentiate().solve( mc );
+        return index;
+    }
+
+    /**
+     * @return The minimum and maximum over [domainMin, domainMax], among the ends and the critical
+     * points between them.  Ties go to the smallest x.  After the first call, which builds the
+     * monotoneIndex(), each call takes O(log n) time plus two evaluations.
+     *
+     * With fractional exponents, the domain is clipped to x >= 0.  With negative exponents, a pole
+     * at x = 0 inside the domain is a candidate too, as -0.0 and 0.0, with the limits from the left
+     * and the right as their values.
+     */
+    public Extrema findExtrema(double domainMin, double domainMax) {
+        return monotoneIndex().extrema(domainMin, domainMax);
     }
 
     public double findMaximum(double domainMin, double domainMax, MathContext mc) {
-        double xMax = domainMin;
-        double yMax = evaluate(xMax, mc);
-        for (double critical : getCriticalPoints( mc )) {
-            if (critical <= domainMin) continue;
-            if (domainMax <= critical) break;
-            double y = evaluate(critical, mc);
-            if (yMax < y) {
-                xMax = critical;
-                yMax = y;
+        return findExtrema(domainMin, domainMax).argMax();
+    }
+
+    public double findMinimum(double domainMin, double domainMax, MathContext mc) {
+        return findExtrema(domainMin, domainMax).argMin();
+    }
+
+    /**
+     * Collects terms in bulk.  Unlike repeated calls to MathFunction.addTerm(...), which build and
+     * reduce a new Fraction and Term for every merged term, the Builder sums each exponent's
+     * coefficients in a RationalAccumulator and reduces each of them only once, in build().
+     */
+    public static class Builder {
+        private final Map<Fraction, RationalAccumulator> coefficientsByExponent = new HashMap<Fraction, RationalAccumulator>();
+
+        public Builder addTerm(Term t) {
+            return addTerm(t.coefficient, t.exponent);
+        }
+
+        public Builder addTerm(Fraction coefficient, Fraction exponent) {
+            accumulatorFor(exponent).add(coefficient);
+            return this;
+        }
+
+        public Builder addTerms(Collection<Term> terms) {
+            for (Term t : terms) {
+                addTerm(t.coefficient, t.exponent);
             }
+            return this;
         }
-        double y = evaluate(domainMax, mc);
-        if (yMax < y) {
-            xMax = domainMax;
+
+        /**
+         * Adds the product of two terms.
+         */
+        public Builder addProduct(Term a, Term b) {
+            accumulatorFor(a.exponent.add(b.exponent)).addProduct(a.coefficient, b.coefficient);
+            return this;
         }
-        return xMax;
-    }
 
-    public double findMinimum(double domainMin, double domainMax, MathContext mc) {
-        double xMin = domainMin;
-        double yMin = evaluate(xMin, mc);
-        for (double critical : getCriticalPoints(mc)) {
-            if (critical <= domainMin) continue;
-            if (domainMax <= critical) break;
-            double y = evaluate(critical, mc);
-            if (y < yMin) {
-                xMin = critical;
-                yMin = y;
+        public MathFunction build() {
+            return build(false);
+        }
+
+        /**
+         * @return An immutable function of the terms added so far.  See MathFunction.isImmutable().
+         */
+        public MathFunction buildImmutable() {
+            return build(true);
+        }
+
+        private MathFunction build(boolean immutable) {
+            List<Fraction> exponents = new ArrayList<Fraction>(coefficientsByExponent.size());
+            for (Map.Entry<Fraction, RationalAccumulator> entry : coefficientsByExponent.entrySet()) {
+                if (!entry.getValue().isZero()) {
+                    exponents.add(entry.getKey());
+                }
             }
+            Collections.sort(exponents, new ReverseFractionComparator());
+
+            Term[] sortedTerms = new Term[exponents.size()];
+            for (int i = 0; i < sortedTerms.length; ++i) {
+                Fraction exponent = exponents.get(i);
+                sortedTerms[i] = new Term(coefficientsByExponent.get(exponent).toFraction(), exponent);
+            }
+            return new MathFunction(sortedTerms, immutable);
         }
-        double y = evaluate(domainMax, mc);
-        if (y < yMin) {
-            xMin = domainMax;
+
+        private RationalAccumulator accumulatorFor(Fraction exponent) {
+            RationalAccumulator accumulator = coefficientsByExponent.get(exponent);
+            if (accumulator == null) {
+                accumulator = new RationalAccumulator();
+                coefficientsByExponent.put(exponent, accumulator);
+            }
+            return accumulator;
         }
-        return xMin;
     }
-}
\ No newline at end of file
+}
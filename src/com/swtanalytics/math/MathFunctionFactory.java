@@ -17,10 +17,10 @@ public class MathFunctionFactory {
         MathFunction result = new MathFunction();
 
         Term firstTerm = getValidTerm(forceWholeNumberCoefficients, maxDegree);
-        assert !firstTerm.coefficient.equals(new Fraction(0, 1));
+        assert !firstTerm.coefficient.equals(Fraction.ZERO);
         if (strictDegree)
         {
-            firstTerm.exponent = new Fraction(maxDegree, 1);
+            firstTerm.exponent = Fraction.valueOf(maxDegree, 1);
         }
         result.addTerm(firstTerm);
 
@@ -38,7 +38,7 @@ public class MathFunctionFactory {
         while (true)
         {
             Term term = termFactory.create(forceWholeNumberCoefficients, maxDegree);
-            if (!term.coefficient.equals(new Fraction(0, 1)))
+            if (!term.coefficient.equals(Fraction.ZERO))
             {
                 return term;
             }
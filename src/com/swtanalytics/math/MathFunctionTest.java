@@ -6,6 +6,15 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 @RunWith(JUnit4.class)
 public class MathFunctionTest {
     private MathFunction function;
@@ -87,4 +96,257 @@ public class MathFunctionTest {
         // Assert
         Assert.assertEquals(new Fraction(0, 101), result);
     }
+
+    @Test
+    public void builderMatchesRepeatedAddTerm() {
+        // Arrange
+        MathFunction.Builder builder = new MathFunction.Builder();
+        for (int i = 0; i < 1000; ++i) {
+            Term term = new Term(new Fraction(i % 17 - 8, i % 5 + 1), new Fraction(i % 7));
+            builder.addTerm(term);
+            function.addTerm(term);
+        }
+
+        // Act
+        MathFunction result = builder.build();
+
+        // Assert
+        Assert.assertEquals(function.toString(), result.toString());
+    }
+
+    @Test
+    public void builderDropsTermsThatCancel() {
+        // Arrange
+        MathFunction.Builder builder = new MathFunction.Builder();
+        builder.addTerm(new Term(new Fraction(3, 4), 2));
+        builder.addTerm(new Term(new Fraction(5), 1));
+        builder.addTerm(new Term(new Fraction(-3, 4), 2));
+
+        // Act
+        MathFunction result = builder.build();
+
+        // Assert
+        Assert.assertEquals(1, result.getTerms().size());
+        Assert.assertEquals(new Term(5, 1), result.getTerms().iterator().next());
+    }
+
+    @Test
+    public void multiplyExpandsProduct() {
+        // Arrange
+        function.addTerm(new Term(1, 1));
+        function.addTerm(new Term(-1, 0));
+        MathFunction other = new MathFunction();
+        other.addTerm(new Term(1, 1));
+        other.addTerm(new Term(1, 0));
+
+        // Act
+        MathFunction result = function.multiply(other);
+
+        // Assert
+        Assert.assertEquals("f(x) = x^2 - 1 ", result.toString());
+    }
+
+    @Test
+    public void termsStayOrderedThroughInsertsAndRemovals() {
+        // Arrange
+        int[] exponents = { 3, -2, 7, 0, 5, 1, -9, 4 };
+        for (int e : exponents) {
+            function.addTerm(new Term(e + 10, e));
+        }
+        function.addTerm(new Term(-(5 + 10), 5));
+        function.addTerm(new Term(-(-9 + 10), -9));
+        function.addTerm(new Term(-(7 + 10), 7));
+
+        // Act
+        Collection<Term> terms = function.getTerms();
+
+        // Assert
+        Assert.assertEquals(Arrays.asList(new Term(14, 4), new Term(13, 3), new Term(11, 1), new Term(10, 0), new Term(8, -2)),
+                new ArrayList<Term>(terms));
+    }
+
+    @Test
+    public void termsStayOrderedWithFractionalExponents() {
+        // Arrange
+        function.addTerm(new Term(1, 2));
+        function.addTerm(new Term(1, 0));
+        function.addTerm(new Term(2, new Fraction(1, 2)));
+        function.addTerm(new Term(3, new Fraction(-1, 3)));
+        function.addTerm(new Term(1, 2));
+
+        // Act
+        Collection<Term> terms = function.getTerms();
+
+        // Assert
+        Assert.assertTrue(function.hasFractionalExponent());
+        Assert.assertEquals(Arrays.asList(new Term(2, 2), new Term(2, new Fraction(1, 2)), new Term(1, 0), new Term(3, new Fraction(-1, 3))),
+                new ArrayList<Term>(terms));
+        Assert.assertEquals(new Fraction(2), function.degree());
+    }
+
+    @Test
+    public void getTermsIsALiveReadOnlyView() {
+        // Arrange
+        Collection<Term> terms = function.getTerms();
+
+        // Act
+        function.addTerm(new Term(1, 2));
+        function.addTerm(new Term(1, 1));
+
+        // Assert
+        Assert.assertEquals(2, terms.size());
+        try {
+            terms.clear();
+            Assert.fail("getTerms() should be read-only");
+        } catch (UnsupportedOperationException e) {
+            // Expected
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void immutableFunctionRejectsAddTerm() {
+        // Arrange
+        MathFunction immutable = new MathFunction.Builder().addTerm(new Term(1, 2)).buildImmutable();
+
+        // Act
+        immutable.addTerm(new Term(1, 0));
+    }
+
+    @Test
+    public void immutableCopyIsIndependentOfTheOriginal() {
+        // Arrange
+        function.addTerm(new Term(3, 2));
+        MathFunction immutable = function.immutableCopy();
+
+        // Act
+        function.addTerm(new Term(1, 0));
+
+        // Assert
+        Assert.assertFalse(function.isImmutable());
+        Assert.assertTrue(immutable.isImmutable());
+        Assert.assertSame(immutable, immutable.immutableCopy());
+        Assert.assertEquals("f(x) = 3x^2 ", immutable.toString());
+    }
+
+    @Test
+    public void derivedFunctionsOfImmutableFunctionsAreImmutableAndCached() {
+        // Arrange
+        MathFunction immutable = new MathFunction.Builder().addTerm(new Term(3, 2)).addTerm(new Term(2, 1)).buildImmutable();
+
+        // Act
+        MathFunction derivative = immutable.differentiate();
+        MathFunction integral = immutable.integrate();
+
+        // Assert
+        Assert.assertTrue(derivative.isImmutable());
+        Assert.assertTrue(integral.isImmutable());
+        Assert.assertSame(derivative, immutable.differentiate());
+        Assert.assertSame(integral, immutable.integrate());
+        Assert.assertEquals("f(x) = 6x + 2 ", derivative.toString());
+        Assert.assertEquals(Arrays.asList(new Term(1, 3), new Term(1, 2)), new ArrayList<Term>(integral.getTerms()));
+    }
+
+    @Test
+    public void immutableFunctionCanBeSharedBetweenThreads() throws Exception {
+        // Arrange
+        final MathFunction immutable = new MathFunction.Builder()
+                .addTerm(new Term(1, 3)).addTerm(new Term(-6, 2)).addTerm(new Term(11, 1)).addTerm(new Term(-6, 0))
+                .buildImmutable();
+        List<Callable<Object[]>> tasks = new ArrayList<Callable<Object[]>>();
+        for (int i = 0; i < 16; ++i) {
+            tasks.add(new Callable<Object[]>() {
+                @Override
+                public Object[] call() {
+                    return new Object[] {
+                            immutable.differentiate(), immutable.integrate(), immutable.compile(), immutable.solve(java.math.MathContext.DECIMAL64)
+                    };
+                }
+            });
+        }
+
+        // Act
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Object[]>> results;
+        try {
+            results = pool.invokeAll(tasks);
+        } finally {
+            pool.shutdown();
+        }
+
+        // Assert
+        Object[] first = results.get(0).get();
+        for (Future<Object[]> result : results) {
+            Object[] values = result.get();
+            Assert.assertSame(first[0], values[0]);
+            Assert.assertSame(first[1], values[1]);
+            Assert.assertSame(first[2], values[2]);
+            Assert.assertEquals(first[3], values[3]);
+        }
+        Assert.assertEquals(3, ((List<?>) first[3]).size());
+    }
+
+    @Test
+    public void rootBoundContainsEveryRoot() {
+        // Arrange
+        MathFunction[] functions = {
+                new MathFunction.Builder().addTerm(new Term(1, 5)).addTerm(new Term(-1000000, 4)).addTerm(new Term(1, 1)).addTerm(new Term(-1000000, 0)).build(),
+                new MathFunction.Builder().addTerm(new Term(3, 8)).addTerm(new Term(-7, 3)).addTerm(new Term(2, 2)).build(),
+                new MathFunction.Builder().addTerm(new Term(new Fraction(1, 1000), 4)).addTerm(new Term(5, 1)).addTerm(new Term(-9, 0)).build(),
+                new MathFunction.Builder().addTerm(new Term(1, 2)).addTerm(new Term(-4, -1)).build(),
+        };
+
+        for (MathFunction f : functions) {
+            // Act
+            double bound = f.rootBound();
+
+            // Assert
+            for (Complex root : f.allRoots()) {
+                Assert.assertTrue(f + ": " + root, root.abs() < bound);
+            }
+        }
+    }
+
+    @Test
+    public void rootBoundIsTightForLargeRoots() {
+        // Arrange: (x - 10^6)(x^4 + 1)
+        function.addTerm(new Term(1, 5));
+        function.addTerm(new Term(-1000000, 4));
+        function.addTerm(new Term(1, 1));
+        function.addTerm(new Term(-1000000, 0));
+
+        // Act
+        double bound = function.rootBound();
+
+        // Assert
+        Assert.assertTrue(bound > 1000000);
+        Assert.assertTrue(bound < 2000001);
+    }
+
+    @Test
+    public void rootBoundCoversFractionalExponents() {
+        // Arrange: x^(3/2) - 1000 is zero at x = 100
+        function.addTerm(new Term(Fraction.ONE, new Fraction(3, 2)));
+        function.addTerm(new Term(-1000, 0));
+
+        // Act
+        double bound = function.rootBound();
+
+        // Assert
+        Assert.assertTrue(bound > 100);
+    }
+
+    @Test
+    public void rootBoundIsRecomputedAfterAddTerm() {
+        // Arrange
+        function.addTerm(new Term(1, 2));
+        function.addTerm(new Term(-4, 0));
+        double before = function.rootBound();
+
+        // Act
+        function.addTerm(new Term(-96, 0));
+
+        // Assert
+        Assert.assertTrue(before < 10);
+        Assert.assertTrue(function.rootBound() > 10);
+    }
 }
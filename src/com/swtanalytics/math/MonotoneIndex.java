@@ -0,0 +1,250 @@
+package com.swtanalytics.math;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A function's critical points and their values, indexed for repeated queries.
+ *
+ * Between consecutive critical points, the function is monotone, so its minimum and maximum over
+ * any window are found among the window's ends and the critical points inside it.  Sparse tables
+ * over the critical values answer the range-minimum and range-maximum queries in O(1), after two
+ * binary searches to find the critical points inside the window, so each window costs O(log n) plus
+ * two evaluations.  The same monotone segments let f(x) = c be solved by bisection in each segment
+ * whose ends straddle c.
+ *
+ * With fractional exponents, the domain starts at x = 0.  With negative exponents (and whole ones),
+ * x = 0 is a pole, so the segments are split there too: -0.0 and 0.0 are indexed alongside the
+ * critical points, with the limits from the left and the right as their values, and no segment
+ * spans the pole.
+ *
+ * Built once per function by MathFunction.monotoneIndex(); it's immutable, so it can be shared
+ * between threads.
+ */
+public final class MonotoneIndex {
+    private final CompiledPolynomial f;
+    private final int criticalPointCount;
+    private final double domainStart;
+
+    // The critical points, and -0.0 and 0.0 if there's a pole, in ascending order, and f there
+    private final double[] points;
+    private final double[] values;
+
+    // minIndex[k][i] is the index of the least value among values[i .. i + 2^k), the first if
+    // there's a tie; likewise maxIndex.
+    private final int[][] minIndex;
+    private final int[][] maxIndex;
+
+    /**
+     * @param criticalPoints The function's critical points in the domain, in ascending order.
+     * @param domainStart Where the domain starts: 0 with fractional exponents, else -infinity.
+     * @param poleAtZero Whether f has a pole at x = 0 inside the domain.
+     */
+    MonotoneIndex(CompiledPolynomial f, double[] criticalPoints, double domainStart, boolean poleAtZero) {
+        this.f = f;
+        this.criticalPointCount = criticalPoints.length;
+        this.domainStart = domainStart;
+        this.points = poleAtZero ? withPole(criticalPoints) : criticalPoints;
+        int n = points.length;
+        this.values = new double[n];
+        f.evaluate(points, values);
+
+        int levels = (n == 0) ? 0 : 32 - Integer.numberOfLeadingZeros(n);
+        minIndex = new int[levels][];
+        maxIndex = new int[levels][];
+        if (levels > 0) {
+            minIndex[0] = new int[n];
+            maxIndex[0] = new int[n];
+            for (int i = 0; i < n; ++i) {
+                minIndex[0][i] = i;
+                maxIndex[0][i] = i;
+            }
+        }
+        for (int k = 1; k < levels; ++k) {
+            int half = 1 << (k - 1);
+            int count = n - (1 << k) + 1;
+            minIndex[k] = new int[count];
+            maxIndex[k] = new int[count];
+            for (int i = 0; i < count; ++i) {
+                minIndex[k][i] = lesser(minIndex[k - 1][i], minIndex[k - 1][i + half]);
+                maxIndex[k][i] = greater(maxIndex[k - 1][i], maxIndex[k - 1][i + half]);
+            }
+        }
+    }
+
+    /**
+     * @return @c criticalPoints with -0.0 and 0.0 inserted in order.
+     */
+    private static double[] withPole(double[] criticalPoints) {
+        double[] points = new double[criticalPoints.length + 2];
+        int negative = 0;
+        while (negative < criticalPoints.length && criticalPoints[negative] < 0) {
+            ++negative;
+        }
+        System.arraycopy(criticalPoints, 0, points, 0, negative);
+        points[negative] = -0.0;
+        points[negative + 1] = 0.0;
+        System.arraycopy(criticalPoints, negative, points, negative + 2, criticalPoints.length - negative);
+        return points;
+    }
+
+    private static boolean isPole(double x) {
+        return x == 0;
+    }
+
+    // Both take a < b (by index), and prefer a on ties.
+    private int lesser(int a, int b) {
+        return (values[b] < values[a]) ? b : a;
+    }
+
+    private int greater(int a, int b) {
+        return (values[a] < values[b]) ? b : a;
+    }
+
+    /**
+     * @return The number of critical points.
+     */
+    public int size() {
+        return criticalPointCount;
+    }
+
+    /**
+     * @return The minimum and maximum over [domainMin, domainMax], as MathFunction.findExtrema(...)
+     * defines them.  The part of the window before the domain's start is dropped.
+     */
+    public Extrema extrema(double domainMin, double domainMax) {
+        if (domainMin < domainStart) {
+            domainMin = Math.min(domainStart, domainMax);
+        }
+        double xMin = domainMin;
+        double xMax = domainMin;
+        double yMin = f.applyAsDouble(domainMin);
+        double yMax = yMin;
+
+        // The critical points strictly inside the domain are points[lo .. hi].
+        int lo = firstAbove(domainMin);
+        int hi = firstAtOrAbove(domainMax) - 1;
+        if (lo <= hi) {
+            int k = 31 - Integer.numberOfLeadingZeros(hi - lo + 1);
+            int right = hi - (1 << k) + 1;
+            int i = lesser(minIndex[k][lo], minIndex[k][right]);
+            if (values[i] < yMin) {
+                xMin = points[i];
+                yMin = values[i];
+            }
+            i = greater(maxIndex[k][lo], maxIndex[k][right]);
+            if (yMax < values[i]) {
+                xMax = points[i];
+                yMax = values[i];
+            }
+        }
+
+        double y = f.applyAsDouble(domainMax);
+        if (y < yMin) {
+            xMin = domainMax;
+            yMin = y;
+        }
+        if (yMax < y) {
+            xMax = domainMax;
+            yMax = y;
+        }
+        return new Extrema(xMin, yMin, xMax, yMax);
+    }
+
+    /**
+     * @return The distinct real solutions of f(x) = c, in ascending order: at most one in each
+     * monotone segment, found by bisection to within an ulp, plus any critical points (and the
+     * domain's start) where f is c.
+     */
+    public List<Double> solve(double c) {
+        List<Double> solutions = new ArrayList<Double>();
+        double begin = domainStart;
+        int beginSign = compare(f.applyAsDouble(begin), c);
+        if (beginSign == 0 && !Double.isInfinite(begin)) {
+            solutions.add(begin);
+        }
+        for (int i = 0; i <= points.length; ++i) {
+            double end = (i < points.length) ? points[i] : Double.POSITIVE_INFINITY;
+            int endSign = compare((i < points.length) ? values[i] : f.applyAsDouble(end), c);
+            // The pole's two sides, -0.0 and 0.0, bound no segment between them.
+            boolean acrossPole = isPole(begin) && isPole(end);
+            if (beginSign * endSign < 0 && !acrossPole) {
+                solutions.add(crossing(begin, beginSign, end, c));
+            }
+            if (endSign == 0 && i < points.length) {
+                solutions.add(end);
+            }
+            begin = end;
+            beginSign = endSign;
+        }
+        return solutions;
+    }
+
+    /**
+     * @return Where f crosses @c c in (begin, end), where it's monotone and f(begin) - c has the sign
+     * @c beginSign, and f(end) - c the opposite.
+     */
+    private double crossing(double begin, int beginSign, double end, double c) {
+        while (true) {
+            double x;
+            if (Double.isInfinite(begin)) {
+                // Toward an infinite end, step out by doubling, as in MathFunction.solve(...)
+                x = Double.isInfinite(end) ? 0 : end - Math.max(1, Math.abs(end));
+            } else if (Double.isInfinite(end)) {
+                x = begin + Math.max(1, Math.abs(begin));
+            } else {
+                x = 0.5 * begin + 0.5 * end;
+                if (x <= begin || end <= x) {
+                    // Adjacent doubles: take the closer
+                    return (Math.abs(f.applyAsDouble(begin) - c) <= Math.abs(f.applyAsDouble(end) - c)) ? begin : end;
+                }
+            }
+            if (Double.isInfinite(x)) {
+                // Overflowed before the sign changed, which rounding can cause at the extremes
+                return Double.isInfinite(begin) ? end : begin;
+            }
+
+            int sign = compare(f.applyAsDouble(x), c);
+            if (sign == 0) {
+                return x;
+            }
+            if (sign == beginSign) {
+                begin = x;
+            } else {
+                end = x;
+            }
+        }
+    }
+
+    private int firstAbove(double x) {
+        int lo = 0;
+        int hi = points.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (points[mid] <= x) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private int firstAtOrAbove(double x) {
+        int lo = 0;
+        int hi = points.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (points[mid] < x) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int compare(double y, double c) {
+        return (y < c) ? -1 : (c < y) ? 1 : 0;
+    }
+}
@@ -0,0 +1,214 @@
+package com.swtanalytics.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.math.MathContext;
+import java.util.List;
+import java.util.Random;
+
+@RunWith(JUnit4.class)
+public class MonotoneIndexTest {
+    private static final double EPSILON = 1.0E-9;
+
+    // 4x^7 - 30x^5 - 16x^3 + 32x^2 + 1, which has several critical points
+    private static MathFunction function() {
+        return new MathFunction.Builder()
+                .addTerm(new Term(4, 7)).addTerm(new Term(-30, 5)).addTerm(new Term(-16, 3))
+                .addTerm(new Term(32, 2)).addTerm(new Term(1, 0))
+                .build();
+    }
+
+    /**
+     * The linear scan that MathFunction.findMinimum(...) and findMaximum(...) used to do.
+     */
+    private static Extrema scan(MathFunction function, List<Double> criticalPoints, double domainMin, double domainMax) {
+        CompiledPolynomial f = function.compile();
+        double xMin = domainMin;
+        double xMax = domainMin;
+        double yMin = f.applyAsDouble(domainMin);
+        double yMax = yMin;
+        for (double critical : criticalPoints) {
+            if (critical <= domainMin) continue;
+            if (domainMax <= critical) break;
+            double y = f.applyAsDouble(critical);
+            if (y < yMin) {
+                xMin = critical;
+                yMin = y;
+            }
+            if (yMax < y) {
+                xMax = critical;
+                yMax = y;
+            }
+        }
+        double y = f.applyAsDouble(domainMax);
+        if (y < yMin) {
+            xMin = domainMax;
+            yMin = y;
+        }
+        if (yMax < y) {
+            xMax = domainMax;
+            yMax = y;
+        }
+        return new Extrema(xMin, yMin, xMax, yMax);
+    }
+
+    @Test
+    public void extremaMatchLinearScanOverManyWindows() {
+        // Arrange
+        MathFunction function = function();
+        List<Double> criticalPoints = function.differentiate().solve(MathContext.DECIMAL128);
+        MonotoneIndex index = function.monotoneIndex();
+        Random random = new Random(17);
+
+        for (int i = 0; i < 2000; ++i) {
+            double a = random.nextDouble() * 8 - 4;
+            double b = a + random.nextDouble() * 6;
+
+            // Act
+            Extrema actual = index.extrema(a, b);
+
+            // Assert
+            Extrema expected = scan(function, criticalPoints, a, b);
+            Assert.assertEquals(expected.argMin(), actual.argMin(), 0);
+            Assert.assertEquals(expected.argMax(), actual.argMax(), 0);
+            Assert.assertEquals(expected.min(), actual.min(), 0);
+            Assert.assertEquals(expected.max(), actual.max(), 0);
+        }
+    }
+
+    @Test
+    public void extremaAtCriticalPointEnds() {
+        // Arrange: x^3 - 3x has critical points at -1 and 1
+        MathFunction function = new MathFunction.Builder().addTerm(new Term(1, 3)).addTerm(new Term(-3, 1)).build();
+        MonotoneIndex index = function.monotoneIndex();
+
+        // Act
+        Extrema extrema = index.extrema(-1, 1);
+
+        // Assert
+        Assert.assertEquals(2, index.size());
+        Assert.assertEquals(1, extrema.argMin(), EPSILON);
+        Assert.assertEquals(-1, extrema.argMax(), EPSILON);
+        Assert.assertEquals(-2, extrema.min(), EPSILON);
+        Assert.assertEquals(2, extrema.max(), EPSILON);
+    }
+
+    @Test
+    public void solveMatchesSolvingTheShiftedFunction() {
+        // Arrange
+        MathFunction function = function();
+        MonotoneIndex index = function.monotoneIndex();
+
+        for (int c = -40; c <= 40; c += 5) {
+            MathFunction shifted = new MathFunction.Builder()
+                    .addTerms(function.getTerms()).addTerm(new Term(-c, 0))
+                    .build();
+
+            // Act
+            List<Double> actual = index.solve(c);
+
+            // Assert
+            List<Double> expected = shifted.solve(MathContext.DECIMAL128);
+            Assert.assertEquals("c = " + c, expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); ++i) {
+                Assert.assertEquals("c = " + c, expected.get(i), actual.get(i), EPSILON);
+            }
+        }
+    }
+
+    @Test
+    public void solveIncludesCriticalPointsAtTheLevel() {
+        // Arrange: x^3 - 3x is 2 at its local maximum x = -1, and at x = 2
+        MathFunction function = new MathFunction.Builder().addTerm(new Term(1, 3)).addTerm(new Term(-3, 1)).build();
+
+        // Act
+        List<Double> solutions = function.monotoneIndex().solve(2);
+
+        // Assert
+        Assert.assertEquals(2, solutions.size());
+        Assert.assertEquals(-1, solutions.get(0), EPSILON);
+        Assert.assertEquals(2, solutions.get(1), EPSILON);
+    }
+
+    @Test
+    public void solveFindsLargeSolutionsOfMonotoneFunctions() {
+        // Arrange: x^3 has no interior critical point to bracket with
+        MathFunction function = new MathFunction.Builder().addTerm(new Term(1, 3)).addTerm(new Term(1, 1)).build();
+
+        // Act
+        List<Double> solutions = function.monotoneIndex().solve(-1.0E18);
+
+        // Assert
+        Assert.assertEquals(1, solutions.size());
+        Assert.assertEquals(-1.0E6, solutions.get(0), 1.0E-6);
+    }
+
+    @Test
+    public void solveDoesNotCrossAPole() {
+        // Arrange: x + 1/x, which has a pole at 0 and takes no value in (-2, 2)
+        MathFunction function = new MathFunction.Builder().addTerm(new Term(1, 1)).addTerm(new Term(1, -1)).build();
+
+        // Act
+        List<Double> none = function.monotoneIndex().solve(0);
+        List<Double> solutions = function.monotoneIndex().solve(3);
+
+        // Assert
+        Assert.assertTrue(none.isEmpty());
+        Assert.assertEquals(2, solutions.size());
+        Assert.assertEquals((3 - Math.sqrt(5)) / 2, solutions.get(0), EPSILON);
+        Assert.assertEquals((3 + Math.sqrt(5)) / 2, solutions.get(1), EPSILON);
+    }
+
+    @Test
+    public void solveFindsSolutionsNextToAPole() {
+        // Arrange: 1/x, which has no critical points
+        MathFunction function = new MathFunction.Builder().addTerm(new Term(1, -1)).build();
+
+        // Act
+        List<Double> solutions = function.monotoneIndex().solve(1);
+
+        // Assert
+        Assert.assertEquals(1, solutions.size());
+        Assert.assertEquals(1, solutions.get(0), EPSILON);
+    }
+
+    @Test
+    public void fractionalExponentsStartTheDomainAtZero() {
+        // Arrange: x^(1/2)
+        MathFunction function = new MathFunction.Builder().addTerm(new Term(1, new Fraction(1, 2))).build();
+
+        // Act
+        List<Double> solutions = function.monotoneIndex().solve(2);
+        List<Double> zero = function.monotoneIndex().solve(0);
+        Extrema extrema = function.monotoneIndex().extrema(-4, 4);
+
+        // Assert
+        Assert.assertEquals(1, solutions.size());
+        Assert.assertEquals(4, solutions.get(0), EPSILON);
+        Assert.assertEquals(1, zero.size());
+        Assert.assertEquals(0, zero.get(0), 0);
+        Assert.assertEquals(0, extrema.argMin(), 0);
+        Assert.assertEquals(0, extrema.min(), 0);
+        Assert.assertEquals(4, extrema.argMax(), 0);
+        Assert.assertEquals(2, extrema.max(), EPSILON);
+    }
+
+    @Test
+    public void indexIsCachedUntilAddTerm() {
+        // Arrange
+        MathFunction function = function();
+        MonotoneIndex first = function.monotoneIndex();
+
+        // Act
+        MonotoneIndex second = function.monotoneIndex();
+        function.addTerm(new Term(1, 1));
+        MonotoneIndex third = function.monotoneIndex();
+
+        // Assert
+        Assert.assertSame(first, second);
+        Assert.assertNotSame(first, third);
+    }
+}
@@ -20,11 +20,11 @@ public class RandomFractionFactory implements FractionFactory {
             }
         }
 
-        return new Fraction(n, d);
+        return Fraction.valueOf(n, d);
     }
 
     public Fraction createExponent(int max) {
         int n = randomGenerator.generateInt(0, max);
-        return new Fraction(n, 1);
+        return Fraction.valueOf(n, 1);
     }
 }
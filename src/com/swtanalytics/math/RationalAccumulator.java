@@ -0,0 +1,146 @@
+package com.swtanalytics.math;
+
+import java.math.BigInteger;
+
+/**
+ * A mutable running sum of Fractions.
+ *
+ * Each addition is scaled onto a single common denominator, which only grows when an addend's
+ * denominator doesn't already divide it.  Nothing is reduced until toFraction() is called, so
+ * summing many values costs one GCD at the end (plus one whenever the common denominator has to
+ * grow), rather than one GCD per addition as with Fraction.add().
+ *
+ * Like Fraction, the sum is kept in 'long's until it overflows, and in BigIntegers after that.
+ */
+public class RationalAccumulator {
+    // The sum is num/den while bigNum is null, and bigNum/bigDen after that.  The denominator is
+    // always positive, but the pair is not necessarily in lowest terms.
+    private long num;
+    private long den;
+    private BigInteger bigNum;
+    private BigInteger bigDen;
+
+    public RationalAccumulator() {
+        clear();
+    }
+
+    public RationalAccumulator(Fraction initialValue) {
+        clear();
+        add(initialValue);
+    }
+
+    /**
+     * Resets the sum to zero, so that this accumulator can be reused.
+     */
+    public void clear() {
+        num = 0;
+        den = 1;
+        bigNum = null;
+        bigDen = null;
+    }
+
+    public RationalAccumulator add(Fraction f) {
+        if (f.isLongForm()) {
+            addRatio(f.num, f.den);
+        } else {
+            addRatio(f.bigNum, f.bigDen);
+        }
+        return this;
+    }
+
+    public RationalAccumulator subtract(Fraction f) {
+        // Negating f.num can't overflow, because Fraction never holds Long.MIN_VALUE there.
+        if (f.isLongForm()) {
+            addRatio(-f.num, f.den);
+        } else {
+            addRatio(f.bigNum.negate(), f.bigDen);
+        }
+        return this;
+    }
+
+    /**
+     * Adds the product a * b, without building (or reducing) the product as a Fraction first.
+     */
+    public RationalAccumulator addProduct(Fraction a, Fraction b) {
+        if (a.isLongForm() && b.isLongForm()) {
+            try {
+                addRatio(Math.multiplyExact(a.num, b.num), Math.multiplyExact(a.den, b.den));
+                return this;
+            } catch (ArithmeticException e) {
+                // Overflow; fall through to BigInteger.
+            }
+        }
+
+        addRatio(a.numerator().multiply(b.numerator()), a.denominator().multiply(b.denominator()));
+        return this;
+    }
+
+    /**
+     * @return True if the sum is currently zero.  This is cheap, because a zero numerator means a
+     * zero sum whether or not the pair is reduced.
+     */
+    public boolean isZero() {
+        return (bigNum == null) ? (num == 0) : (bigNum.signum() == 0);
+    }
+
+    /**
+     * @return The sum so far, in lowest terms.  The accumulator is left unchanged.
+     */
+    public Fraction toFraction() {
+        if (bigNum == null) {
+            return Fraction.valueOf(num, den);
+        }
+        return Fraction.valueOf(bigNum, bigDen);
+    }
+
+    /**
+     * Adds n/d, where d > 0 and n/d need not be in lowest terms.
+     */
+    private void addRatio(long n, long d) {
+        if (bigNum == null) {
+            try {
+                if (d == den) {
+                    num = Math.addExact(num, n);
+                } else if (den % d == 0) {
+                    num = Math.addExact(num, Math.multiplyExact(n, den / d));
+                } else {
+                    // Grow the common denominator to lcm(den, d).
+                    long g = Fraction.gcd(den, d);
+                    long newNum = Math.addExact(Math.multiplyExact(num, d / g), Math.multiplyExact(n, den / g));
+                    long newDen = Math.multiplyExact(den, d / g);
+                    num = newNum;
+                    den = newDen;
+                }
+                return;
+            } catch (ArithmeticException e) {
+                // Overflow; switch to BigInteger for good.
+                bigNum = BigInteger.valueOf(num);
+                bigDen = BigInteger.valueOf(den);
+            }
+        }
+
+        addRatio(BigInteger.valueOf(n), BigInteger.valueOf(d));
+    }
+
+    private void addRatio(BigInteger n, BigInteger d) {
+        if (bigNum == null) {
+            bigNum = BigInteger.valueOf(num);
+            bigDen = BigInteger.valueOf(den);
+        }
+
+        if (d.equals(bigDen)) {
+            bigNum = bigNum.add(n);
+            return;
+        }
+
+        BigInteger[] quotientAndRemainder = bigDen.divideAndRemainder(d);
+        if (quotientAndRemainder[1].signum() == 0) {
+            bigNum = bigNum.add(n.multiply(quotientAndRemainder[0]));
+        } else {
+            BigInteger g = bigDen.gcd(d);
+            BigInteger dOverG = d.divide(g);
+            bigNum = bigNum.multiply(dOverG).add(n.multiply(bigDen.divide(g)));
+            bigDen = bigDen.multiply(dOverG);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.swtanalytics.math;
+
+import java.math.BigInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class RationalAccumulatorTest {
+    @Test
+    public void emptyAccumulatorIsZero() {
+        RationalAccumulator accumulator = new RationalAccumulator();
+
+        Assert.assertTrue(accumulator.isZero());
+        Assert.assertEquals(Fraction.ZERO, accumulator.toFraction());
+    }
+
+    @Test
+    public void sumOfMixedDenominatorsIsReduced() {
+        // Arrange
+        RationalAccumulator accumulator = new RationalAccumulator(new Fraction(1, 2));
+
+        // Act
+        accumulator.add(new Fraction(1, 3)).add(new Fraction(1, 6)).add(new Fraction(-3, 4));
+
+        // Assert
+        Assert.assertEquals(new Fraction(1, 4), accumulator.toFraction());
+    }
+
+    @Test
+    public void matchesRepeatedFractionAdd() {
+        RationalAccumulator accumulator = new RationalAccumulator();
+        Fraction expected = Fraction.ZERO;
+
+        for (int n = -50; n < 50; ++n) {
+            for (int d = 1; d < 50; d += 7) {
+                Fraction f = new Fraction(n, d);
+                accumulator.add(f);
+                expected = expected.add(f);
+            }
+        }
+
+        Assert.assertEquals(expected, accumulator.toFraction());
+    }
+
+    @Test
+    public void subtractAndCancelToZero() {
+        RationalAccumulator accumulator = new RationalAccumulator();
+
+        accumulator.add(new Fraction(2, 7)).add(new Fraction(5, 3));
+        accumulator.subtract(new Fraction(5, 3)).subtract(new Fraction(2, 7));
+
+        Assert.assertTrue(accumulator.isZero());
+        Assert.assertSame(Fraction.ZERO, accumulator.toFraction());
+    }
+
+    @Test
+    public void addProductMatchesFractionMultiply() {
+        RationalAccumulator accumulator = new RationalAccumulator();
+
+        accumulator.addProduct(new Fraction(2, 3), new Fraction(9, 4)).addProduct(new Fraction(-1, 5), new Fraction(5, 2));
+
+        Assert.assertEquals(new Fraction(1, 1), accumulator.toFraction());
+    }
+
+    @Test
+    public void overflowPromotesToBigInteger() {
+        RationalAccumulator accumulator = new RationalAccumulator();
+        Fraction max = new Fraction(Long.MAX_VALUE);
+
+        accumulator.add(max).add(max).add(new Fraction(1L, Long.MAX_VALUE - 1));
+        accumulator.addProduct(max, max);
+
+        BigInteger bigMax = BigInteger.valueOf(Long.MAX_VALUE);
+        Fraction expected = max.add(max).add(new Fraction(1L, Long.MAX_VALUE - 1)).add(max.multiply(max));
+        Assert.assertEquals(expected, accumulator.toFraction());
+
+        accumulator.subtract(expected).add(new Fraction(bigMax));
+        Assert.assertEquals(max, accumulator.toFraction());
+    }
+
+    @Test
+    public void clearResetsToZero() {
+        RationalAccumulator accumulator = new RationalAccumulator(new Fraction(Long.MAX_VALUE));
+        accumulator.add(new Fraction(Long.MAX_VALUE));
+
+        accumulator.clear();
+        accumulator.add(new Fraction(1, 3));
+
+        Assert.assertEquals(new Fraction(1, 3), accumulator.toFraction());
+    }
+}
@@ -0,0 +1,221 @@
+package com.swtanalytics.math;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Finds the rational roots of an integer polynomial with the rational root theorem: each is r/s in
+ * lowest terms, where r divides the constant coefficient and s the leading one.
+ *
+ * The candidates are first filtered by the root bound and by two cheap divisibility tests, since
+ * (s - r) divides p(1) and (s + r) divides p(-1) for every root.  Survivors are confirmed by
+ * synthetic division, which also deflates the root out of the polynomial; the division is then
+ * repeated for as long as it's exact, so repeated roots come out completely.
+ *
+ * The search is skipped for polynomials of high degree or with large coefficients, and 1 and -1
+ * are tried, and p(1) and p(-1) bound the rest, before any coefficient is factored.
+ *
+ * Coefficients are only factored by trial division up to a small limit, and any cofactor left over
+ * is treated as if it were prime, so a root can occasionally be missed, but never invented.  The
+ * numeric solvers find the roots that are missed.
+ */
+final class RationalRoots {
+    // Trial division stops here; larger prime factors are rare in generated coefficients.
+    private static final int TRIAL_DIVISION_LIMIT = 1 << 10;
+
+    // Beyond this many (r, s) pairs, the search costs more than it saves.
+    private static final int MAX_CANDIDATES = 1 << 16;
+
+    // Random coefficients seldom give rational roots, and the larger the polynomial, the less likely
+    // they are and the more the search costs, so beyond these it isn't tried.
+    private static final int MAX_DEGREE = 48;
+    private static final int MAX_COEFFICIENT_BITS = 128;
+
+    private RationalRoots() {
+    }
+
+    /**
+     * Appends the distinct rational roots of @c p to @c roots, in no particular order.
+     * @return @c p with every one of those roots divided out, to its full multiplicity.  A @c p of
+     * high degree or with large coefficients is returned as is, without searching.
+     */
+    static IntegerPolynomial deflate(IntegerPolynomial p, List<Fraction> roots) {
+        if (p.degree() <= 0 || p.degree() > MAX_DEGREE || p.coefficientBitLength() > MAX_COEFFICIENT_BITS) {
+            return p;
+        }
+
+        IntegerPolynomial quotient = p;
+        if (quotient.coefficient(0).signum() == 0) {
+            // Zero is a root; the rational root theorem needs a non-zero constant term.
+            roots.add(Fraction.ZERO);
+            while (quotient.degree() > 0 && quotient.coefficient(0).signum() == 0) {
+                quotient = quotient.deflate(BigInteger.ZERO, BigInteger.ONE);
+            }
+        }
+
+        // 1 and -1 are roots exactly when p(1) and p(-1) vanish, which takes no factoring to check.
+        if (quotient.degree() > 0 && quotient.valueAtOne().signum() == 0) {
+            quotient = deflateFully(quotient, BigInteger.ONE, BigInteger.ONE, roots);
+        }
+        if (quotient.degree() > 0 && quotient.valueAtMinusOne().signum() == 0) {
+            quotient = deflateFully(quotient, BigInteger.ONE.negate(), BigInteger.ONE, roots);
+        }
+        if (quotient.degree() <= 0) {
+            return quotient;
+        }
+
+        // Now p(1) and p(-1) are non-zero, so |s - r| + |s + r| = 2 max(|r|, s) is at most
+        // |p(1)| + |p(-1)|.  That often rules out every other candidate before anything is factored.
+        BigInteger atOne = quotient.valueAtOne();
+        BigInteger atMinusOne = quotient.valueAtMinusOne();
+        BigInteger limit = atOne.abs().add(atMinusOne.abs()).shiftRight(1);
+        if (limit.compareTo(BigInteger.valueOf(2)) < 0) {
+            return quotient;
+        }
+
+        List<BigInteger> numerators = divisors(quotient.coefficient(0).abs(), MAX_CANDIDATES, limit);
+        if (numerators == null) {
+            return quotient;
+        }
+        List<BigInteger> denominators = divisors(quotient.leadingCoefficient().abs(), MAX_CANDIDATES / numerators.size(), limit);
+        if (denominators == null) {
+            return quotient;
+        }
+
+        int k = quotient.rootBoundExponent();
+        for (BigInteger s : denominators) {
+            BigInteger bound = s.shiftLeft(k);
+            for (BigInteger magnitude : numerators) {
+                if (magnitude.compareTo(bound) >= 0) {
+                    break; // The divisors ascend
+                }
+                if (!magnitude.gcd(s).equals(BigInteger.ONE)) {
+                    continue;
+                }
+                for (int sign = -1; sign <= 1; sign += 2) {
+                    BigInteger r = (sign < 0) ? magnitude.negate() : magnitude;
+                    if (!divides(s.subtract(r), atOne) || !divides(s.add(r), atMinusOne)) {
+                        continue;
+                    }
+
+                    IntegerPolynomial deflated = deflateFully(quotient, r, s, roots);
+                    if (deflated == quotient) {
+                        continue;
+                    }
+                    quotient = deflated;
+                    if (quotient.degree() <= 0) {
+                        return quotient;
+                    }
+                    atOne = quotient.valueAtOne();
+                    atMinusOne = quotient.valueAtMinusOne();
+                }
+            }
+        }
+        return quotient;
+    }
+
+    /**
+     * Divides r/s out of @c p to its full multiplicity, and appends it to @c roots, if it's a root.
+     * @return The quotient, or @c p itself if r/s isn't a root.
+     */
+    private static IntegerPolynomial deflateFully(IntegerPolynomial p, BigInteger r, BigInteger s, List<Fraction> roots) {
+        IntegerPolynomial deflated = p.deflate(r, s);
+        if (deflated == null) {
+            return p;
+        }
+        roots.add(Fraction.valueOf(r, s));
+        IntegerPolynomial quotient;
+        do {
+            quotient = deflated;
+            deflated = quotient.deflate(r, s);
+        } while (deflated != null);
+        return quotient;
+    }
+
+    /**
+     * @return True if @c d divides @c n, taking 0 to divide only 0.
+     */
+    private static boolean divides(BigInteger d, BigInteger n) {
+        if (d.signum() == 0) {
+            return n.signum() == 0;
+        }
+        return n.remainder(d).signum() == 0;
+    }
+
+    /**
+     * @return The positive divisors of @c n (which is positive) in ascending order, as far as trial
+     * division finds them.
+     */
+    static List<BigInteger> divisors(BigInteger n) {
+        return divisors(n, Integer.MAX_VALUE, n);
+    }
+
+    /**
+     * @return The divisors(n) no greater than @c limit, or null if there are more than @c maxCount
+     * divisors in all.  Up to a small limit, the candidates are simply tried; otherwise @c n is
+     * factored, and the count is checked before each prime's powers are multiplied out, so a highly
+     * composite @c n, such as the factorial-laden coefficients of a high derivative, costs no more
+     * than the limit.
+     */
+    private static List<BigInteger> divisors(BigInteger n, int maxCount, BigInteger limit) {
+        if (limit.compareTo(BigInteger.valueOf(TRIAL_DIVISION_LIMIT)) <= 0) {
+            List<BigInteger> divisors = new ArrayList<BigInteger>();
+            for (int d = 1; d <= limit.intValue(); ++d) {
+                BigInteger candidate = BigInteger.valueOf(d);
+                if (n.remainder(candidate).signum() == 0) {
+                    if (divisors.size() == maxCount) {
+                        return null;
+                    }
+                    divisors.add(candidate);
+                }
+            }
+            return divisors;
+        }
+
+        List<BigInteger> divisors = new ArrayList<BigInteger>();
+        divisors.add(BigInteger.ONE);
+        BigInteger rest = n;
+        for (int d = 2; d <= TRIAL_DIVISION_LIMIT && rest.compareTo(BigInteger.ONE) > 0; ++d) {
+            BigInteger factor = BigInteger.valueOf(d);
+            int multiplicity = 0;
+            BigInteger[] qr = rest.divideAndRemainder(factor);
+            while (qr[1].signum() == 0) {
+                rest = qr[0];
+                ++multiplicity;
+                qr = rest.divideAndRemainder(factor);
+            }
+            if ((long) divisors.size() * (multiplicity + 1) > maxCount) {
+                return null;
+            }
+            multiplyOut(divisors, factor, multiplicity);
+        }
+        if (rest.compareTo(BigInteger.ONE) > 0) {
+            if ((long) divisors.size() * 2 > maxCount) {
+                return null;
+            }
+            multiplyOut(divisors, rest, 1);
+        }
+        Collections.sort(divisors);
+        int count = divisors.size();
+        while (count > 0 && divisors.get(count - 1).compareTo(limit) > 0) {
+            --count;
+        }
+        return divisors.subList(0, count);
+    }
+
+    /**
+     * Extends @c divisors with their products with factor^1 .. factor^multiplicity.
+     */
+    private static void multiplyOut(List<BigInteger> divisors, BigInteger factor, int multiplicity) {
+        int count = divisors.size();
+        BigInteger power = BigInteger.ONE;
+        for (int m = 1; m <= multiplicity; ++m) {
+            power = power.multiply(factor);
+            for (int i = 0; i < count; ++i) {
+                divisors.add(divisors.get(i).multiply(power));
+            }
+        }
+    }
+}
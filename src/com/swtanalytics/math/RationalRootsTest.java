@@ -0,0 +1,99 @@
+package com.swtanalytics.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class RationalRootsTest {
+    @Test
+    public void divisorsAscend() {
+        List<BigInteger> expected = new ArrayList<BigInteger>();
+        for (long d : new long[] { 1, 2, 3, 4, 5, 6, 8, 9, 10, 12, 15, 18, 20, 24, 30, 36, 40, 45, 60, 72, 90, 120, 180, 360 }) {
+            expected.add(BigInteger.valueOf(d));
+        }
+
+        Assert.assertEquals(expected, RationalRoots.divisors(BigInteger.valueOf(360)));
+    }
+
+    @Test
+    public void deflatesEveryRationalRootToItsFullMultiplicity() {
+        // Arrange: (2x - 1)(3x + 2)(x - 5)^2 (x^2 + 1)
+        IntegerPolynomial p = IntegerPolynomial.of(-50, 45, 88, -14, 144, -59, 6);
+        List<Fraction> roots = new ArrayList<Fraction>();
+
+        // Act
+        IntegerPolynomial quotient = RationalRoots.deflate(p, roots);
+
+        // Assert
+        Collections.sort(roots);
+        Assert.assertEquals(Arrays.asList(new Fraction(-2, 3), new Fraction(1, 2), new Fraction(5)), roots);
+        Assert.assertEquals(IntegerPolynomial.of(1, 0, 1), quotient);
+    }
+
+    @Test
+    public void leavesIrrationalRootsAlone() {
+        // Arrange: x^2 - 2
+        IntegerPolynomial p = IntegerPolynomial.of(-2, 0, 1);
+        List<Fraction> roots = new ArrayList<Fraction>();
+
+        // Act
+        IntegerPolynomial quotient = RationalRoots.deflate(p, roots);
+
+        // Assert
+        Assert.assertTrue(roots.isEmpty());
+        Assert.assertEquals(p, quotient);
+    }
+
+    @Test
+    public void syntheticDivisionRejectsNonRoots() {
+        // (x^2 - 1) / (x - 1) = x + 1, but x - 2 doesn't divide it
+        IntegerPolynomial p = IntegerPolynomial.of(-1, 0, 1);
+
+        Assert.assertEquals(IntegerPolynomial.of(1, 1), p.deflate(BigInteger.ONE, BigInteger.ONE));
+        Assert.assertNull(p.deflate(BigInteger.valueOf(2), BigInteger.ONE));
+        Assert.assertNull(p.deflate(BigInteger.ONE, BigInteger.valueOf(2)));
+    }
+
+    @Test
+    public void solveReturnsRationalRootsExactly() {
+        // Arrange: (3x - 1)^3 (x^2 - 2), whose triple root defeats Newton's method
+        MathFunction function = IntegerPolynomial.of(2, -18, 53, -45, -27, 27).toMathFunction();
+
+        // Act
+        List<Double> solutions = function.solve(MathContext.DECIMAL128);
+
+        // Assert
+        Assert.assertEquals(3, solutions.size());
+        Assert.assertEquals(-Math.sqrt(2), solutions.get(0), 1.0E-12);
+        Assert.assertEquals(1.0 / 3, solutions.get(1), 0);
+        Assert.assertEquals(Math.sqrt(2), solutions.get(2), 1.0E-12);
+    }
+
+    @Test
+    public void highDerivativesWithHighlyCompositeCoefficientsAreSkippedQuickly() {
+        // Arrange: the 30th derivative of x^60 + x^30 is 60!/30! x^30 + 30!, whose constant
+        // coefficient alone has millions of divisors
+        MathFunction function = new MathFunction.Builder()
+                .addTerm(new Term(1, 60)).addTerm(new Term(1, 30))
+                .build();
+        for (int k = 0; k < 30; ++k) {
+            function = function.differentiate();
+        }
+        List<Fraction> roots = new ArrayList<Fraction>();
+
+        // Act
+        RationalRoots.deflate(function.exact().toIntegerPolynomial(), roots);
+
+        // Assert
+        Assert.assertTrue(roots.isEmpty());
+    }
+}
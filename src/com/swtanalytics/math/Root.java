@@ -0,0 +1,54 @@
+package com.swtanalytics.math;
+
+/**
+ * A real root of a function and its multiplicity, as returned by MathFunction.solveWithMultiplicities(...).
+ */
+public final class Root implements Comparable<Root> {
+    private final double value;
+    private final int multiplicity;
+
+    public Root(double value, int multiplicity) {
+        this.value = value;
+        this.multiplicity = multiplicity;
+    }
+
+    public double value() {
+        return value;
+    }
+
+    /**
+     * @return How many times the root is repeated: 1 for a simple root, where the function crosses
+     * zero; 2 for a double root, where it touches zero; and so on.
+     */
+    public int multiplicity() {
+        return multiplicity;
+    }
+
+    /**
+     * Orders by value.
+     */
+    @Override
+    public int compareTo(Root r) {
+        return Double.compare(value, r.value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Root)) return false;
+
+        Root root = (Root) o;
+
+        return Double.compare(value, root.value) == 0 && multiplicity == root.multiplicity;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(value) + multiplicity;
+    }
+
+    @Override
+    public String toString() {
+        return (multiplicity == 1) ? Double.toString(value) : value + " (x" + multiplicity + ")";
+    }
+}
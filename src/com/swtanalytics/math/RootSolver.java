@@ -0,0 +1,14 @@
+package com.swtanalytics.math;
+
+import java.math.MathContext;
+import java.util.List;
+
+/**
+ * A strategy for finding the real roots of a MathFunction.  See MathFunction.solve(RootSolver, MathContext).
+ */
+public interface RootSolver {
+    /**
+     * @return The distinct real roots of @c function, in ascending order.
+     */
+    List<Double> solve(MathFunction function, MathContext mc);
+}
@@ -0,0 +1,183 @@
+package com.swtanalytics.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class RootSolverTest {
+    private static final RootSolver STURM = new SturmRootSolver();
+    private static final DescartesRootSolver DESCARTES = new DescartesRootSolver();
+
+    /**
+     * @return The product of (x - r) over @c roots.
+     */
+    private static MathFunction withRoots(Fraction... roots) {
+        MathFunction result = new MathFunction();
+        result.addTerm(new Term(1, 0));
+        for (Fraction r : roots) {
+            MathFunction factor = new MathFunction();
+            factor.addTerm(new Term(1, 1));
+            factor.addTerm(new Term(r.negate(), 0));
+            result = result.multiply(factor);
+        }
+        return result;
+    }
+
+    private static void assertRoots(double[] expected, List<Double> actual, double epsilon) {
+        Assert.assertEquals(actual.toString(), expected.length, actual.size());
+        for (int i = 0; i < expected.length; ++i) {
+            Assert.assertEquals(actual.toString(), expected[i], actual.get(i), epsilon);
+        }
+    }
+
+    @Test
+    public void separatesClusteredRoots() {
+        // Three roots within 2e-9 of each other, which double-precision sign checks can't tell apart
+        Fraction base = new Fraction(1, 3);
+        Fraction gap = new Fraction(BigInteger.ONE, BigInteger.valueOf(1000000000L));
+        MathFunction function = withRoots(base, base.add(gap), base.add(gap).add(gap), new Fraction(-2));
+
+        List<Double> roots = function.solve(STURM, MathContext.DECIMAL128);
+
+        assertRoots(new double[] { -2, 1.0 / 3, 1.0 / 3 + 1.0E-9, 1.0 / 3 + 2.0E-9 }, roots, 1.0E-15);
+    }
+
+    @Test
+    public void reportsRepeatedRootsOnce() {
+        // (x - 1)^3 (x + 2)^2 x
+        MathFunction function = withRoots(Fraction.ONE, Fraction.ONE, Fraction.ONE, new Fraction(-2), new Fraction(-2), Fraction.ZERO);
+
+        assertRoots(new double[] { -2, 0, 1 }, function.solve(STURM, MathContext.DECIMAL128), 0.0);
+    }
+
+    @Test
+    public void solvesHighDegreePolynomials() {
+        // The roots 1/10, 2/10, ..., 30/10, and x^100 - 1 (roots -1 and 1)
+        Fraction[] roots = new Fraction[30];
+        double[] expected = new double[30];
+        for (int i = 0; i < 30; ++i) {
+            roots[i] = new Fraction(i + 1, 10);
+            expected[i] = (i + 1) / 10.0;
+        }
+        assertRoots(expected, withRoots(roots).solve(STURM, MathContext.DECIMAL128), 1.0E-12);
+
+        MathFunction function = new MathFunction();
+        function.addTerm(new Term(1, 100));
+        function.addTerm(new Term(-1, 0));
+        assertRoots(new double[] { -1, 1 }, function.solve(STURM, MathContext.DECIMAL128), 0.0);
+    }
+
+    @Test
+    public void handlesNegativeExponents() {
+        // x - 4/x has roots at -2 and 2, and is undefined (not zero) at 0.
+        MathFunction function = new MathFunction();
+        function.addTerm(new Term(1, 1));
+        function.addTerm(new Term(-4, -1));
+
+        assertRoots(new double[] { -2, 2 }, function.solve(STURM, MathContext.DECIMAL128), 0.0);
+    }
+
+    @Test
+    public void agreesWithCriticalPointSolver() {
+        RandomGenerator randomGenerator = new SeededRandomGenerator(31337);
+        MathFunctionFactory factory = new MathFunctionFactory(
+                new RandomTermFactory(new RandomFractionFactory(randomGenerator)), randomGenerator);
+        RootSolver criticalPoints = new CriticalPointRootSolver();
+
+        for (int i = 0; i < 100; ++i) {
+            MathFunction function = factory.create(false, randomGenerator.generateInt(1, 6), 9, false);
+            List<Double> expected = function.solve(criticalPoints, MathContext.DECIMAL128);
+            List<Double> actual = function.solve(STURM, MathContext.DECIMAL128);
+
+            Assert.assertEquals(function.toString(), expected.size(), actual.size());
+            for (int j = 0; j < expected.size(); ++j) {
+                Assert.assertEquals(function.toString(), expected.get(j), actual.get(j), 1.0E-9);
+            }
+        }
+    }
+
+    @Test
+    public void fallsBackForFractionalExponents() {
+        final MathFunction function = new MathFunction();
+        function.addTerm(new Term(1, new Fraction(1, 2)));
+        final List<Double> marker = Arrays.asList(42.0);
+
+        List<Double> roots = new SturmRootSolver(new RootSolver() {
+            @Override
+            public List<Double> solve(MathFunction f, MathContext mc) {
+                Assert.assertSame(function, f);
+                return marker;
+            }
+        }).solve(function, MathContext.DECIMAL128);
+
+        Assert.assertSame(marker, roots);
+    }
+
+    @Test
+    public void descartesSeparatesClusteredRoots() {
+        Fraction base = new Fraction(1, 3);
+        Fraction gap = new Fraction(BigInteger.ONE, BigInteger.valueOf(1000000000L));
+        MathFunction function = withRoots(base, base.add(gap), base.add(gap).add(gap), new Fraction(-2));
+
+        List<Double> roots = function.solve(DESCARTES, MathContext.DECIMAL128);
+
+        assertRoots(new double[] { -2, 1.0 / 3, 1.0 / 3 + 1.0E-9, 1.0 / 3 + 2.0E-9 }, roots, 1.0E-15);
+    }
+
+    @Test
+    public void descartesIntervalsIsolateEachRoot() {
+        // Roots at -3/2, 0, 1/7, 1/2 (a bisection point), 1, 1 (repeated) and 5
+        MathFunction function = withRoots(new Fraction(-3, 2), Fraction.ZERO, new Fraction(1, 7), new Fraction(1, 2),
+                Fraction.ONE, Fraction.ONE, new Fraction(5));
+        double[] expected = { -1.5, 0, 1.0 / 7, 0.5, 1, 5 };
+
+        List<Fraction[]> intervals = DESCARTES.isolate(function);
+
+        Assert.assertEquals(expected.length, intervals.size());
+        for (int i = 0; i < expected.length; ++i) {
+            Fraction a = intervals.get(i)[0];
+            Fraction b = intervals.get(i)[1];
+            if (a.equals(b)) {
+                Assert.assertEquals(Fraction.ZERO, function.evaluateExact(a));
+                Assert.assertEquals(expected[i], a.doubleValue(), 0.0);
+            } else {
+                Assert.assertTrue(a.doubleValue() < expected[i] && expected[i] < b.doubleValue());
+            }
+        }
+        Assert.assertTrue(intervals.get(1)[0].equals(Fraction.ZERO) && intervals.get(1)[1].equals(Fraction.ZERO));
+        assertRoots(expected, function.solve(DESCARTES, MathContext.DECIMAL128), 1.0E-15);
+    }
+
+    @Test
+    public void descartesAgreesWithSturmOnSparseHighDegreeFunctions() {
+        RandomGenerator randomGenerator = new SeededRandomGenerator(4242);
+        MathFunctionFactory factory = new MathFunctionFactory(
+                new RandomTermFactory(new RandomFractionFactory(randomGenerator)), randomGenerator);
+
+        for (int i = 0; i < 40; ++i) {
+            MathFunction function = factory.create(false, randomGenerator.generateInt(2, 8), 60, false);
+            List<Double> expected = function.solve(STURM, MathContext.DECIMAL128);
+            List<Double> actual = function.solve(DESCARTES, MathContext.DECIMAL128);
+
+            Assert.assertEquals(function.toString(), expected.size(), actual.size());
+            for (int j = 0; j < expected.size(); ++j) {
+                Assert.assertEquals(function.toString(), expected.get(j), actual.get(j), 1.0E-14 * Math.max(1, Math.abs(expected.get(j))));
+            }
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void descartesIsolationRejectsFractionalExponents() {
+        MathFunction function = new MathFunction();
+        function.addTerm(new Term(1, new Fraction(1, 2)));
+
+        DESCARTES.isolate(function);
+    }
+}
@@ -0,0 +1,108 @@
+package com.swtanalytics.math;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The budget and counters for a single call to MathFunction.solve(SolveOptions), shared by the
+ * solves of every derivative it recurses into.  Not thread-safe: spans refined in parallel each get
+ * a fork(), which shares the iteration budget and the deadline but counts separately, and is
+ * merged back when it's done.
+ */
+final class SolveContext {
+    // How many steps go by between checks of the clock
+    private static final int CLOCK_INTERVAL = 16;
+
+    final SolveOptions options;
+    private final long start;
+    private final long deadline;
+    private final AtomicLong iterations;
+
+    long newtonSteps;
+    long bisectionSteps;
+    long evaluations;
+    private long steps;
+    private boolean exhausted;
+    private boolean complete = true;
+
+    SolveContext(SolveOptions options) {
+        this.options = options;
+        this.start = System.nanoTime();
+        // Saturate, rather than overflow, for the default "no timeout"
+        long timeout = options.timeoutNanos();
+        this.deadline = (timeout > Long.MAX_VALUE - start) ? Long.MAX_VALUE : start + timeout;
+        this.iterations = new AtomicLong();
+    }
+
+    private SolveContext(SolveContext parent) {
+        this.options = parent.options;
+        this.start = parent.start;
+        this.deadline = parent.deadline;
+        this.iterations = parent.iterations;
+    }
+
+    /**
+     * @return A context for another thread, sharing this one's budget and deadline.
+     */
+    SolveContext fork() {
+        return new SolveContext(this);
+    }
+
+    /**
+     * Adds a fork's counters to this context's.
+     */
+    synchronized void merge(SolveContext fork) {
+        newtonSteps += fork.newtonSteps;
+        bisectionSteps += fork.bisectionSteps;
+        evaluations += fork.evaluations;
+        complete &= fork.complete;
+    }
+
+    /**
+     * Clears the counters, the iterations used and the incomplete mark, so that BatchAnalyzer and
+     * FamilySolver can reuse one context per function without allocating.  The deadline stays, so
+     * it's only for contexts without a timeout.
+     */
+    void reset() {
+        assert options.timeoutNanos() == Long.MAX_VALUE;
+        newtonSteps = 0;
+        bisectionSteps = 0;
+        evaluations = 0;
+        iterations.set(0);
+        steps = 0;
+        exhausted = false;
+        complete = true;
+    }
+
+    /**
+     * Counts an iteration.
+     * @return False if the budget or the timeout has run out, in which case the caller should stop
+     * with its best estimate.
+     */
+    boolean step() {
+        if (exhausted) {
+            return false;
+        }
+        if (iterations.getAndIncrement() >= options.maxIterations()
+                || (steps++ % CLOCK_INTERVAL == 0 && deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0)) {
+            exhausted = true;
+            complete = false;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records that a result is missing or short of the tolerance for some other reason.
+     */
+    void markIncomplete() {
+        complete = false;
+    }
+
+    synchronized boolean isComplete() {
+        return complete;
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - start;
+    }
+}
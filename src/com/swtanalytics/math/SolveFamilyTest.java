@@ -0,0 +1,159 @@
+package com.swtanalytics.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.math.MathContext;
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class SolveFamilyTest {
+    private static final double EPSILON = 1.0E-9;
+
+    private static double[] sweep(double from, double to, int steps) {
+        double[] ts = new double[steps + 1];
+        for (int i = 0; i <= steps; ++i) {
+            ts[i] = from + (to - from) * i / steps;
+        }
+        return ts;
+    }
+
+    private static MathFunction member(MathFunction f, MathFunction g, double t) {
+        MathFunction.Builder builder = new MathFunction.Builder().addTerms(f.getTerms());
+        for (Term term : g.getTerms()) {
+            builder.addTerm(term.coefficient.multiply(Fraction.valueOf(t)), term.exponent);
+        }
+        return builder.build();
+    }
+
+    private static void assertMatchesIndependentSolves(MathFunction f, MathFunction g, double[] ts) {
+        // Act
+        List<List<Double>> family = f.solveFamily(g, ts);
+
+        // Assert
+        Assert.assertEquals(ts.length, family.size());
+        for (int i = 0; i < ts.length; ++i) {
+            List<Double> expected = member(f, g, ts[i]).solve(MathContext.DECIMAL128);
+            List<Double> actual = family.get(i);
+            Assert.assertEquals("t = " + ts[i], expected.size(), actual.size());
+            for (int j = 0; j < expected.size(); ++j) {
+                Assert.assertEquals("t = " + ts[i], expected.get(j), actual.get(j), EPSILON * Math.max(1, Math.abs(expected.get(j))));
+            }
+        }
+    }
+
+    @Test
+    public void rootsAppearAndDisappearAsCriticalValuesCrossZero() {
+        // Arrange: x^5 - 5x^3 + 4x + t has five real roots for small |t|, and fewer as the
+        // critical values pass through zero
+        MathFunction f = new MathFunction.Builder()
+                .addTerm(new Term(1, 5)).addTerm(new Term(-5, 3)).addTerm(new Term(4, 1))
+                .build();
+        MathFunction g = new MathFunction.Builder().addTerm(new Term(1, 0)).build();
+
+        // Act & Assert
+        assertMatchesIndependentSolves(f, g, sweep(-6, 6, 600));
+    }
+
+    @Test
+    public void degreeDropsWhereTheLeadingTermsCancel() {
+        // Arrange: x^5 - 5x^3 + 4x + t x^5, which is a cubic at t = -1
+        MathFunction f = new MathFunction.Builder()
+                .addTerm(new Term(1, 5)).addTerm(new Term(-5, 3)).addTerm(new Term(4, 1))
+                .build();
+        MathFunction g = new MathFunction.Builder().addTerm(new Term(1, 5)).build();
+
+        // Act & Assert
+        assertMatchesIndependentSolves(f, g, sweep(-2, 0, 200));
+    }
+
+    @Test
+    public void repeatedRootsAtTangencies() {
+        // Arrange: x^2 - t has a double root at t = 0, and x^3 + t x^2 one at zero throughout
+        MathFunction square = new MathFunction.Builder().addTerm(new Term(1, 2)).build();
+        MathFunction cube = new MathFunction.Builder().addTerm(new Term(1, 3)).build();
+        MathFunction minusOne = new MathFunction.Builder().addTerm(new Term(-1, 0)).build();
+        double[] ts = sweep(-1, 1, 8);
+
+        // Act
+        List<List<Double>> squares = square.solveFamily(minusOne, ts);
+        List<List<Double>> cubes = cube.solveFamily(square, ts);
+
+        // Assert
+        Assert.assertTrue(squares.get(3).isEmpty());
+        Assert.assertEquals(1, squares.get(4).size());
+        Assert.assertEquals(0, squares.get(4).get(0), 0);
+        Assert.assertEquals(2, squares.get(5).size());
+        Assert.assertEquals(Math.sqrt(0.25), squares.get(5).get(1), EPSILON);
+        assertMatchesIndependentSolves(cube, square, ts);
+    }
+
+    @Test
+    public void doubleRootsAtInexactCriticalPoints() {
+        // Arrange: 25x^3 - 35x^2 - 369x - 405 + t = (x + 1.8)^2 (25x - 125) + t, whose roots at -1.8
+        // appear in a pair at t = 0; and (x + 1.8)^2 (25x - 125 + 25t), which keeps its double root
+        MathFunction f = new MathFunction.Builder()
+                .addTerm(new Term(25, 3)).addTerm(new Term(-35, 2)).addTerm(new Term(-369, 1)).addTerm(new Term(-405, 0))
+                .build();
+        MathFunction one = new MathFunction.Builder().addTerm(new Term(1, 0)).build();
+        MathFunction square = new MathFunction.Builder()
+                .addTerm(new Term(25, 2)).addTerm(new Term(90, 1)).addTerm(new Term(81, 0))
+                .build();
+        double[] ts = sweep(-1, 1, 8);
+
+        // Act
+        List<List<Double>> crossing = f.solveFamily(one, ts);
+        List<List<Double>> persistent = f.solveFamily(square, ts);
+
+        // Assert
+        Assert.assertEquals(2, crossing.get(4).size());
+        Assert.assertEquals(-1.8, crossing.get(4).get(0), EPSILON);
+        Assert.assertEquals(5, crossing.get(4).get(1), EPSILON);
+        for (int i = 0; i < ts.length; ++i) {
+            Assert.assertEquals("t = " + ts[i], 2, persistent.get(i).size());
+            Assert.assertEquals("t = " + ts[i], -1.8, persistent.get(i).get(0), EPSILON);
+            Assert.assertEquals("t = " + ts[i], 5 - ts[i], persistent.get(i).get(1), EPSILON);
+        }
+        assertMatchesIndependentSolves(f, one, ts);
+        assertMatchesIndependentSolves(f, square, ts);
+    }
+
+    @Test
+    public void generatedFamiliesMatchIndependentSolves() {
+        // Arrange
+        RandomGenerator randomGenerator = new SeededRandomGenerator(25);
+        TermFactory termFactory = new RandomTermFactory(new RandomFractionFactory(randomGenerator));
+        MathFunctionFactory factory = new MathFunctionFactory(termFactory, randomGenerator);
+
+        for (int i = 0; i < 20; ++i) {
+            MathFunction f = factory.create(true, 4, 10, false);
+            MathFunction g = factory.create(true, 2, 10, false);
+
+            // Act & Assert
+            assertMatchesIndependentSolves(f, g, sweep(-3, 3, 60));
+        }
+    }
+
+    @Test
+    public void fractionalExponentsAreSolvedMemberByMember() {
+        // Arrange: x^(1/2) - t, zero at x = t^2 for t > 0
+        MathFunction f = new MathFunction.Builder().addTerm(new Term(Fraction.ONE, new Fraction(1, 2))).build();
+        MathFunction g = new MathFunction.Builder().addTerm(new Term(-1, 0)).build();
+
+        // Act
+        List<List<Double>> family = f.solveFamily(g, new double[] { -1, 2, 3 });
+
+        // Assert
+        Assert.assertTrue(family.get(0).isEmpty());
+        Assert.assertEquals(4, family.get(1).get(0), EPSILON);
+        Assert.assertEquals(9, family.get(2).get(0), EPSILON);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void infiniteParametersAreRejected() {
+        MathFunction f = new MathFunction.Builder().addTerm(new Term(1, 2)).build();
+        f.solveFamily(f, new double[] { 0, Double.POSITIVE_INFINITY });
+    }
+}
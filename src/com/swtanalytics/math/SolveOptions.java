@@ -0,0 +1,118 @@
+package com.swtanalytics.math;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits on the work MathFunction.solve(SolveOptions) does, for callers that need to bound its
+ * latency.  The numeric stage's iterations count against the budget, across every span and every
+ * derivative the call solves, and it stops with its best estimates once the budget or the timeout
+ * runs out; SolveResult.isComplete() then returns false.
+ *
+ * Given a ForkJoinPool, the spans between critical points are refined in parallel on it, once
+ * there are at least parallelThreshold() of them.  The roots come back in the same order either way.
+ */
+public final class SolveOptions {
+    /**
+     * No iteration budget, no timeout, a tolerance of 1e-12, and no parallelism.
+     */
+    public static final SolveOptions DEFAULT = new Builder().build();
+
+    private final long maxIterations;
+    private final long timeoutNanos;
+    private final double tolerance;
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    private SolveOptions(Builder builder) {
+        this.maxIterations = builder.maxIterations;
+        this.timeoutNanos = builder.timeoutNanos;
+        this.tolerance = builder.tolerance;
+        this.pool = builder.pool;
+        this.parallelThreshold = builder.parallelThreshold;
+    }
+
+    /**
+     * @return The most Newton and bisection steps a single call may take, in total.
+     */
+    public long maxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * @return How long after it starts a call must stop iterating, in nanoseconds.
+     */
+    public long timeoutNanos() {
+        return timeoutNanos;
+    }
+
+    /**
+     * @return How close successive estimates of a root must be for it to be accepted.
+     */
+    public double tolerance() {
+        return tolerance;
+    }
+
+    /**
+     * @return The pool to refine spans on, or null to refine them on the calling thread.
+     */
+    public ForkJoinPool pool() {
+        return pool;
+    }
+
+    /**
+     * @return The fewest spans worth refining in parallel.
+     */
+    public int parallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public static class Builder {
+        private long maxIterations = Long.MAX_VALUE;
+        private long timeoutNanos = Long.MAX_VALUE;
+        private double tolerance = 1.0E-12;
+        private ForkJoinPool pool;
+        private int parallelThreshold = 16;
+
+        public Builder maxIterations(long maxIterations) {
+            if (maxIterations < 0) {
+                throw new IllegalArgumentException("The iteration budget cannot be negative.");
+            }
+            this.maxIterations = maxIterations;
+            return this;
+        }
+
+        public Builder timeout(long duration, TimeUnit unit) {
+            if (duration < 0) {
+                throw new IllegalArgumentException("The timeout cannot be negative.");
+            }
+            this.timeoutNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        public Builder tolerance(double tolerance) {
+            if (!(tolerance >= 0)) {
+                throw new IllegalArgumentException("The tolerance must be a non-negative number.");
+            }
+            this.tolerance = tolerance;
+            return this;
+        }
+
+        /**
+         * Refines spans in parallel on @c pool (or sequentially, if it's null) when there are at
+         * least @c threshold of them.
+         */
+        public Builder parallel(ForkJoinPool pool, int threshold) {
+            if (threshold < 1) {
+                throw new IllegalArgumentException("The parallel threshold must be positive.");
+            }
+            this.pool = pool;
+            this.parallelThreshold = threshold;
+            return this;
+        }
+
+        public SolveOptions build() {
+            return new SolveOptions(this);
+        }
+    }
+}
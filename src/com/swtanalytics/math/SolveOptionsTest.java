@@ -0,0 +1,164 @@
+package com.swtanalytics.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(JUnit4.class)
+public class SolveOptionsTest {
+    // x^7 - 3x + 1: no rational roots and no closed form, so the numeric stage does the work
+    private static MathFunction function() {
+        return new MathFunction.Builder().addTerm(new Term(1, 7)).addTerm(new Term(-3, 1)).addTerm(new Term(1, 0)).build();
+    }
+
+    @Test
+    public void defaultOptionsMatchSolveAndCountTheWork() {
+        // Arrange
+        MathFunction function = function();
+
+        // Act
+        SolveResult result = function.solve(SolveOptions.DEFAULT);
+
+        // Assert
+        Assert.assertTrue(result.isComplete());
+        Assert.assertEquals(function().solve(MathContext.DECIMAL128), result.values());
+        Assert.assertEquals(3, result.roots().size());
+        Assert.assertTrue(result.newtonSteps() > 0);
+        Assert.assertTrue(result.evaluations() > result.newtonSteps());
+        Assert.assertTrue(result.elapsedNanos() > 0);
+    }
+
+    @Test
+    public void iterationBudgetStopsTheSearch() {
+        // Arrange
+        MathFunction function = function();
+        SolveOptions options = new SolveOptions.Builder().maxIterations(0).build();
+
+        // Act
+        SolveResult result = function.solve(options);
+
+        // Assert
+        Assert.assertFalse(result.isComplete());
+        Assert.assertEquals(0, result.newtonSteps() + result.bisectionSteps());
+        // A cut-short search isn't cached; a later call gets the full answer.
+        SolveResult full = function.solve(SolveOptions.DEFAULT);
+        Assert.assertTrue(full.isComplete());
+        Assert.assertEquals(3, full.roots().size());
+    }
+
+    @Test
+    public void timeoutStopsTheSearch() {
+        // Arrange
+        SolveOptions options = new SolveOptions.Builder().timeout(0, TimeUnit.NANOSECONDS).build();
+
+        // Act
+        SolveResult result = function().solve(options);
+
+        // Assert
+        Assert.assertFalse(result.isComplete());
+    }
+
+    @Test
+    public void coarserToleranceTakesFewerSteps() {
+        // Arrange
+        SolveOptions coarse = new SolveOptions.Builder().tolerance(1.0E-3).build();
+
+        // Act
+        SolveResult fine = function().solve(SolveOptions.DEFAULT);
+        SolveResult rough = function().solve(coarse);
+
+        // Assert
+        Assert.assertTrue(rough.isComplete());
+        Assert.assertTrue(rough.newtonSteps() < fine.newtonSteps());
+        List<Double> expected = fine.values();
+        List<Double> actual = rough.values();
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            Assert.assertEquals(expected.get(i), actual.get(i), 1.0E-3);
+        }
+    }
+
+    @Test
+    public void coarseCriticalPointsAreNotCachedForLaterSolves() {
+        // Arrange: (200x^2 - 1200x + 1799)(x^4 + x + 5), whose roots 3 +/- sqrt(0.005) lie on either
+        // side of a critical point that a tolerance of 0.5 misplaces
+        MathFunction function = IntegerPolynomial.of(8995, -4201, -200, 200, 1799, -1200, 200).toMathFunction();
+        function.solve(new SolveOptions.Builder().tolerance(0.5).build());
+
+        // Act
+        List<Double> solutions = function.solve(SolveOptions.DEFAULT).values();
+
+        // Assert
+        Assert.assertEquals(2, solutions.size());
+        Assert.assertEquals(3 - Math.sqrt(0.005), solutions.get(0), 1.0E-12);
+        Assert.assertEquals(3 + Math.sqrt(0.005), solutions.get(1), 1.0E-12);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeBudgetIsRejected() {
+        new SolveOptions.Builder().maxIterations(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nanToleranceIsRejected() {
+        new SolveOptions.Builder().tolerance(Double.NaN);
+    }
+
+    // The Chebyshev polynomial T_n, which has n real roots in (-1, 1)
+    private static MathFunction chebyshev(int n) {
+        BigInteger[] previous = { BigInteger.ONE };
+        BigInteger[] current = { BigInteger.ZERO, BigInteger.ONE };
+        for (int k = 1; k < n; ++k) {
+            BigInteger[] next = new BigInteger[current.length + 1];
+            Arrays.fill(next, BigInteger.ZERO);
+            for (int i = 0; i < current.length; ++i) {
+                next[i + 1] = next[i + 1].add(current[i].shiftLeft(1));
+            }
+            for (int i = 0; i < previous.length; ++i) {
+                next[i] = next[i].subtract(previous[i]);
+            }
+            previous = current;
+            current = next;
+        }
+        return IntegerPolynomial.of(current).toMathFunction();
+    }
+
+    @Test
+    public void parallelRefinementMatchesSequential() throws Exception {
+        // Arrange
+        ForkJoinPool pool = new ForkJoinPool(4);
+        SolveOptions parallel = new SolveOptions.Builder().parallel(pool, 2).build();
+
+        try {
+            // Act
+            SolveResult sequentialResult = chebyshev(24).solve(SolveOptions.DEFAULT);
+            SolveResult parallelResult = chebyshev(24).solve(parallel);
+
+            // Assert
+            Assert.assertTrue(parallelResult.isComplete());
+            Assert.assertEquals(24, parallelResult.roots().size());
+            Assert.assertEquals(sequentialResult.roots(), parallelResult.roots());
+            Assert.assertEquals(sequentialResult.newtonSteps(), parallelResult.newtonSteps());
+            Assert.assertEquals(sequentialResult.evaluations(), parallelResult.evaluations());
+            for (int k = 1; k <= 24; ++k) {
+                double expected = Math.cos((2 * k - 1) * Math.PI / 48);
+                Assert.assertEquals(expected, parallelResult.values().get(24 - k), 1.0E-10);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveParallelThresholdIsRejected() {
+        new SolveOptions.Builder().parallel(ForkJoinPool.commonPool(), 0);
+    }
+}
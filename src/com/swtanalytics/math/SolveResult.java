@@ -0,0 +1,83 @@
+package com.swtanalytics.math;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The roots found by MathFunction.solve(SolveOptions), and what it took to find them.
+ */
+public final class SolveResult {
+    private final List<Root> roots;
+    private final boolean complete;
+    private final long newtonSteps;
+    private final long bisectionSteps;
+    private final long evaluations;
+    private final long elapsedNanos;
+
+    SolveResult(List<Root> roots, boolean complete, long newtonSteps, long bisectionSteps, long evaluations, long elapsedNanos) {
+        this.roots = Collections.unmodifiableList(roots);
+        this.complete = complete;
+        this.newtonSteps = newtonSteps;
+        this.bisectionSteps = bisectionSteps;
+        this.evaluations = evaluations;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return The distinct real roots in ascending order, each with its multiplicity.
+     */
+    public List<Root> roots() {
+        return roots;
+    }
+
+    /**
+     * @return The values of roots().
+     */
+    public List<Double> values() {
+        List<Double> values = new ArrayList<Double>(roots.size());
+        for (Root root : roots) {
+            values.add(root.value());
+        }
+        return values;
+    }
+
+    /**
+     * @return False if the iteration budget or the timeout ran out, or an evaluation overflowed to
+     * NaN, so that some roots may be missing or short of the tolerance.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @return The Newton steps taken by the numeric stage.
+     */
+    public long newtonSteps() {
+        return newtonSteps;
+    }
+
+    /**
+     * @return The steps where Newton's method left its bracket, and the numeric stage bisected instead.
+     */
+    public long bisectionSteps() {
+        return bisectionSteps;
+    }
+
+    /**
+     * @return The double-precision evaluations of the function and its derivatives.
+     */
+    public long evaluations() {
+        return evaluations;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return roots + (complete ? "" : " (incomplete)") + ": " + newtonSteps + " Newton steps, "
+                + bisectionSteps + " bisection steps, " + evaluations + " evaluations, " + elapsedNanos + " ns";
+    }
+}
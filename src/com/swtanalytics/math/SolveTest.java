@@ -48,6 +48,14 @@ public class SolveTest {
                 {new Term[]{new Term(10, 10), new Term(34, 6), new Term(-44, 5), new Term(-20, 1), new Term(18, 0)}, new double[]{0.72573680828145349032, 1.0255529554167955547}},
                 {new Term[]{new Term(4, 7), new Term(-30, 5), new Term(-16, 3), new Term(32, 2)}, new double[]{-2.8835295885675711490, 0, 0.87437087422201568461, 2.7649146586482788272}},
                 {new Term[]{new Term(24, 9), new Term(-46, 5), new Term(-8, 1), new Term(-8, 0)}, new double[]{-1.1806289846042322777, -0.59601270428208455010, 1.2169827625444084391}},
+                {new Term[]{new Term(1, 5), new Term(-1000000, 4), new Term(1, 1), new Term(-1000000, 0)}, new double[]{1000000}},
+                {new Term[]{new Term(1, 7), new Term(1, 1), new Term(new Fraction(-1, 1000), 0)}, new double[]{0.001}},
+                {new Term[]{new Term(Fraction.ONE, new Fraction(1, 2)), new Term(-2, 0)}, new double[]{4}},
+                {new Term[]{new Term(Fraction.ONE, new Fraction(3, 2)), new Term(new Fraction(-3), new Fraction(1, 2))}, new double[]{0, 3}},
+                {new Term[]{new Term(Fraction.ONE, new Fraction(1, 3)), new Term(Fraction.MINUS_ONE, new Fraction(1, 2))}, new double[]{0, 1}},
+                {new Term[]{new Term(1, 1), new Term(-3, 0), new Term(2, -1)}, new double[]{1, 2}},
+                {new Term[]{new Term(1, -2), new Term(-4, 0)}, new double[]{-0.5, 0.5}},
+                {new Term[]{new Term(1, -1)}, new double[]{}},
         });
     }
 
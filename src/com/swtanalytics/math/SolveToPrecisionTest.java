@@ -0,0 +1,110 @@
+package com.swtanalytics.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.List;
+
+@RunWith(JUnit4.class)
+public class SolveToPrecisionTest {
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    private static void assertClose(BigDecimal expected, BigDecimal actual, MathContext mc) {
+        // Within a couple of units in the last place
+        BigDecimal tolerance = expected.abs().movePointLeft(mc.getPrecision() - 1).multiply(TWO);
+        Assert.assertTrue("expected " + expected + " but was " + actual, expected.subtract(actual).abs().compareTo(tolerance) <= 0);
+    }
+
+    @Test
+    public void squareRootOfTwoToDecimal128() {
+        // Arrange
+        MathFunction function = new MathFunction.Builder().addTerm(new Term(1, 2)).addTerm(new Term(-2, 0)).build();
+        MathContext mc = MathContext.DECIMAL128;
+
+        // Act
+        List<BigDecimal> roots = function.solveToPrecision(mc);
+
+        // Assert
+        Assert.assertEquals(2, roots.size());
+        assertClose(TWO.sqrt(mc).negate(), roots.get(0), mc);
+        assertClose(TWO.sqrt(mc), roots.get(1), mc);
+    }
+
+    @Test
+    public void hundredDigitsOfAQuinticRoot() {
+        // Arrange: x^5 - x - 1 has one real root, near 1.1673
+        MathFunction function = new MathFunction.Builder().addTerm(new Term(1, 5)).addTerm(new Term(-1, 1)).addTerm(new Term(-1, 0)).build();
+        MathContext mc = new MathContext(100);
+
+        // Act
+        List<BigDecimal> roots = function.solveToPrecision(mc);
+
+        // Assert
+        Assert.assertEquals(1, roots.size());
+        BigDecimal x = roots.get(0);
+        Assert.assertEquals(100, x.precision());
+        BigDecimal residual = x.pow(5).subtract(x).subtract(BigDecimal.ONE);
+        Assert.assertTrue(residual.abs().compareTo(new BigDecimal("1e-97")) < 0);
+    }
+
+    @Test
+    public void repeatedRootsConvergeOnTheirSquareFreeFactor() {
+        // Arrange: (x^2 - 2)^2 (x + 1)
+        MathFunction function = IntegerPolynomial.of(4, 4, -4, -4, 1, 1).toMathFunction();
+        MathContext mc = MathContext.DECIMAL128;
+
+        // Act
+        List<BigDecimal> roots = function.solveToPrecision(mc);
+
+        // Assert
+        Assert.assertEquals(3, roots.size());
+        assertClose(TWO.sqrt(mc).negate(), roots.get(0), mc);
+        assertClose(BigDecimal.ONE.negate(), roots.get(1), mc);
+        assertClose(TWO.sqrt(mc), roots.get(2), mc);
+    }
+
+    @Test
+    public void fractionalExponentsArePolishedThroughTheSubstitution() {
+        // Arrange: x^(3/2) - 2, zero at x = 2^(2/3), the cube root of 4
+        MathFunction function = new MathFunction.Builder()
+                .addTerm(new Term(Fraction.ONE, new Fraction(3, 2))).addTerm(new Term(-2, 0))
+                .build();
+        MathContext mc = MathContext.DECIMAL128;
+
+        // Act
+        List<BigDecimal> roots = function.solveToPrecision(mc);
+
+        // Assert
+        Assert.assertEquals(1, roots.size());
+        assertClose(new BigDecimal("1.587401051968199474751705639272308"), roots.get(0), mc);
+    }
+
+    @Test
+    public void negativeExponentsAndZeroRoots() {
+        // Arrange: x - 2x^-1 is zero at +/- sqrt(2); x^3 - x at -1, 0 and 1
+        MathFunction reciprocal = new MathFunction.Builder().addTerm(new Term(1, 1)).addTerm(new Term(-2, -1)).build();
+        MathFunction cubic = new MathFunction.Builder().addTerm(new Term(1, 3)).addTerm(new Term(-1, 1)).build();
+        MathContext mc = MathContext.DECIMAL64;
+
+        // Act
+        List<BigDecimal> reciprocalRoots = reciprocal.solveToPrecision(mc);
+        List<BigDecimal> cubicRoots = cubic.solveToPrecision(mc);
+
+        // Assert
+        Assert.assertEquals(2, reciprocalRoots.size());
+        assertClose(TWO.sqrt(mc), reciprocalRoots.get(1), mc);
+        Assert.assertEquals(3, cubicRoots.size());
+        Assert.assertEquals(0, BigDecimal.ONE.negate().compareTo(cubicRoots.get(0)));
+        Assert.assertEquals(0, BigDecimal.ZERO.compareTo(cubicRoots.get(1)));
+        Assert.assertEquals(0, BigDecimal.ONE.compareTo(cubicRoots.get(2)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unlimitedPrecisionIsRejected() {
+        new MathFunction.Builder().addTerm(new Term(1, 2)).addTerm(new Term(-2, 0)).build().solveToPrecision(MathContext.UNLIMITED);
+    }
+}
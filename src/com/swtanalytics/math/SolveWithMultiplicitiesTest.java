@@ -0,0 +1,64 @@
+package com.swtanalytics.math;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(Parameterized.class)
+public class SolveWithMultiplicitiesTest {
+
+    private static final double EPSILON = 1.0E-12;
+    private static final double GOLDEN = (1 + Math.sqrt(5)) / 2;
+    private long[] ascending;
+    private double[] expectedValues;
+    private int[] expectedMultiplicities;
+
+    public SolveWithMultiplicitiesTest(long[] ascending, double[] expectedValues, int[] expectedMultiplicities) {
+        this.ascending = ascending;
+        this.expectedValues = expectedValues;
+        this.expectedMultiplicities = expectedMultiplicities;
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> testCases() {
+        return Arrays.asList(new Object[][]{
+                // (x^2 - 2)^2 (x^3 - x - 1): f touches zero at +/- sqrt(2) without changing sign
+                {new long[]{-4, -4, 4, 8, -1, -5, 0, 1}, new double[]{-Math.sqrt(2), 1.3247179572447460, Math.sqrt(2)}, new int[]{2, 1, 2}},
+                // x^3 (x - 1)^2 (x + 2)
+                {new long[]{0, 0, 0, 2, -3, 0, 1}, new double[]{-2, 0, 1}, new int[]{1, 3, 2}},
+                // (x^2 + x - 1)^3
+                {new long[]{-1, 3, 0, -5, 0, 3, 1}, new double[]{-GOLDEN, GOLDEN - 1}, new int[]{3, 3}},
+                // (x^2 + 1)^2 has no real roots
+                {new long[]{1, 0, 2, 0, 1}, new double[]{}, new int[]{}},
+                // (x^2 - 2)^2 (x^47 + 1), beyond the size at which solve(...) skips the decomposition
+                {new long[]{4, 0, -4, 0, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+                        0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 4, 0, -4, 0, 1},
+                        new double[]{-Math.sqrt(2), -1, Math.sqrt(2)}, new int[]{2, 1, 2}},
+                // x^5 - 3x + 1 is square-free
+                {new long[]{1, -3, 0, 0, 0, 1}, new double[]{-1.3887919844072543, 0.3347341419433527, 1.2146480426984618}, new int[]{1, 1, 1}},
+        });
+    }
+
+    @Test
+    public void test() {
+        MathFunction function = IntegerPolynomial.of(ascending).toMathFunction();
+
+        List<Root> roots = function.solveWithMultiplicities(MathContext.DECIMAL128);
+        List<Double> solutions = function.solve(MathContext.DECIMAL128);
+
+        assertEquals(expectedValues.length, roots.size());
+        assertEquals(expectedValues.length, solutions.size());
+        for (int i = 0; i < expectedValues.length; ++i) {
+            assertEquals(expectedValues[i], roots.get(i).value(), EPSILON);
+            assertEquals(expectedMultiplicities[i], roots.get(i).multiplicity());
+            assertEquals(expectedValues[i], solutions.get(i), EPSILON);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.swtanalytics.math;
+
+/**
+ * Scratch space for BatchAnalyzer: the coefficients of a polynomial and of each of its
+ * derivatives, and the roots of each, all in primitive arrays.  The arrays grow to fit the
+ * highest degree seen so far and are then reused, so that analyzing further functions of no
+ * greater degree allocates nothing.
+ *
+ * Not thread-safe; give each thread its own.
+ */
+public final class SolverWorkspace {
+    private static final int DEFAULT_DEGREE = 16;
+
+    // coefficients[k][i] is the coefficient of x^i in the k-th derivative, scaled so that every
+    // derivative keeps the leading coefficient of the function itself (which doesn't move the roots).
+    double[][] coefficients;
+
+    // roots[k][0 .. rootCounts[k] - 1] are the distinct real roots of the k-th derivative, ascending.
+    double[][] roots;
+    int[] rootCounts;
+
+    // The ends of the spans searched for roots of one derivative: -infinity, the next derivative's
+    // roots (and zero, if it's a root), and +infinity.
+    double[] bounds;
+
+    // Counts SpanSolver's steps for one function at a time
+    final SolveContext context = new SolveContext(SolveOptions.DEFAULT);
+
+    public SolverWorkspace() {
+        this(DEFAULT_DEGREE);
+    }
+
+    /**
+     * @param degree The highest degree to make room for up front.
+     */
+    public SolverWorkspace(int degree) {
+        if (degree < 0) {
+            throw new IllegalArgumentException("Degree must be non-negative.");
+        }
+        allocate(degree);
+    }
+
+    /**
+     * @return The highest degree the workspace has room for without growing.
+     */
+    public int capacity() {
+        return coefficients.length - 1;
+    }
+
+    /**
+     * Makes room for a polynomial of the given degree, growing the arrays if they're too small.
+     */
+    void ensureCapacity(int degree) {
+        if (capacity() < degree) {
+            allocate(Math.max(degree, 2 * capacity()));
+        }
+    }
+
+    private void allocate(int degree) {
+        coefficients = new double[degree + 1][degree + 1];
+        roots = new double[degree + 1][degree + 1];
+        rootCounts = new int[degree + 1];
+        bounds = new double[degree + 3];
+    }
+}
@@ -0,0 +1,153 @@
+package com.swtanalytics.math;
+
+/**
+ * The numeric search shared by MathFunction.solve(...), BatchAnalyzer and FamilySolver: the root of
+ * a polynomial in a span where it's monotone, by Newton's method, falling back to bisection
+ * whenever a step would leave the bracket.  The polynomial is given by its coefficients, p[i] being
+ * the coefficient of x^i, for i = 0 .. d.
+ *
+ * Every step counts against the SolveContext's budget and is tallied in its counters.  A single
+ * span also stops after MAX_STEPS steps, however large the budget; the best estimate so far is
+ * returned then, and the context is marked incomplete.
+ */
+final class SpanSolver {
+    // Bisection gets from the widest span of doubles down to adjacent ones in about 2100 steps.
+    static final int MAX_STEPS = 4096;
+
+    private SpanSolver() {
+    }
+
+    /**
+     * @return The root in (domainBegin, domainEnd), where @c p is monotone, or NaN if there's none,
+     * or if the search overflowed (which marks the context incomplete).  The search starts from
+     * @c start if it's inside the span (NaN isn't), and otherwise from the midpoint.
+     * @param bound A bound on the magnitude of the roots, or infinity: the search never goes past it.
+     */
+    static double interiorSolution(double[] p, int d, double domainBegin, double domainEnd, double bound, double start,
+                                   SolveContext context) {
+        // There are no roots beyond the root bound, so the search never needs to go past it, and
+        // the polynomial has the same sign there as at infinity.
+        if (domainBegin == Double.NEGATIVE_INFINITY && !Double.isInfinite(bound)) {
+            if (domainEnd <= -bound) {
+                return Double.NaN;
+            }
+            domainBegin = -bound;
+        }
+        if (domainEnd == Double.POSITIVE_INFINITY && !Double.isInfinite(bound)) {
+            if (bound <= domainBegin) {
+                return Double.NaN;
+            }
+            domainEnd = bound;
+        }
+
+        int rangeBeginSign = Double.compare(valueAt(p, d, domainBegin), 0);
+        int rangeEndSign = Double.compare(valueAt(p, d, domainEnd), 0);
+        context.evaluations += 2;
+        if (rangeBeginSign == 0 || rangeEndSign == 0 || rangeBeginSign == rangeEndSign) {
+            return Double.NaN;
+        }
+
+        double tolerance = context.options.tolerance();
+        double x = (domainBegin < start && start < domainEnd) ? start : divisionPoint(domainBegin, domainEnd);
+        for (int steps = 0; context.step(); ++steps) {
+            if (Math.abs(domainEnd - domainBegin) < tolerance) {
+                return x;
+            }
+            if (steps == MAX_STEPS) {
+                context.markIncomplete();
+                return x;
+            }
+
+            // Horner's scheme for p(x), and differentiated for p'(x)
+            double y = p[d];
+            double slope = 0;
+            for (int i = d - 1; i >= 0; --i) {
+                slope = slope * x + y;
+                y = y * x + p[i];
+            }
+            ++context.evaluations;
+            if (y == 0) {
+                return x;
+            }
+            if (Double.isNaN(y)) {
+                // Overflow, typically from huge coefficients; there's no sign to go on.
+                context.markIncomplete();
+                return Double.NaN;
+            }
+            int ySign = Double.compare(y, 0);
+            assert (ySign == rangeBeginSign) ^ (ySign == rangeEndSign);
+            if (ySign == rangeBeginSign) {
+                domainBegin = x;
+            } else {
+                domainEnd = x;
+            }
+
+            double newX = x - y / slope;
+            if (Math.abs(x - newX) < tolerance) {
+                return x;
+            }
+            if (Double.isNaN(newX) || newX <= domainBegin || domainEnd <= newX) {
+                // Either we've had some rounding error, we're diverging, we're looping, or our walk took us out of the search range.
+                // In any case, let's fall back to a search-by-division on this step.
+                newX = divisionPoint(domainBegin, domainEnd);
+                ++context.bisectionSteps;
+            } else {
+                ++context.newtonSteps;
+            }
+            if (newX <= domainBegin || domainEnd <= newX) {
+                // The bracket is down to adjacent doubles, which is as close as it gets.
+                return x;
+            }
+            x = newX;
+        }
+
+        // Out of budget: the best estimate so far
+        return x;
+    }
+
+    /**
+     * @return The midpoint, or toward an infinite end (only when there's no finite root bound), a
+     * step out by the distance from zero, so that repeated steps double and reach a root at any
+     * magnitude in O(log) steps.
+     */
+    private static double divisionPoint(double begin, double end) {
+        if (Double.isInfinite(begin)) {
+            return Double.isInfinite(end) ? 0 : end - Math.max(1, Math.abs(end));
+        }
+        if (Double.isInfinite(end)) {
+            return begin + Math.max(1, Math.abs(begin));
+        }
+        return (begin + end) / 2;
+    }
+
+    /**
+     * @return Cauchy's bound on the magnitude of the roots, 1 + max |p[i] / p[d]|.
+     */
+    static double cauchyBound(double[] p, int d) {
+        double lead = Math.abs(p[d]);
+        double max = 0;
+        for (int i = 0; i < d; ++i) {
+            max = Math.max(max, Math.abs(p[i]) / lead);
+        }
+        return Math.nextUp((1 + max) * (1 + 1.0E-9));
+    }
+
+    /**
+     * @return p(x), with the limits at the infinities.
+     */
+    static double valueAt(double[] p, int d, double x) {
+        if (Double.isInfinite(x) && 0 < d) {
+            boolean negative = (p[d] < 0) ^ (x < 0 && (d & 1) != 0);
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+        return horner(p, d, x);
+    }
+
+    static double horner(double[] p, int d, double x) {
+        double result = p[d];
+        for (int i = d - 1; i >= 0; --i) {
+            result = result * x + p[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,86 @@
+package com.swtanalytics.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SpanSolverTest {
+    // x^3 - 2x - 5, whose one real root is about 2.0946, and whose critical points are +/- sqrt(2/3)
+    private static final double[] P = { -5, -2, 0, 1 };
+    private static final double ROOT = 2.0945514815423265;
+
+    @Test
+    public void findsTheRootInAMonotoneSpan() {
+        // Arrange
+        SolveContext context = new SolveContext(SolveOptions.DEFAULT);
+
+        // Act
+        double x = SpanSolver.interiorSolution(P, 3, Math.sqrt(2.0 / 3), Double.POSITIVE_INFINITY,
+                SpanSolver.cauchyBound(P, 3), Double.NaN, context);
+
+        // Assert
+        Assert.assertEquals(ROOT, x, 1.0E-12);
+        Assert.assertTrue(context.isComplete());
+        Assert.assertTrue(context.newtonSteps > 0);
+    }
+
+    @Test
+    public void spanWithoutASignChangeHasNoRoot() {
+        // Arrange
+        SolveContext context = new SolveContext(SolveOptions.DEFAULT);
+
+        // Act
+        double x = SpanSolver.interiorSolution(P, 3, Double.NEGATIVE_INFINITY, -Math.sqrt(2.0 / 3),
+                SpanSolver.cauchyBound(P, 3), Double.NaN, context);
+
+        // Assert
+        Assert.assertTrue(Double.isNaN(x));
+        Assert.assertEquals(0, context.newtonSteps + context.bisectionSteps);
+    }
+
+    @Test
+    public void startingNearTheRootTakesFewerSteps() {
+        // Arrange
+        SolveContext fromMidpoint = new SolveContext(SolveOptions.DEFAULT);
+        SolveContext fromStart = new SolveContext(SolveOptions.DEFAULT);
+
+        // Act
+        SpanSolver.interiorSolution(P, 3, 1, 1000, 1000, Double.NaN, fromMidpoint);
+        double x = SpanSolver.interiorSolution(P, 3, 1, 1000, 1000, 2.1, fromStart);
+
+        // Assert
+        Assert.assertEquals(ROOT, x, 1.0E-12);
+        Assert.assertTrue(fromStart.newtonSteps + fromStart.bisectionSteps < fromMidpoint.newtonSteps + fromMidpoint.bisectionSteps);
+    }
+
+    @Test
+    public void budgetStopsTheSearchWithTheBestEstimate() {
+        // Arrange
+        SolveContext context = new SolveContext(new SolveOptions.Builder().maxIterations(3).build());
+
+        // Act
+        double x = SpanSolver.interiorSolution(P, 3, 1, 1000, 1000, Double.NaN, context);
+
+        // Assert
+        Assert.assertFalse(context.isComplete());
+        Assert.assertTrue(1 < x && x < 1000);
+        Assert.assertEquals(3, context.newtonSteps + context.bisectionSteps);
+    }
+
+    @Test
+    public void resetRestoresTheBudgetAndCounters() {
+        // Arrange
+        SolveContext context = new SolveContext(new SolveOptions.Builder().maxIterations(3).build());
+        SpanSolver.interiorSolution(P, 3, 1, 1000, 1000, Double.NaN, context);
+
+        // Act
+        context.reset();
+        double x = SpanSolver.interiorSolution(P, 3, 1, 1000, 1000, 2.0945514815, context);
+
+        // Assert
+        Assert.assertTrue(context.isComplete());
+        Assert.assertEquals(ROOT, x, 1.0E-12);
+    }
+}
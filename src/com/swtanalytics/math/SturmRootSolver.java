@@ -0,0 +1,146 @@
+package com.swtanalytics.math;
+
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Finds real roots with a Sturm sequence over the function's exact coefficients, rather than by
+ * recursively solving its derivatives.
+ *
+ * The function is cleared to an integer polynomial and reduced to its square-free part, so every
+ * root is simple.  The Sturm sequence then counts the roots in any interval exactly, which lets
+ * the bound (-2^k, 2^k) be bisected, in exact rational arithmetic, until each interval holds a
+ * single root, however closely the roots are clustered.  Each root is then refined by Newton's
+ * method in double precision, safeguarded by bisection on exact signs, so it never leaves its
+ * interval and ends within a few ulps of the true root.
+ *
+ * Functions with fractional exponents are handed to the fallback solver.
+ */
+public class SturmRootSolver implements RootSolver {
+    private final RootSolver fallback;
+
+    public SturmRootSolver() {
+        this(new CriticalPointRootSolver());
+    }
+
+    /**
+     * @param fallback Solves functions that this solver can't: those with fractional exponents.
+     */
+    public SturmRootSolver(RootSolver fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public List<Double> solve(MathFunction function, MathContext mc) {
+        if (function.hasFractionalExponent()) {
+            return fallback.solve(function, mc);
+        }
+
+        IntegerPolynomial p = function.exact().toIntegerPolynomial();
+        if (p.degree() <= 0) {
+            // Constant, so no solutions (see MathFunction.solve(...) about f(x) = 0)
+            return Collections.emptyList();
+        }
+
+        IntegerPolynomial squareFree = p.squareFreePart();
+        List<IntegerPolynomial> sequence = sturmSequence(squareFree);
+        BigInteger bound = BigInteger.ONE.shiftLeft(squareFree.rootBoundExponent());
+
+        List<Fraction[]> intervals = new ArrayList<Fraction[]>();
+        isolate(sequence,
+                Fraction.valueOf(bound.negate(), BigInteger.ONE), variationsAtInfinity(sequence, false),
+                Fraction.valueOf(bound, BigInteger.ONE), variationsAtInfinity(sequence, true),
+                intervals);
+
+        CompiledPolynomial compiled = squareFree.toMathFunction().compile();
+        double[] valueAndSlope = new double[2];
+        List<Double> solutions = new ArrayList<Double>(intervals.size());
+        for (Fraction[] interval : intervals) {
+            solutions.add(squareFree.refineRoot(compiled, interval[0], interval[1], valueAndSlope));
+        }
+        return solutions;
+    }
+
+    /**
+     * @return The Sturm sequence of a square-free polynomial: p, p', and then the negated remainders
+     * of the Euclidean algorithm.  Each remainder is scaled by a positive constant to keep its
+     * coefficients small, which leaves the sign variations unchanged.
+     */
+    static List<IntegerPolynomial> sturmSequence(IntegerPolynomial p) {
+        List<IntegerPolynomial> sequence = new ArrayList<IntegerPolynomial>();
+        IntegerPolynomial previous = p;
+        IntegerPolynomial current = p.derivative().primitivePart();
+        sequence.add(previous);
+        while (!current.isZero()) {
+            sequence.add(current);
+            // pseudoRemainder(...) is lc^e times the true remainder, so negate it unless that factor is negative.
+            int e = previous.degree() - current.degree() + 1;
+            IntegerPolynomial remainder = previous.pseudoRemainder(current).primitivePart();
+            boolean factorIsNegative = (current.leadingCoefficient().signum() < 0) && (e % 2 != 0);
+            previous = current;
+            current = factorIsNegative ? remainder : remainder.negate();
+        }
+        return sequence;
+    }
+
+    private static int variations(List<IntegerPolynomial> sequence, Fraction x) {
+        BigInteger p = x.numerator();
+        BigInteger q = x.denominator();
+        int count = 0;
+        int lastSign = 0;
+        for (IntegerPolynomial s : sequence) {
+            int sign = s.signAt(p, q);
+            if (sign != 0) {
+                if (lastSign != 0 && sign != lastSign) {
+                    ++count;
+                }
+                lastSign = sign;
+            }
+        }
+        return count;
+    }
+
+    private static int variationsAtInfinity(List<IntegerPolynomial> sequence, boolean positive) {
+        int count = 0;
+        int lastSign = 0;
+        for (IntegerPolynomial s : sequence) {
+            int sign = s.signAtInfinity(positive);
+            if (lastSign != 0 && sign != lastSign) {
+                ++count;
+            }
+            lastSign = sign;
+        }
+        return count;
+    }
+
+    /**
+     * Appends intervals (a, b), each holding exactly one root, in ascending order.  Neither @c a nor
+     * @c b is a root, and @c va and @c vb are their sign variations.
+     */
+    private static void isolate(List<IntegerPolynomial> sequence, Fraction a, int va, Fraction b, int vb, List<Fraction[]> intervals) {
+        int count = va - vb;
+        if (count == 0) {
+            return;
+        }
+        if (count == 1) {
+            intervals.add(new Fraction[] { a, b });
+            return;
+        }
+
+        // Split at the midpoint, unless it's a root.  Then try a + (b - a) * j / (2j + 1) for
+        // j = 1, 2, ...; those are all distinct, so one of the first (count + 1) is not a root.
+        IntegerPolynomial p = sequence.get(0);
+        Fraction width = b.subtract(a);
+        Fraction split = a.add(width.divide(Fraction.valueOf(2, 1)));
+        for (long j = 1; p.signAt(split) == 0; ++j) {
+            split = a.add(width.multiply(Fraction.valueOf(j, 2 * j + 1)));
+        }
+
+        int vSplit = variations(sequence, split);
+        isolate(sequence, a, va, split, vSplit, intervals);
+        isolate(sequence, split, vSplit, b, vb, intervals);
+    }
+}
@@ -0,0 +1,46 @@
+package com.swtanalytics.math;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.math.MathContext;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class SturmRootSolverTest {
+
+    private static final double EPSILON = 1.0E-10;
+    private Term[] terms;
+    private double[] expected;
+
+    public SturmRootSolverTest(Term[] terms, double[] expected) {
+        this.terms = terms;
+        this.expected = expected;
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> testCases() {
+        // The same functions that the original solver must handle
+        return SolveTest.testCases();
+    }
+
+    @Test
+    public void test() {
+        MathFunction function = new MathFunction();
+        for (Term term : terms) {
+            function.addTerm(term);
+        }
+        List<Double> solutionsList = function.solve(new SturmRootSolver(), MathContext.DECIMAL128);
+
+        double[] solutions = new double[solutionsList.size()];
+        for (int i = 0; i < solutionsList.size(); i++) {
+            solutions[i] = solutionsList.get(i);
+        }
+
+        assertArrayEquals(function.toString(), expected, solutions, EPSILON);
+    }
+}
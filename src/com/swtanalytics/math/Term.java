@@ -16,17 +16,17 @@ public class Term implements Comparable<Term> {
 
     public Term(Fraction c, int e) {
         this.coefficient = c;
-        this.exponent = new Fraction(e);
+        this.exponent = Fraction.valueOf(e, 1);
     }
 
     public Term(int c, Fraction e) {
-        this.coefficient = new Fraction(c);
+        this.coefficient = Fraction.valueOf(c, 1);
         this.exponent = e;
     }
 
     public Term(int c, int e) {
-        this.coefficient = new Fraction(c);
-        this.exponent = new Fraction(e);
+        this.coefficient = Fraction.valueOf(c, 1);
+        this.exponent = Fraction.valueOf(e, 1);
     }
 
     public String prettyPrint(boolean isFirstTerm) {
@@ -48,7 +48,7 @@ public class Term implements Comparable<Term> {
         String variablePart;
         if (this.exponent.sign() == 0) {
             variablePart = "";
-        } else if (this.exponent.equals( new Fraction(1,1) )) {
+        } else if (this.exponent.equals( Fraction.ONE )) {
             variablePart = "x";
         } else {
             variablePart = "x^" + this.exponent.formatString(true, false);
@@ -58,7 +58,7 @@ public class Term implements Comparable<Term> {
     }
 
     private String formatCoefficientPart(boolean isFirstTerm) {
-        return this.coefficient.equals( new Fraction(1,1) )
+        return this.coefficient.equals( Fraction.ONE )
                 ? ""
                 : this.coefficient.formatString(isFirstTerm, !isFirstTerm);
     }
@@ -77,9 +77,11 @@ public class Term implements Comparable<Term> {
     // Therefore, for practical purposes, we switch to using 64-bit double precision numbers here.
     // A future enhancement might be to implement pow(...) support to the Fraction class, but that's
     // beyond the scope of the current effort.
+    //
+    // The coefficient and exponent are converted with Fraction.doubleValue(), which is correctly
+    // rounded and cached, so @c mc is no longer needed here.
     public double evaluate(double value, MathContext mc) {
-        double returnValue = Math.pow(value, exponent.bigDecimalValue(mc).doubleValue()) * 
-        			  coefficient.bigDecimalValue(mc).doubleValue();
+        double returnValue = Math.pow(value, exponent.doubleValue()) * coefficient.doubleValue();
 
         return returnValue;
     }